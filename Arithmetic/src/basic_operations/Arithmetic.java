@@ -41,13 +41,8 @@ public class Arithmetic {
             throw new ArithmeticException("Division by zero ocurred.");
         
         int n0 = Math.abs(n);
-        if (m >= 0) {
-            return m % n0;
-        }
-        if (n0 == 1) {
-            return 0;
-        }
-        return n0 + m % n0;
+        int r = m % n0;
+        return (r < 0) ? r + n0 : r;
     }
     
     /**
@@ -65,18 +60,14 @@ public class Arithmetic {
             throw new ArithmeticException("Division by zero ocurred.");
         
         int n0 = Math.abs(n);
-        if (m >= 0) {
-            return (int) (m % n0);
-        }
-        if (n0 == 1) {
-            return 0;
-        }
-        return (int) (n0 + m % n0);
+        int r = (int) (m % n0);
+        return (r < 0) ? r + n0 : r;
     }
     
     /**
      * For n &#8800; 0, returns the representative in {0, 1, ..., |n|-1} for the
-     * residue class of m mod n.
+     * residue class of m mod n.  The reduction is delegated to the shared 
+     * ModulusContext of |n|, and so takes no integer division.
      * 
      * @param a any integer
      * @param n a nonzero short integer
@@ -88,32 +79,42 @@ public class Arithmetic {
         if (n==0)
             throw new ArithmeticException("Division by zero ocurred.");
         
-        short n0 = (short) Math.abs(n);
-        if (a >= 0) {
-            return (short) (a % n0);
-        }
-        if (n0 == 1) {
-            return 0;
+        return (short) ModulusContext.of(Math.abs(n)).reduce(a);
+    }
+    
+    /*
+     * Reduces m mod n through the shared ModulusContext of |n| when |n| is a 
+     * positive short, and by an integer division otherwise, since 
+     * ModulusContext covers no modulus beyond 2^16 (and shares none beyond 
+     * Short.MAX_VALUE).
+     */
+    private static int reduceShared(long m, int n) {
+        int n0 = Math.abs(n);
+        if (n0 > 0 && n0 <= Short.MAX_VALUE) {
+            return ModulusContext.of(n0).reduce(m);
         }
-        return (short) (n0 + a % n0);
-        
+        return reduce(m, n);
     }
     
     /**
      * Safely computes the reduced sum of two integers a and b mod n
-     * by casting a and b to long prior to computation. 
+     * by casting a and b to long prior to computation.  For |n| &lt= 
+     * Short.MAX_VALUE the reduction is delegated to the shared ModulusContext 
+     * of |n|.
      * 
      * @param a any integer
      * @param b any integer
      * @param n any non-zero integer
      * @return reduced sum of a and b mod n.
+     * @throws ArithmeticException if n is 0
      */
     public static int reducedSum(int a, int b, int n) { 
-        return reduce((((long) a) + ((long) b)), n);
+        return reduceShared((((long) a) + ((long) b)), n);
     }
     
     /**
-     * Computes the reduced sum of two shorts a and b mod n. 
+     * Computes the reduced sum of two shorts a and b mod n, through the shared
+     * ModulusContext of |n|. 
      * 
      * @param a any short
      * @param b any short
@@ -126,19 +127,23 @@ public class Arithmetic {
     
     /**
      * Safely computes the reduced product of two integers a and b mod n
-     * by casting a and b to long prior to computation.
+     * by casting a and b to long prior to computation.  For |n| &lt= 
+     * Short.MAX_VALUE the reduction is delegated to the shared ModulusContext 
+     * of |n|.
      * 
      * @param a any integer
      * @param b any integer
      * @param n any non-zero integer
      * @return reduced product of a and b mod n.
+     * @throws ArithmeticException if n is 0
      */
     public static int reducedProduct(int a, int b, int n) {
-        return reduce((((long) a) * ((long) b)), n);
+        return reduceShared((((long) a) * ((long) b)), n);
     }
     
     /**
-     * Computes the reduced product of two shorts a and b mod n. 
+     * Computes the reduced product of two shorts a and b mod n, through the 
+     * shared ModulusContext of |n|. 
      * 
      * @param a any short
      * @param b any short
@@ -151,22 +156,40 @@ public class Arithmetic {
     
     /**
      * Finds the multiplicative inverse of a mod n; returns 0 if the inverse does not exist.  
-     * Note that a is invertible mod n if and only if gcd(a, n)=1.  
+     * Note that a is invertible mod n if and only if gcd(a, n)=1.  For a prime 
+     * n &lt= PrimeFieldTables.MAX_MODULUS the inverse is looked up in the cached
+     * PrimeFieldTables of n; otherwise it is computed by the extended Euclidean 
+     * algorithm.
      * 
      * @param a Any integer.
      * @param n Any integer.
      * @return The representative r, with 0&lt=r&ltn, of a^(-1) mod n, if it exists.  Returns 0 if the inverse does not exist, or if n=0.
      */
     public static int findInverse(int a, int n) {
-        int max = n/2;
-        for (int i=1; i<=max; i++) {
-            int r = reducedProduct(a, i, n);
-            if (r==1)
-                return i;
-            if (r==n-1)
-                return n-i;
+        PrimeFieldTables tables = PrimeFieldTables.lookup(n);
+        if (tables != null) {
+            return tables.inverse(reduce(a, n));
         }
-        return 0;
+        if (n < 2) {
+            return 0;
+        }
+        int r0 = n;
+        int r1 = reduce(a, n);
+        int t0 = 0;
+        int t1 = 1;
+        while (r1 != 0) {
+            int quotient = r0 / r1;
+            int temp = r0 - quotient * r1;
+            r0 = r1;
+            r1 = temp;
+            temp = t0 - quotient * t1;
+            t0 = t1;
+            t1 = temp;
+        }
+        if (r0 != 1) {
+            return 0;
+        }
+        return (t0 < 0) ? t0 + n : t0;
     }
     
     /**
@@ -178,15 +201,7 @@ public class Arithmetic {
      * @return The representative r, with 0&lt=r&ltn, of a^(-1) mod n, if it exists.  Returns 0 if the inverse does not exist, or if n=0.
      */
     public static short findInverse(short a, short n) {
-        int max = n/2;
-        for (short i=1; i<=max; i++) {
-            int r = reducedProduct(a, i, n);
-            if (r==1)
-                return i;
-            if (r==n-1)
-                return (short) (n-i);
-        }
-        return 0;
+        return (short) findInverse((int) a, (int) n);
     }
     
     /**
@@ -236,6 +251,8 @@ public class Arithmetic {
     
     /**
      * Computes the multiplicative order of a mod n; returns 0 if gcd(a,n)>1.  The order of a mod n is by definition the exponent k for which a^k is congruent to 1 mod n.
+     * For a prime n &lt= PrimeFieldTables.MAX_MODULUS the order is read off the 
+     * discrete logarithm of a.
      * 
      * @param a any integer.
      * @param n any non-zero integer.
@@ -243,6 +260,10 @@ public class Arithmetic {
      */
     public static int getOrder(int a, int n) {
         
+        PrimeFieldTables tables = PrimeFieldTables.lookup(n);
+        if (tables != null) {
+            return tables.getOrder(reduce(a, n));
+        }
         if (n != 0) {
             if (gcd(a,n)>1) 
                 return 0;
@@ -259,17 +280,19 @@ public class Arithmetic {
     
     /**
      * Finds the smallest positive integer whose reduction modulo the prime q is a generator
-     * for the multiplicative group of the field Z/qZ.
+     * for the multiplicative group of the field Z/qZ.  A candidate g is tested by
+     * checking that g^((q-1)/p) is not 1 mod q, for each prime p dividing q-1.
      * 
      * @param q a prime number
      * @return a generator for the unit group of the field Z/qZ.  Returns 0 if q is not prime.
      */
     public static int getMultiplicativeGenerator(int q) {
+        PrimeFieldTables tables = PrimeFieldTables.lookup(q);
+        if (tables != null) {
+            return tables.getMultiplicativeGenerator();
+        }
         if (isPrime(q)) {
-            for (int i=1; i<q; i++) {
-                if (getOrder(i, q) == q-1)
-                    return i;
-            }
+            return PrimeFieldTables.findMultiplicativeGenerator(q);
         }
         return 0;
     }
@@ -279,6 +302,10 @@ public class Arithmetic {
      * where q is a prime number, if it exists; otherwise returns 0.  Note that the square root exists if and only if q is congruent to 1 mod 4.
      */
     public static int findIota(int q) {
+        PrimeFieldTables tables = PrimeFieldTables.lookup(q);
+        if (tables != null) {
+            return (q % 4 == 1) ? tables.squareRoot(q - 1) : 0;
+        }
         if (isPrime(q) && q % 4 == 1) {
             for (int i = 2; i <= q/2; i++) {
                 if (((i * i + 1) % q) == 0) {
@@ -291,13 +318,19 @@ public class Arithmetic {
 
     /**
      * Finds the representative r, with 0&le;r&lt;q/2, of the square root of a in Z/qZ, 
-     * where q is a prime number, if it exists; otherwise returns 0.
+     * where q is a prime number, if it exists; otherwise returns 0.  For 
+     * q &lt= PrimeFieldTables.MAX_MODULUS the root is looked up in the cached 
+     * PrimeFieldTables of q.
      * 
      * @param a any integer
      * @param q a prime number
      * @return square root of a mod q.  Returns 0 if q is not prime, or a square root does not exist.
      */
     public static int findSquareRoot(int a, int q) {
+        PrimeFieldTables tables = PrimeFieldTables.lookup(q);
+        if (tables != null) {
+            return tables.squareRoot(reduce(a, q));
+        }
         if (isPrime(q)) {
             int aRed = reduce(a, q);
             for (int i = 1; i <= q/2; i++) {
@@ -310,13 +343,19 @@ public class Arithmetic {
     }
     
     /**
-     * Determines whether a is a non-zero square mod the prime q via the Jacobi symbol.
+     * Determines whether a is a non-zero square mod the prime q, via the cached 
+     * PrimeFieldTables of q if q &lt= PrimeFieldTables.MAX_MODULUS, and via the 
+     * Jacobi symbol otherwise.
      * 
      * @param a any integer
      * @param q a prime number
      * @return true if a is a non-zero square mod q.  Returns false otherwise, or if q is not prime.
      */
     public static boolean isSquare(int a, int q) {
+        PrimeFieldTables tables = PrimeFieldTables.lookup(q);
+        if (tables != null) {
+            return tables.isSquare(reduce(a, q));
+        }
         if (isPrime(q)) {
             if (q==2) 
                 return (a%2 != 0);
@@ -372,29 +411,14 @@ public class Arithmetic {
     }
     
     /**
-     * Basic primality test for n.  Checks n for divisibility by numbers &lt= sqrt(n)
-     * which are congruent to &#177;1 mod 6.
+     * Primality test for n, delegated to Primes.isPrime: a lookup in a cached 
+     * sieve for n &lt Primes.SIEVE_LIMIT, and a deterministic Miller-Rabin test
+     * otherwise.
      * 
      * @param n Any integer.
      */
     public static boolean isPrime(int n) {
-        if (n == 2 || n == 3) {
-            return true;
-        }
-        if (n%2==0 || n%3==0) {
-            return false;
-        }
-        if (n > 4) {
-            double maxI = (Math.sqrt(n) + 1) / 6;
-            for (int i = 1; i <= maxI; i++) {
-                int multOf6 = 6 * i;
-                if ((n % (multOf6 - 1) == 0) || (n % (multOf6 + 1) == 0)) {
-                    return false;
-                }
-            }
-            return true;
-        }
-        return false;
+        return Primes.isPrime(n);
     }
 
     /**
@@ -416,7 +440,8 @@ public class Arithmetic {
     }
 
     /**
-     * Computes Jacobi symbol recursively via reciprocity.
+     * Computes Jacobi symbol iteratively via reciprocity, removing the factors of
+     * 2 from the numerator by the second supplementary law.
      * The Jacobi symbol is defined only for n odd and positive.
      * 
      * @param m any integer
@@ -427,39 +452,26 @@ public class Arithmetic {
     public static int jacobiSymbol(int m, int n) {
 
         if (n > 0 && n % 2 != 0) {
-            if (m == -1) {
-                if ((n - 1) % 4 == 0) {
-                    return 1;
-                }
-                return -1;
-            }
-            if (m == 2) {
-                int resMod8 = n % 8;
-                if (resMod8 == 1 || resMod8 == 7) {
-                    return 1;
+            int a = reduce(m, n);
+            int b = n;
+            int symbol = 1;
+            while (a != 0) {
+                while ((a & 1) == 0) {
+                    a >>= 1;
+                    int resMod8 = b & 7;
+                    if (resMod8 == 3 || resMod8 == 5) {
+                        symbol = -symbol;
+                    }
                 }
-                return -1;
-            }
-            if (m == 0) {
-                if (n == 1) {
-                    return 1;
+                int temp = a;
+                a = b;
+                b = temp;
+                if ((a & 3) == 3 && (b & 3) == 3) {
+                    symbol = -symbol;
                 }
-                return 0;
-            }
-            if (m < 0) {
-                return jacobiSymbol(-1, n) * jacobiSymbol(-m, n);
-            }
-            if (m > n) {
-                return jacobiSymbol(m % n, n);
-            }
-            if (m % 2 == 0) {
-                return jacobiSymbol(2, n) * jacobiSymbol(m / 2, n);
-            }
-
-            if ((m - 3) % 4 == 0 && (n - 3) % 4 == 0) {
-                return -jacobiSymbol(n, m);
+                a = a % b;
             }
-            return jacobiSymbol(n, m);
+            return (b == 1) ? symbol : 0;
         }
         throw new ArithmeticException("jacobiSymbol undefined at parameter value.");
     }
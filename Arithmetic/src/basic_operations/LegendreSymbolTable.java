@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package basic_operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A table of the Legendre symbols (p/q), for p ranging over a set of integers 
+ * (the <em>numerators</em>) and q ranging over the odd primes of an interval 
+ * (the <em>moduli</em>), as is needed to sweep over the parameters (p, q) of 
+ * LPS generating sets.
+ * 
+ * <p>
+ * The symbols are held in a single <code>byte</code> array, one row per 
+ * modulus, so that the table for a few thousand numerators and moduli takes a 
+ * few megabytes.  The moduli are listed in increasing order, and the numerators
+ * are sorted, with duplicates removed.  Each symbol is computed by 
+ * Arithmetic.jacobiSymbol, in time logarithmic in q.
+ * </p>
+ *
+ * <p>
+ * The rows of the table are computed independently of one another, and may be
+ * computed concurrently on the threads of an ExecutorService, each task filling
+ * a contiguous range of rows.
+ * </p>
+ * 
+ * @author pdokos
+ */
+public class LegendreSymbolTable {
+
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final int[] numerators;
+    private final int[] moduli;
+    private final byte[] symbols;
+
+    /**
+     * Constructor for the LegendreSymbolTable of the given numerators and of 
+     * the odd primes q with qFrom &lt= q &lt= qTo, computed on the calling thread.
+     * 
+     * @param numerators any integers.
+     * @param qFrom the lower bound of the interval of moduli.
+     * @param qTo the upper bound of the interval of moduli.
+     * @throws IllegalArgumentException if the table would exceed 
+     * <code>Integer.MAX_VALUE</code> entries.
+     */
+    public LegendreSymbolTable(int[] numerators, int qFrom, int qTo) {
+        this(numerators, qFrom, qTo, null, 1);
+    }
+
+    /**
+     * Constructor for the LegendreSymbolTable of the given numerators and of 
+     * the odd primes q with qFrom &lt= q &lt= qTo, computed on a newly created 
+     * pool of numThreads threads, which is shut down upon completion.
+     * 
+     * @param numerators any integers.
+     * @param qFrom the lower bound of the interval of moduli.
+     * @param qTo the upper bound of the interval of moduli.
+     * @param numThreads the number of threads on which the table is computed.
+     * @throws IllegalArgumentException if the table would exceed 
+     * <code>Integer.MAX_VALUE</code> entries.
+     */
+    public LegendreSymbolTable(int[] numerators, int qFrom, int qTo, int numThreads) {
+        this(numerators, qFrom, qTo, Executors.newFixedThreadPool(numThreads), numThreads, true);
+    }
+
+    /**
+     * Constructor for the LegendreSymbolTable of the given numerators and of 
+     * the odd primes q with qFrom &lt= q &lt= qTo, with the rows of the table 
+     * computed by tasks submitted to the given executor, which is left running.
+     * 
+     * @param numerators any integers.
+     * @param qFrom the lower bound of the interval of moduli.
+     * @param qTo the upper bound of the interval of moduli.
+     * @param executor the ExecutorService on which the table is computed, or 
+     * null for the table to be computed on the calling thread.
+     * @param parallelism the number of threads of the executor.  The rows are 
+     * split into a small multiple of this many tasks.
+     * @throws IllegalArgumentException if the table would exceed 
+     * <code>Integer.MAX_VALUE</code> entries.
+     */
+    public LegendreSymbolTable(int[] numerators, int qFrom, int qTo, ExecutorService executor, int parallelism) {
+        this(numerators, qFrom, qTo, executor, parallelism, false);
+    }
+
+    private LegendreSymbolTable(int[] numerators, int qFrom, int qTo, ExecutorService executor, int parallelism, boolean shutdown) {
+        try {
+            this.numerators = distinctSorted(numerators);
+            List<Integer> primes = new ArrayList<Integer>();
+            for (int q : Primes.primesBetween(Math.max(qFrom, 3), qTo)) {
+                primes.add(q);
+            }
+            moduli = new int[primes.size()];
+            for (int i = 0; i < moduli.length; i++) {
+                moduli[i] = primes.get(i);
+            }
+            long numEntries = (long) moduli.length * this.numerators.length;
+            if (numEntries > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("A table of " + moduli.length + "*" + this.numerators.length + " entries exceeds Integer.MAX_VALUE.");
+            }
+            symbols = new byte[(int) numEntries];
+            fillTable(executor, parallelism);
+        } finally {
+            if (shutdown) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static int[] distinctSorted(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+
+    private void fillTable(ExecutorService executor, int parallelism) {
+        int numRows = moduli.length;
+        if (executor == null || parallelism <= 1) {
+            fillRows(0, numRows);
+            return;
+        }
+        int numTasks = Math.min(numRows, parallelism * TASKS_PER_THREAD);
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(numTasks);
+        for (int t = 0; t < numTasks; t++) {
+            final int from = (int) ((long) numRows * t / numTasks);
+            final int to = (int) ((long) numRows * (t + 1) / numTasks);
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    fillRows(from, to);
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Legendre symbol table construction was interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Legendre symbol table construction failed.", ex.getCause());
+        }
+    }
+
+    private void fillRows(int from, int to) {
+        int ind = from * numerators.length;
+        for (int i = from; i < to; i++) {
+            int q = moduli[i];
+            for (int j = 0; j < numerators.length; j++) {
+                symbols[ind] = (byte) Arithmetic.jacobiSymbol(numerators[j], q);
+                ind++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of moduli, i.e.&#160the number of rows of the table.
+     * 
+     * @return the number of moduli.
+     */
+    public int getNumberOfModuli() {
+        return moduli.length;
+    }
+
+    /**
+     * Returns the number of numerators, i.e.&#160the number of columns of the table.
+     * 
+     * @return the number of numerators.
+     */
+    public int getNumberOfNumerators() {
+        return numerators.length;
+    }
+
+    /**
+     * Returns the i-th modulus, in increasing order.
+     * 
+     * @param i an integer with 0 &lt= i &lt getNumberOfModuli().
+     * @return the i-th modulus.
+     */
+    public int getModulus(int i) {
+        return moduli[i];
+    }
+
+    /**
+     * Returns the j-th numerator, in increasing order.
+     * 
+     * @param j an integer with 0 &lt= j &lt getNumberOfNumerators().
+     * @return the j-th numerator.
+     */
+    public int getNumerator(int j) {
+        return numerators[j];
+    }
+
+    /**
+     * Returns the Legendre symbol of the j-th numerator modulo the i-th modulus.
+     * 
+     * @param i an integer with 0 &lt= i &lt getNumberOfModuli().
+     * @param j an integer with 0 &lt= j &lt getNumberOfNumerators().
+     * @return the Legendre symbol (getNumerator(j)/getModulus(i)).
+     */
+    public int getSymbolAt(int i, int j) {
+        return symbols[i * numerators.length + j];
+    }
+
+    /**
+     * Returns the Legendre symbol (p/q).
+     * 
+     * @param p a numerator of the table.
+     * @param q a modulus of the table.
+     * @return the Legendre symbol (p/q).
+     * @throws IllegalArgumentException if p is not a numerator, or q is not a 
+     * modulus, of the table.
+     */
+    public int getSymbol(int p, int q) {
+        int i = Arrays.binarySearch(moduli, q);
+        int j = Arrays.binarySearch(numerators, p);
+        if (i < 0 || j < 0) {
+            throw new IllegalArgumentException("(" + p + "/" + q + ") is not held in the table.");
+        }
+        return symbols[i * numerators.length + j];
+    }
+
+}
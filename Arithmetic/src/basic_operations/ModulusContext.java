@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package basic_operations;
+
+/**
+ * The modular arithmetic for a fixed modulus q, with 1 &lt= q &lt= 65536, in which
+ * every reduction is carried out by <em>Barrett reduction</em> rather than by 
+ * an integer division.
+ * 
+ * <p>
+ * Upon construction, the constant m = floor(2^32/q) is computed once and for 
+ * all.  A non-negative value x &lt 2^32 is then reduced by estimating its 
+ * quotient by q as (x*m) &gt&gt&gt 32 (the product being computed as an unsigned 
+ * 64-bit value), which is at most one less than the actual quotient, followed by
+ * a single branch-free correction.  Since q &lt= 2^16, the product of two 
+ * residues, plus a third, is always less than 2^32, so that the methods mul and 
+ * mulAdd take a single reduction.  Negative values are reduced through their 
+ * absolute values, again without branching.
+ * </p>
+ * 
+ * <p>
+ * The methods add, sub, neg, mul and mulAdd expect their arguments to be 
+ * residues, i.e.&#160integers r with 0 &lt= r &lt q, and return residues.  The 
+ * reduce methods accept any integer.
+ * </p>
+ * 
+ * <p>
+ * Instances are immutable, and those for the <code>short</code> moduli are 
+ * shared through the static method of(q), so that classes modeling groups over
+ * the field of q elements need not hold a reference to a ModulusContext in 
+ * each of their elements.
+ * </p>
+ * 
+ * <p>
+ * Only moduli q &lt= MAX_MODULUS = 2^16 are covered, since the method mul relies
+ * on the product of two residues being less than 2^32, and there is no form of
+ * the class for <code>long</code> (or larger <code>int</code>) moduli.  The 
+ * static methods of Arithmetic therefore reduce modulo larger integers by an 
+ * integer division, as before.
+ * </p>
+ * 
+ * @author pdokos
+ */
+public final class ModulusContext {
+    
+    /**
+     * The largest supported modulus.
+     */
+    public static final int MAX_MODULUS = 1 << 16;
+    
+    private static final long TWO_TO_THE_32 = 1L << 32;
+    private static final ModulusContext[] SHORT_CONTEXTS = new ModulusContext[Short.MAX_VALUE + 1];
+    
+    private final int q;
+    private final long m;
+
+    /**
+     * Constructor for the ModulusContext of the modulus q.
+     * 
+     * @param q an integer with 1 &lt= q &lt= MAX_MODULUS.
+     * @throws IllegalArgumentException if q is out of range.
+     */
+    public ModulusContext(int q) {
+        if (q < 1 || q > MAX_MODULUS) {
+            throw new IllegalArgumentException("Unsupported modulus: " + q);
+        }
+        this.q = q;
+        m = TWO_TO_THE_32 / q;
+    }
+    
+    /**
+     * Returns the ModulusContext of the modulus q, which is shared by all callers
+     * when q is a positive <code>short</code>.
+     * 
+     * @param q an integer with 1 &lt= q &lt= MAX_MODULUS.
+     * @return the ModulusContext of the modulus q.
+     * @throws IllegalArgumentException if q is out of range.
+     */
+    public static ModulusContext of(int q) {
+        if (q > 0 && q <= Short.MAX_VALUE) {
+            ModulusContext context = SHORT_CONTEXTS[q];
+            if (context == null) {
+                //A benign race: the fields are final, so a context is safely
+                //published, and at worst a few equal contexts are created.
+                context = new ModulusContext(q);
+                SHORT_CONTEXTS[q] = context;
+            }
+            return context;
+        }
+        return new ModulusContext(q);
+    }
+    
+    /**
+     * Returns the modulus.
+     * 
+     * @return the modulus.
+     */
+    public int getModulus() {
+        return q;
+    }
+    
+    /*
+     * Barrett reduction of a value 0 <= x < 2^32.  The estimated quotient is 
+     * exact or one less than the quotient, so that r lies in [0, 2q) before the 
+     * correction.
+     */
+    private int barrett(long x) {
+        long quotient = (x * m) >>> 32;
+        int r = (int) (x - quotient * q) - q;
+        return r + ((r >> 31) & q);
+    }
+    
+    /**
+     * Returns the residue of x mod q.
+     * 
+     * @param x any <code>int</code>.
+     * @return the representative r, with 0 &lt= r &lt q, of x mod q.
+     */
+    public int reduce(int x) {
+        int sign = x >> 31;
+        long abs = (x ^ (long) sign) - sign;
+        int r = (barrett(abs) ^ sign) - sign;
+        return r + ((r >> 31) & q);
+    }
+    
+    /**
+     * Returns the residue of x mod q.  Values of x outside of the interval 
+     * [0, 2^32) are reduced by an integer division.
+     * 
+     * @param x any <code>long</code>.
+     * @return the representative r, with 0 &lt= r &lt q, of x mod q.
+     */
+    public int reduce(long x) {
+        if ((x >>> 32) == 0) {
+            return barrett(x);
+        }
+        int r = (int) (x % q);
+        return r + ((r >> 31) & q);
+    }
+    
+    /**
+     * Returns the sum of two residues mod q.
+     * 
+     * @param a a residue.
+     * @param b a residue.
+     * @return the residue of a+b.
+     */
+    public int add(int a, int b) {
+        int r = a + b - q;
+        return r + ((r >> 31) & q);
+    }
+    
+    /**
+     * Returns the difference of two residues mod q.
+     * 
+     * @param a a residue.
+     * @param b a residue.
+     * @return the residue of a-b.
+     */
+    public int sub(int a, int b) {
+        int r = a - b;
+        return r + ((r >> 31) & q);
+    }
+    
+    /**
+     * Returns the negative of a residue mod q.
+     * 
+     * @param a a residue.
+     * @return the residue of -a.
+     */
+    public int neg(int a) {
+        int r = -a;
+        return r + ((r >> 31) & q);
+    }
+    
+    /**
+     * Returns the product of two residues mod q.
+     * 
+     * @param a a residue.
+     * @param b a residue.
+     * @return the residue of a*b.
+     */
+    public int mul(int a, int b) {
+        return barrett((long) a * b);
+    }
+    
+    /**
+     * Returns the product of two residues plus a third, mod q.
+     * 
+     * @param a a residue.
+     * @param b a residue.
+     * @param c a residue.
+     * @return the residue of a*b+c.
+     */
+    public int mulAdd(int a, int b, int c) {
+        return barrett((long) a * b + c);
+    }
+    
+    /**
+     * Returns the residue of a*b+c*d, for residues a, b, c and d.
+     * 
+     * @param a a residue.
+     * @param b a residue.
+     * @param c a residue.
+     * @param d a residue.
+     * @return the residue of a*b+c*d.
+     */
+    public int dot2(int a, int b, int c, int d) {
+        return barrett((long) a * b + barrett((long) c * d));
+    }
+    
+}
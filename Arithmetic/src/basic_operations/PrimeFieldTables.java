@@ -0,0 +1,374 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package basic_operations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lookup tables for the arithmetic of the field Z/qZ, for a prime q &lt= 
+ * MAX_MODULUS: multiplicative inverses, the smallest primitive root, discrete 
+ * logarithms and antilogarithms with respect to it, and square roots.
+ * 
+ * <p>
+ * Each table is built the first time it is needed, in time linear in q, after
+ * which inverse(x), log(x), exp(k), getOrder(x), squareRoot(x) and isSquare(x) 
+ * are single array lookups.  The inverse table is computed by the recurrence 
+ * x^(-1) = -(q/x)*(q mod x)^(-1) mod q, so that it does not require the 
+ * logarithm tables.
+ * </p>
+ * 
+ * <p>
+ * Instances are shared through the static method of(q), which keeps the tables
+ * of the most recently used primes in a cache bounded by MAX_CACHED_ENTRIES
+ * table entries (counting four tables of size q for each prime), evicting the 
+ * least recently used primes first.  An evicted instance remains valid for 
+ * those who still hold a reference to it.  All methods are thread-safe.
+ * </p>
+ * 
+ * <p>
+ * The cached instances are indexed by q in an AtomicReferenceArray, so that 
+ * finding the tables of a cached prime takes no lock, and the integers up to 
+ * MAX_MODULUS which are not prime are marked in a bit set computed once by a 
+ * sieve, so that neither does rejecting a composite modulus.  The lock of the
+ * cache is only taken to create (and, when the cache is full, evict) 
+ * instances.  Uses of a cached instance are recorded by stamping it with the
+ * number of instances created so far, which approximates the order of use 
+ * without any write to shared state beyond the instance itself.
+ * </p>
+ * 
+ * <p>
+ * The static methods of the class Arithmetic consult these tables whenever
+ * their modulus is a prime q &lt= MAX_MODULUS, and fall back on a direct 
+ * computation otherwise.
+ * </p>
+ * 
+ * @author pdokos
+ */
+public final class PrimeFieldTables {
+    
+    /**
+     * The largest prime for which tables are built.
+     */
+    public static final int MAX_MODULUS = ModulusContext.MAX_MODULUS;
+    
+    /**
+     * The maximum number of table entries held by the cache.
+     */
+    public static final int MAX_CACHED_ENTRIES = 1 << 22;
+    
+    private static final int TABLES_PER_PRIME = 4;
+    private static final long[] NON_PRIMES = sieveNonPrimes(MAX_MODULUS);
+    private static final AtomicReferenceArray<PrimeFieldTables> CACHE = new AtomicReferenceArray<PrimeFieldTables>(MAX_MODULUS + 1);
+    private static final List<PrimeFieldTables> CACHED_TABLES = new ArrayList<PrimeFieldTables>();
+    private static long cachedEntries = 0;
+    private static volatile long clock = 0;
+    
+    private final int q;
+    private final int generator;
+    private long lastUsed; //the clock at the last use; racy, as it only guides eviction
+    private volatile int[] inverses;
+    private volatile int[] logs;
+    private volatile int[] antilogs;
+    private volatile int[] squareRoots;
+    
+    private PrimeFieldTables(int q) {
+        this.q = q;
+        generator = findMultiplicativeGenerator(q);
+    }
+    
+    /**
+     * Returns the tables of the prime q, from the cache if they are held there.
+     * 
+     * @param q a prime with q &lt= MAX_MODULUS.
+     * @return the tables of the field Z/qZ.
+     * @throws IllegalArgumentException if q is not a prime, or q &gt MAX_MODULUS.
+     */
+    public static PrimeFieldTables of(int q) {
+        PrimeFieldTables tables = lookup(q);
+        if (tables == null) {
+            throw new IllegalArgumentException("Not a prime modulus <= " + MAX_MODULUS + ": " + q);
+        }
+        return tables;
+    }
+    
+    /*
+     * Returns the tables of n, or null if n is not a prime <= MAX_MODULUS.
+     */
+    static PrimeFieldTables lookup(int n) {
+        if (n < 0 || n > MAX_MODULUS || (NON_PRIMES[n >>> 6] & (1L << n)) != 0) {
+            return null;
+        }
+        PrimeFieldTables tables = CACHE.get(n);
+        if (tables == null) {
+            tables = create(n);
+        }
+        long now = clock;
+        if (tables.lastUsed != now) {
+            tables.lastUsed = now;
+        }
+        return tables;
+    }
+    
+    /*
+     * Creates and caches the tables of the prime q, unless another thread has
+     * just done so, evicting the least recently used tables if the cache is 
+     * full.
+     */
+    private static synchronized PrimeFieldTables create(int q) {
+        PrimeFieldTables tables = CACHE.get(q);
+        if (tables != null) {
+            return tables;
+        }
+        tables = new PrimeFieldTables(q);
+        tables.lastUsed = ++clock;
+        CACHED_TABLES.add(tables);
+        cachedEntries += (long) TABLES_PER_PRIME * q;
+        while (cachedEntries > MAX_CACHED_ENTRIES && CACHED_TABLES.size() > 1) {
+            int oldest = 0;
+            for (int i = 1; i < CACHED_TABLES.size() - 1; i++) {
+                if (CACHED_TABLES.get(i).lastUsed < CACHED_TABLES.get(oldest).lastUsed) {
+                    oldest = i;
+                }
+            }
+            PrimeFieldTables evicted = CACHED_TABLES.remove(oldest);
+            CACHE.set(evicted.q, null);
+            cachedEntries -= (long) TABLES_PER_PRIME * evicted.q;
+        }
+        CACHE.set(q, tables);
+        return tables;
+    }
+    
+    /*
+     * Sieve of Eratosthenes: the bit set of the integers 0, 1, ..., n which are
+     * not prime.
+     */
+    private static long[] sieveNonPrimes(int n) {
+        long[] nonPrimes = new long[(n >>> 6) + 1];
+        nonPrimes[0] |= 3L; //0 and 1
+        for (int p = 2; (long) p * p <= n; p++) {
+            if ((nonPrimes[p >>> 6] & (1L << p)) == 0) {
+                for (int m = p * p; m <= n; m += p) {
+                    nonPrimes[m >>> 6] |= 1L << m;
+                }
+            }
+        }
+        return nonPrimes;
+    }
+    
+    /**
+     * Returns the prime q.
+     * 
+     * @return the prime q.
+     */
+    public int getModulus() {
+        return q;
+    }
+    
+    /**
+     * Returns the smallest positive integer whose reduction mod q generates the 
+     * multiplicative group of Z/qZ.
+     * 
+     * @return the smallest primitive root mod q.
+     */
+    public int getMultiplicativeGenerator() {
+        return generator;
+    }
+    
+    /**
+     * Returns the inverse of the residue x.
+     * 
+     * @param x an integer with 0 &lt= x &lt q.
+     * @return the residue of x^(-1) mod q.  Returns 0 if x=0.
+     */
+    public int inverse(int x) {
+        return getInverses()[x];
+    }
+    
+    /**
+     * Returns the discrete logarithm of the residue x with respect to the 
+     * generator getMultiplicativeGenerator().
+     * 
+     * @param x an integer with 0 &lt x &lt q.
+     * @return the exponent k, with 0 &lt= k &lt q-1, for which g^k = x mod q, g 
+     * being the generator.
+     */
+    public int log(int x) {
+        return getLogs()[x];
+    }
+    
+    /**
+     * Returns the power of the generator getMultiplicativeGenerator() by k.
+     * 
+     * @param k an integer with 0 &lt= k &lt q-1.
+     * @return the residue of g^k mod q, g being the generator.
+     */
+    public int exp(int k) {
+        return getAntilogs()[k];
+    }
+    
+    /**
+     * Returns the multiplicative order of the residue x.
+     * 
+     * @param x an integer with 0 &lt= x &lt q.
+     * @return the multiplicative order of x mod q.  Returns 0 if x=0.
+     */
+    public int getOrder(int x) {
+        if (x == 0) {
+            return 0;
+        }
+        return (q - 1) / Arithmetic.gcd(getLogs()[x], q - 1);
+    }
+    
+    /**
+     * Returns the square root r, with 0 &lt= r &lt= q/2, of the residue x, if it exists.
+     * 
+     * @param x an integer with 0 &lt= x &lt q.
+     * @return the square root r, with 0 &lt= r &lt= q/2, of x mod q.  Returns 0 if 
+     * x is not a square mod q, or x=0.
+     */
+    public int squareRoot(int x) {
+        return getSquareRoots()[x];
+    }
+    
+    /**
+     * Determines whether the residue x is a non-zero square.
+     * 
+     * @param x an integer with 0 &lt= x &lt q.
+     * @return true if x is a non-zero square mod q.
+     */
+    public boolean isSquare(int x) {
+        return getSquareRoots()[x] != 0;
+    }
+    
+    private int[] getInverses() {
+        int[] table = inverses;
+        if (table == null) {
+            synchronized (this) {
+                table = inverses;
+                if (table == null) {
+                    table = new int[q];
+                    table[1] = 1;
+                    for (int x = 2; x < q; x++) {
+                        table[x] = q - (int) ((long) (q / x) * table[q % x] % q);
+                    }
+                    inverses = table;
+                }
+            }
+        }
+        return table;
+    }
+    
+    private int[] getLogs() {
+        int[] table = logs;
+        if (table == null) {
+            buildLogTables();
+            table = logs;
+        }
+        return table;
+    }
+    
+    private int[] getAntilogs() {
+        int[] table = antilogs;
+        if (table == null) {
+            buildLogTables();
+            table = antilogs;
+        }
+        return table;
+    }
+    
+    private synchronized void buildLogTables() {
+        if (logs == null) {
+            int[] exps = new int[q - 1];
+            int[] lgs = new int[q];
+            int pow = 1;
+            for (int k = 0; k < q - 1; k++) {
+                exps[k] = pow;
+                lgs[pow] = k;
+                pow = (int) ((long) pow * generator % q);
+            }
+            antilogs = exps;
+            logs = lgs;
+        }
+    }
+    
+    private int[] getSquareRoots() {
+        int[] table = squareRoots;
+        if (table == null) {
+            int[] exps = getAntilogs();
+            synchronized (this) {
+                table = squareRoots;
+                if (table == null) {
+                    table = new int[q];
+                    for (int k = 0; k < q - 1; k += 2) {
+                        int r = exps[k / 2];
+                        table[exps[k]] = Math.min(r, q - r);
+                    }
+                    squareRoots = table;
+                }
+            }
+        }
+        return table;
+    }
+    
+    /*
+     * Returns the smallest primitive root mod the prime q, testing each candidate
+     * g by checking that g^((q-1)/p) != 1 for every prime p dividing q-1.
+     */
+    static int findMultiplicativeGenerator(int q) {
+        int[] primeFactors = new int[32];
+        int numFactors = 0;
+        int m = q - 1;
+        for (int p = 2; (long) p * p <= m; p++) {
+            if (m % p == 0) {
+                primeFactors[numFactors++] = p;
+                while (m % p == 0) {
+                    m /= p;
+                }
+            }
+        }
+        if (m > 1) {
+            primeFactors[numFactors++] = m;
+        }
+        for (int g = 1; g < q; g++) {
+            boolean primitive = true;
+            for (int i = 0; i < numFactors && primitive; i++) {
+                primitive = power(g, (q - 1) / primeFactors[i], q) != 1;
+            }
+            if (primitive) {
+                return g;
+            }
+        }
+        return 0;
+    }
+    
+    private static int power(int x, int e, int q) {
+        long result = 1;
+        long base = x % q;
+        while (e > 0) {
+            if ((e & 1) != 0) {
+                result = result * base % q;
+            }
+            base = base * base % q;
+            e >>= 1;
+        }
+        return (int) result;
+    }
+    
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package basic_operations;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A collection of static methods for primality testing and for enumerating 
+ * primes.
+ * 
+ * <p>
+ * Integers n &lt SIEVE_LIMIT are tested by a lookup in a sieve of Eratosthenes 
+ * on the odd integers, which is cached and extended on demand, one segment of
+ * SEGMENT_SIZE integers at a time, as far as the largest integer tested so far
+ * (rounded up to a power of 2 times SEGMENT_SIZE, so that the sieve is copied 
+ * only logarithmically often).  Larger integers are tested by the Miller-Rabin
+ * test with the bases 2, 7 and 61 for n &lt 2^32, and with the seven bases of 
+ * Jaeschke and Sinclair for 2^32 &lt= n &lt 2^63, both of which sets of bases 
+ * are known to make the test deterministic in its range.
+ * </p>
+ * 
+ * <p>
+ * All methods are thread-safe: the sieve is published as an immutable snapshot
+ * through a volatile field, and extended under a lock.
+ * </p>
+ * 
+ * @author pdokos
+ */
+public final class Primes {
+    
+    /**
+     * The bound below which primality is decided by the cached sieve.
+     */
+    public static final int SIEVE_LIMIT = 1 << 24;
+    
+    /**
+     * The number of integers covered by each segment of the sieve.
+     */
+    public static final int SEGMENT_SIZE = 1 << 16;
+    
+    private static final long TWO_TO_THE_32 = 1L << 32;
+    private static final long[] BASES_32 = {2, 7, 61};
+    private static final long[] BASES_64 = {2, 325, 9375, 28178, 450775, 9780504, 1795265022};
+    private static final int[] BASE_PRIMES = smallPrimes((int) Math.sqrt(SIEVE_LIMIT) + 1);
+    private static final Object LOCK = new Object();
+    private static volatile Sieve sieve = new Sieve(new long[0], 0);
+    
+    private Primes() {
+    }
+    
+    /*
+     * An immutable snapshot of the sieve: bit i of the array is set if 2i+1 is 
+     * composite (or 1), for 2i+1 < bound.
+     */
+    private static final class Sieve {
+        
+        private final long[] composite;
+        private final int bound;
+        
+        private Sieve(long[] composite, int bound) {
+            this.composite = composite;
+            this.bound = bound;
+        }
+    }
+    
+    /**
+     * Determines whether n is prime.
+     * 
+     * @param n any <code>long</code>.
+     * @return true if n is prime.
+     */
+    public static boolean isPrime(long n) {
+        if (n < 2) {
+            return false;
+        }
+        if ((n & 1) == 0) {
+            return n == 2;
+        }
+        if (n < SIEVE_LIMIT) {
+            int m = (int) n;
+            Sieve s = sieve;
+            if (m >= s.bound) {
+                s = extendSieve(m);
+            }
+            int i = m >>> 1;
+            return (s.composite[i >>> 6] & (1L << i)) == 0;
+        }
+        for (int i = 0; i < BASE_PRIMES.length; i++) {
+            if (n % BASE_PRIMES[i] == 0) {
+                return false;
+            }
+        }
+        return millerRabin(n, (n < TWO_TO_THE_32) ? BASES_32 : BASES_64);
+    }
+    
+    /**
+     * Returns the smallest prime greater than n.
+     * 
+     * @param n any <code>long</code> less than the largest <code>long</code> prime.
+     * @return the smallest prime greater than n.
+     * @throws IllegalArgumentException if there is no <code>long</code> prime greater than n.
+     */
+    public static long nextPrime(long n) {
+        if (n < 2) {
+            return 2;
+        }
+        long candidate = (n < Long.MAX_VALUE) ? (n + 1) | 1 : n;
+        while (!isPrime(candidate)) {
+            if (candidate > Long.MAX_VALUE - 2) {
+                throw new IllegalArgumentException("No long prime greater than " + n);
+            }
+            candidate += 2;
+        }
+        return candidate;
+    }
+    
+    /**
+     * Returns an Iterable over the primes p with from &lt= p &lt= to, in 
+     * increasing order, suited for sweeping over ranges of parameters such as 
+     * the pairs (p, q) of LPS generating sets.  The primes are found as the 
+     * iteration proceeds, so that the range may be arbitrarily long.
+     * 
+     * @param from any <code>int</code>.
+     * @param to any <code>int</code>.
+     * @return an Iterable over the primes in the interval [from, to].
+     */
+    public static Iterable<Integer> primesBetween(final int from, final int to) {
+        return new Iterable<Integer>() {
+            
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<Integer>() {
+                    
+                    private long next = nextPrime((long) from - 1);
+                    
+                    @Override
+                    public boolean hasNext() {
+                        return next <= to;
+                    }
+                    
+                    @Override
+                    public Integer next() {
+                        if (next > to) {
+                            throw new NoSuchElementException();
+                        }
+                        int p = (int) next;
+                        next = nextPrime(p);
+                        return p;
+                    }
+                    
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+    
+    /*
+     * Extends the sieve so that it covers n, and returns the new snapshot.
+     */
+    private static Sieve extendSieve(int n) {
+        synchronized (LOCK) {
+            Sieve s = sieve;
+            if (n < s.bound) {
+                return s;
+            }
+            int bound = Math.max(s.bound, SEGMENT_SIZE);
+            while (bound <= n) {
+                bound <<= 1;
+            }
+            bound = Math.min(bound, SIEVE_LIMIT);
+            long[] composite = Arrays.copyOf(s.composite, (bound >>> 7) + 1);
+            for (int start = s.bound; start < bound; start += SEGMENT_SIZE) {
+                sieveSegment(composite, start, Math.min(start + SEGMENT_SIZE, bound));
+            }
+            if (s.bound == 0) {
+                composite[0] |= 1L; //the integer 1
+            }
+            s = new Sieve(composite, bound);
+            sieve = s;
+            return s;
+        }
+    }
+    
+    /*
+     * Marks the odd composites in [start, end) by crossing off the odd multiples
+     * of each odd base prime p with p*p < end.
+     */
+    private static void sieveSegment(long[] composite, int start, int end) {
+        for (int k = 1; k < BASE_PRIMES.length; k++) {
+            int p = BASE_PRIMES[k];
+            long square = (long) p * p;
+            if (square >= end) {
+                break;
+            }
+            long first = Math.max(square, ((start + p - 1) / p) * (long) p);
+            if ((first & 1) == 0) {
+                first += p;
+            }
+            for (long m = first; m < end; m += 2 * p) {
+                int i = (int) (m >>> 1);
+                composite[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+    
+    /*
+     * Returns the primes <= n, by a simple sieve.
+     */
+    private static int[] smallPrimes(int n) {
+        boolean[] composite = new boolean[n + 1];
+        int count = 0;
+        for (int i = 2; i <= n; i++) {
+            if (!composite[i]) {
+                count++;
+                for (long m = (long) i * i; m <= n; m += i) {
+                    composite[(int) m] = true;
+                }
+            }
+        }
+        int[] primes = new int[count];
+        count = 0;
+        for (int i = 2; i <= n; i++) {
+            if (!composite[i]) {
+                primes[count++] = i;
+            }
+        }
+        return primes;
+    }
+    
+    private static boolean millerRabin(long n, long[] bases) {
+        long d = n - 1;
+        int s = 0;
+        while ((d & 1) == 0) {
+            d >>= 1;
+            s++;
+        }
+        for (long base : bases) {
+            long a = base % n;
+            if (a == 0) {
+                continue;
+            }
+            long x = powMod(a, d, n);
+            if (x == 1 || x == n - 1) {
+                continue;
+            }
+            boolean witness = true;
+            for (int r = 1; r < s && witness; r++) {
+                x = mulMod(x, x, n);
+                witness = (x != n - 1);
+            }
+            if (witness) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static long powMod(long a, long e, long n) {
+        long result = 1;
+        while (e > 0) {
+            if ((e & 1) != 0) {
+                result = mulMod(result, a, n);
+            }
+            a = mulMod(a, a, n);
+            e >>= 1;
+        }
+        return result;
+    }
+    
+    /*
+     * Returns a*b mod n for 0 <= a, b < n.  The product is computed directly 
+     * when it cannot overflow, and by doubling and adding otherwise.
+     */
+    private static long mulMod(long a, long b, long n) {
+        if (n <= 3037000499L) {
+            return a * b % n;
+        }
+        long result = 0;
+        while (b > 0) {
+            if ((b & 1) != 0) {
+                result = addMod(result, a, n);
+            }
+            a = addMod(a, a, n);
+            b >>= 1;
+        }
+        return result;
+    }
+    
+    private static long addMod(long a, long b, long n) {
+        long sum = a - (n - b);
+        return (sum < 0) ? sum + n : sum;
+    }
+    
+}
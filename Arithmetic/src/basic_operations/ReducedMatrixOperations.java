@@ -87,7 +87,8 @@ public class ReducedMatrixOperations {
      * @return the inverse of the matrix mod q.  Returns null if the inverse does not exist, or q is not prime.
      */
     public static short determinantModQ(short[][] entries, short q) {
-        if (Arithmetic.isPrime(q)) {
+        PrimeFieldTables tables = PrimeFieldTables.lookup(q);
+        if (tables != null) {
             int dimension = entries.length;
 
             if (dimension == 0) {
@@ -98,9 +99,12 @@ public class ReducedMatrixOperations {
             }
 
             short det = 1;
+            ModulusContext mc = ModulusContext.of(q);
             short[][] entriesCopy = new short[dimension][dimension];
             for (int i = 0; i < dimension; i++) {
-                System.arraycopy(entries[i], 0, entriesCopy[i], 0, dimension);
+                for (int j = 0; j < dimension; j++) {
+                    entriesCopy[i][j] = (short) mc.reduce(entries[i][j]);
+                }
             }
 
             for (int k = 0; k < dimension; k++) {
@@ -122,14 +126,14 @@ public class ReducedMatrixOperations {
                     }
                 }
 
-                short dInv = Arithmetic.findInverse(entriesCopy[k][k], q);
+                short dInv = (short) tables.inverse(entriesCopy[k][k]);
                 for (int j = k + 1; j < dimension; j++) { //add - a[j][k] * a[k][k]^(-1) times kth row to the jth row
-                    short factor = Arithmetic.reduce(-Arithmetic.reducedProduct(entriesCopy[j][k], dInv, q), q);
+                    int factor = mc.neg(mc.mul(entriesCopy[j][k], dInv));
                     for (int l = k; l < dimension; l++) {
-                        entriesCopy[j][l] = Arithmetic.reducedSum(entriesCopy[j][l], Arithmetic.reducedProduct(factor, entriesCopy[k][l], q), q);
+                        entriesCopy[j][l] = (short) mc.mulAdd(factor, entriesCopy[k][l], entriesCopy[j][l]);
                     }
                 }
-                det = Arithmetic.reducedProduct(det, entriesCopy[k][k], q);
+                det = (short) mc.mul(det, entriesCopy[k][k]);
             }
             return det;
         }
@@ -206,7 +210,8 @@ public class ReducedMatrixOperations {
      */
     public static short[][] inverseModQ(short[][] entries, short q) {
 
-        if (Arithmetic.isPrime(q)) {
+        PrimeFieldTables tables = PrimeFieldTables.lookup(q);
+        if (tables != null) {
             int dimension = entries.length;
 
             /*
@@ -217,9 +222,12 @@ public class ReducedMatrixOperations {
                 return null;
             }
 */
+            ModulusContext mc = ModulusContext.of(q);
             short[][] entriesCopy = new short[dimension][dimension];
             for (int i = 0; i < dimension; i++) {
-                System.arraycopy(entries[i], 0, entriesCopy[i], 0, dimension);
+                for (int j = 0; j < dimension; j++) {
+                    entriesCopy[i][j] = (short) mc.reduce(entries[i][j]);
+                }
             }
 
             short[][] inv = new short[dimension][dimension];
@@ -256,18 +264,18 @@ public class ReducedMatrixOperations {
                     }
                 }
 
-                short dInv = Arithmetic.findInverse(entriesCopy[k][k], q);
+                short dInv = (short) tables.inverse(entriesCopy[k][k]);
                 for (int l = 0; l < dimension; l++) {
-                    entriesCopy[k][l] = Arithmetic.reducedProduct(dInv, entriesCopy[k][l], q);
-                    inv[k][l] = Arithmetic.reducedProduct(dInv, inv[k][l], q);
+                    entriesCopy[k][l] = (short) mc.mul(dInv, entriesCopy[k][l]);
+                    inv[k][l] = (short) mc.mul(dInv, inv[k][l]);
                 }
 
                 for (int j = 0; j < dimension; j++) { //add - a[j][k] * a[k][k]^(-1) times kth row to the jth row
                     if (j != k) {
-                        short factor = Arithmetic.reduce(-entriesCopy[j][k], q);// * dInv;
+                        int factor = mc.neg(entriesCopy[j][k]);// * dInv;
                         for (int l = 0; l < dimension; l++) {
-                            entriesCopy[j][l] = Arithmetic.reducedSum(entriesCopy[j][l], Arithmetic.reducedProduct(factor, entriesCopy[k][l], q), q);
-                            inv[j][l] = Arithmetic.reducedSum(inv[j][l], Arithmetic.reducedProduct(factor, inv[k][l], q), q);
+                            entriesCopy[j][l] = (short) mc.mulAdd(factor, entriesCopy[k][l], entriesCopy[j][l]);
+                            inv[j][l] = (short) mc.mulAdd(factor, inv[k][l], inv[j][l]);
                             //System.out.print("inv[" + j + "][" +l + "] = " + inv[j][l] + "  ");
                         }
                     }
@@ -294,11 +302,12 @@ public class ReducedMatrixOperations {
         if (columnDimension == 0)
             return null;
 
+        ModulusContext mc = ModulusContext.of(Math.abs(n));
         short[][] negative = new short[rowDimension][columnDimension];
 
         for (int i = 0; i < rowDimension; i++) {
             for (int j = 0; j < columnDimension; j++) {
-                negative[i][j] = Arithmetic.reduce(-a[i][j], n);
+                negative[i][j] = (short) mc.reduce(-a[i][j]);
             }
         }
         return negative;
@@ -322,11 +331,12 @@ public class ReducedMatrixOperations {
         if (columnDimension != b[0].length || columnDimension==0) 
             return null;
 
+        ModulusContext mc = ModulusContext.of(Math.abs(n));
         short[][] sum = new short[rowDimension][columnDimension];
 
         for (int i = 0; i < rowDimension; i++) {
             for (int j = 0; j < columnDimension; j++) {
-                sum[i][j] = Arithmetic.reducedSum(a[i][j], b[i][j], n);
+                sum[i][j] = (short) mc.reduce(a[i][j] + b[i][j]);
             }
         }
         return sum;
@@ -356,16 +366,17 @@ public class ReducedMatrixOperations {
         
         int columnDimension = b[0].length;
 
+        ModulusContext mc = ModulusContext.of(Math.abs(n));
         short[][] product = new short[rowDimension][columnDimension];
-        short entry;
+        long entry;
 
         for (int i = 0; i < rowDimension; i++) {
             for (int j = 0; j < columnDimension; j++) {
                 entry = 0;
                 for (int k = 0; k < middleDim; k++) {
-                    entry = Arithmetic.reducedSum(entry, Arithmetic.reducedProduct(a[i][k], b[k][j], n), n);
+                    entry += a[i][k] * b[k][j];
                 }
-                product[i][j] = entry;
+                product[i][j] = (short) mc.reduce(entry);
             }
         }
         return product;
@@ -401,10 +412,11 @@ public class ReducedMatrixOperations {
      * @return the product of the matrix b by the scalar a modulo n.
      */
     public static short[][] scalarMultiply(short a, short[][] b, short n) {
+        ModulusContext mc = ModulusContext.of(Math.abs(n));
         short[][] product = new short[b.length][b[0].length];
         for (int i = 0; i < b.length; i++) {
             for (int j = 0; j < b[0].length; j++) {
-                product[i][j] = Arithmetic.reducedProduct(a, b[i][j], n);
+                product[i][j] = (short) mc.reduce(a * b[i][j]);
             }
         } 
         return product;
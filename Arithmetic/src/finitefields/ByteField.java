@@ -34,9 +34,53 @@ import java.util.Map;
  * where the field order needs to be small for the groups to have order less than
  * five million).
  * 
+ * <p>
+ * The arithmetic is carried out in one of two representations (see 
+ * ByteField.Representation).  In the LOG_TABLES representation, the tables are 
+ * of size O(q), where q is the order of the field.
+ * With g the multiplicative generator of the field, each nonzero element is
+ * recorded with its discrete logarithm, so that multiplication is a sum of
+ * logarithms followed by a lookup in an antilogarithm table (of length 2(q-1), so
+ * that no reduction mod q-1 is needed).  In odd characteristic, addition is
+ * performed with the <em>Zech logarithms</em> Z(n), defined by 1 + g^n = g^Z(n), via
+ * g^a + g^b = g^(a + Z(b-a)).  In characteristic 2, the index of an element is
+ * the binary word of its coefficients, so that addition is the exclusive or of
+ * the indices.  In the FULL_TABLES representation, the sums and products of 
+ * all pairs of elements are held in two tables of size O(q^2), so that each 
+ * operation is a single lookup.
+ * </p>
+ * 
+ * <p>
+ * Unless a representation is specified upon construction, fields of 
+ * characteristic 2 use LOG_TABLES, for which addition is a single exclusive or 
+ * and the tables stay in the L1 cache, and fields of odd characteristic use 
+ * FULL_TABLES, whose single lookup for addition beats the three lookups and 
+ * the branches of the Zech logarithms (see ByteFieldBenchmark and 
+ * GLnByteFieldBenchmark in the Benchmarks module).  The matrix groups of the 
+ * fastgroups package go through add and mult, and so pick up the 
+ * representation of their field transparently.
+ * </p>
+ * 
  * @author pdokos
  */
 public class ByteField {
+    
+    /**
+     * The representations of the field arithmetic.
+     */
+    public enum Representation {
+        /**
+         * Multiplication by discrete logarithms and addition by Zech 
+         * logarithms (or the exclusive or of the indices in characteristic 2), 
+         * with tables of size O(q).
+         */
+        LOG_TABLES,
+        /**
+         * Addition and multiplication by lookups in tables of size O(q^2).
+         */
+        FULL_TABLES
+    }
+    
     private short p; //The characteristic of the base field
     private List<Short> minusXToTheN; //The irreducible polynomial defining the extension of the base field.
     private Map<List<Short>, Element> elements;  //Elements of the field as flyweights.
@@ -48,8 +92,14 @@ public class ByteField {
     //Tables:
     private byte[] inverses;
     private byte[] negatives;
-    private byte[][] additionTableArray;
-    private byte[][] multiplicationTableArray;
+    private int[] logs;         //Discrete logarithms, indexed by normalized index, with log(0) = 2(q-1).
+    private byte[] antilogs;    //Indices of g^k for 0 <= k < 2(q-1), and of 0 for 2(q-1) <= k <= 4(q-1).
+    private int[] zechLogs;     //Zech logarithms Z(n mod q-1) for -(q-1) < n < q-1, offset by q-1, or -1 if 1 + g^n = 0.
+    private boolean xorAddition;
+    private Representation representation;
+    private int shift;                  //Row length of the full tables is 2^shift >= q.
+    private byte[] additionTable;       //FULL_TABLES only: x + y at position (x << shift) | y, for normalized indices x and y.
+    private byte[] multiplicationTable; //FULL_TABLES only: x * y at position (x << shift) | y.
 
     public static ByteField getF125() {
         return new ByteField((short) 5, Arrays.asList((short) 1, (short) 1, (short) 0));
@@ -187,9 +237,27 @@ public class ByteField {
      * p elements.
      * 
      * The value of <code>p^(coeffs.size())</code> must be less than or equal to 256.
+     * The arithmetic is carried out in the default representation for the 
+     * characteristic p.
      */
     public ByteField(short p, List<Short> coeffs) {
+        this(p, coeffs, getDefaultRepresentation(p));
+    }
+
+    /**
+     * Constructor for a ByteField object, as in ByteField(p, coeffs), with the
+     * arithmetic carried out in the given representation.
+     * 
+     * @param p any <code>short</code> integer prime &le 256. 
+     * @param coeffs a <code>List&ltShort></code> representing the coefficients, 
+     * starting with the constant term and ending with that of the next to 
+     * largest order term, of a monic irreducible polynomial over the field of 
+     * p elements.
+     * @param representation the representation of the field arithmetic.
+     */
+    public ByteField(short p, List<Short> coeffs, Representation representation) {
         this.p = p;
+        this.representation = representation;
         minusXToTheN = new ArrayList<Short>(coeffs.size());
         for (short a : coeffs) {
             minusXToTheN.add((short) -a);
@@ -242,16 +310,9 @@ public class ByteField {
 
         inverses = new byte[order];
         negatives = new byte[order];
-        additionTableArray = new byte[order][order];
-        multiplicationTableArray = new byte[order][order];
-        for (int i = 0; i < order; i++) {
-            inverses[i] = (byte) 0;
-            negatives[i] = (byte) 0;
-            for (int j = 0; j < order; j++) {
-                additionTableArray[i][j] = (byte) 0;
-                multiplicationTableArray[i][j] = (byte) 0;
-            }
-        }
+        logs = new int[order];
+        antilogs = new byte[4 * (order - 1) + 1];
+        zechLogs = new int[2 * (order - 1)];
 
         indexedElements = new Element[order];
         for (int i = 0; i < order; i++) {
@@ -262,9 +323,52 @@ public class ByteField {
             System.out.println("--> " + elements.get(e).getNormalizedIndex());
         }
 
-        createTables();
         findPrimitiveElt();
+        createTables();
+        if (representation == Representation.FULL_TABLES) {
+            createFullTables();
+        }
+
+    }
+
+    /**
+     * Returns the representation used by default for the fields of 
+     * characteristic p: LOG_TABLES for p = 2, and FULL_TABLES otherwise.
+     * 
+     * @param p any <code>short</code> integer prime &le 256.
+     * @return the default representation for the fields of characteristic p.
+     */
+    public static Representation getDefaultRepresentation(short p) {
+        return (p == 2) ? Representation.LOG_TABLES : Representation.FULL_TABLES;
+    }
+
+    /**
+     * Returns a field defined by the same polynomial as this one, i.e.&#160with 
+     * the same indexing of the elements, with the arithmetic carried out in the 
+     * given representation.
+     * 
+     * @param representation the representation of the field arithmetic.
+     * @return this field, if it uses the given representation, and an 
+     * equivalent new ByteField otherwise.
+     */
+    public ByteField withRepresentation(Representation representation) {
+        if (representation == this.representation) {
+            return this;
+        }
+        List<Short> coeffs = new ArrayList<Short>(minusXToTheN.size());
+        for (short a : minusXToTheN) {
+            coeffs.add((short) -a);
+        }
+        return new ByteField(p, coeffs, representation);
+    }
 
+    /**
+     * Returns the representation of the field arithmetic.
+     * 
+     * @return the representation of the field arithmetic.
+     */
+    public Representation getRepresentation() {
+        return representation;
     }
 
     public void test() {
@@ -272,7 +376,7 @@ public class ByteField {
             Element a = elements.get(elt);
             for (List<Short> eltb : elements.keySet()) {
                 Element b = elements.get(eltb);
-                Element prod = indexedElements[getNormalizedIndex(multiplicationTableArray[a.getNormalizedIndex()][b.getNormalizedIndex()])];
+                Element prod = a.times(b);
                 System.out.println(a.toString() + " * " + b.toString() + " = " + prod.toString());
             }
             System.out.println(a.toString());
@@ -281,32 +385,87 @@ public class ByteField {
 
     private void createTables() {
 
-        for (List<Short> x : elements.keySet()) {
-            for (List<Short> y : elements.keySet()) {
-                additionTableArray[elements.get(x).getNormalizedIndex()][elements.get(y).getNormalizedIndex()] = elements.get(add(x, y)).getIndex();
-            }
+        //Powers of the multiplicative generator:
+        List<List<Short>> powers = new ArrayList<List<Short>>(order - 1);
+        List<Short> gAsList = toList(primitiveElt);
+        List<Short> power = toList(one);
+        for (int k = 0; k < order - 1; k++) {
+            powers.add(power);
+            byte ind = elements.get(power).getIndex();
+            antilogs[k] = ind;
+            antilogs[k + order - 1] = ind;
+            logs[getNormalizedIndex(ind)] = k;
+            power = multiply(power, gAsList);
+        }
+        logs[zero.getNormalizedIndex()] = 2 * (order - 1);
+        for (int k = 2 * (order - 1); k < antilogs.length; k++) {
+            antilogs[k] = zero.getIndex();
         }
 
-        for (List<Short> x : elements.keySet()) {
-            for (List<Short> y : elements.keySet()) {
-                multiplicationTableArray[elements.get(x).getNormalizedIndex()][elements.get(y).getNormalizedIndex()] = elements.get(multiply(x, y)).getIndex();
-            }
+        List<Short> oneAsList = toList(one);
+        for (int n = 0; n < order - 1; n++) {
+            Element sum = elements.get(add(oneAsList, powers.get(n)));
+            zechLogs[n] = sum.equals(zero) ? -1 : logs[sum.getNormalizedIndex()];
+            zechLogs[n + order - 1] = zechLogs[n];
         }
 
         for (List<Short> elt : elements.keySet()) {
             negatives[elements.get(elt).getNormalizedIndex()] = elements.get(getNegative(elt)).getIndex();
         }
 
-        for (List<Short> elt : elements.keySet()) {
-            Element elt1 = elements.get(elt);
-            for (List<Short> eltb : elements.keySet()) {
-                Element elt2 = elements.get(eltb);
-                if (multiplicationTableArray[elt1.getNormalizedIndex()][elt2.getNormalizedIndex()] == one.getIndex()) {
-                    inverses[elt1.getNormalizedIndex()] = elt2.getIndex();
-                    break;
-                }
+        for (int i = 0; i < order; i++) {
+            if (i != zero.getNormalizedIndex()) {
+                inverses[i] = antilogs[(order - 1 - logs[i]) % (order - 1)];
             }
         }
+
+        xorAddition = (p == 2) && hasBinaryIndexing();
+    }
+
+    /**
+     * Fills the tables of the FULL_TABLES representation from the logarithm 
+     * tables, with rows of length 2^shift so that a lookup needs no 
+     * multiplication.
+     */
+    private void createFullTables() {
+        shift = 0;
+        while ((1 << shift) < order) {
+            shift++;
+        }
+        additionTable = new byte[order << shift];
+        multiplicationTable = new byte[order << shift];
+        for (int x = 0; x < order; x++) {
+            for (int y = 0; y < order; y++) {
+                additionTable[(x << shift) | y] = logAdd((byte) x, (byte) y);
+                multiplicationTable[(x << shift) | y] = logMult((byte) x, (byte) y);
+            }
+        }
+    }
+
+    /**
+     * Checks that the index of each element is the binary word of its
+     * coefficients, as is the case for the enumeration of the elements in the
+     * constructor when p == 2.
+     */
+    private boolean hasBinaryIndexing() {
+        for (Element e : elements.values()) {
+            int word = 0;
+            for (int i = 0; i < e.coeffs.length; i++) {
+                word |= e.coeffs[i] << i;
+            }
+            if (word != e.getNormalizedIndex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Short> toList(Element e) {
+        List<Short> list = new ArrayList<Short>(e.coeffs.length);
+        for (short c : e.coeffs) {
+            list.add(c);
+        }
+        return list;
     }
 
     private List<Short> add(List<Short> x, List<Short> y) {
@@ -354,11 +513,36 @@ public class ByteField {
     }
 
     public byte add(byte x, byte y) {
-        return additionTableArray[getNormalizedIndex(x)][getNormalizedIndex(y)];
+        if (additionTable != null) {
+            return additionTable[((x & 0xFF) << shift) | (y & 0xFF)];
+        }
+        return logAdd(x, y);
+    }
+
+    private byte logAdd(byte x, byte y) {
+        if (xorAddition) {
+            return (byte) (x ^ y);
+        }
+        if (x == 0) {
+            return y;
+        }
+        if (y == 0) {
+            return x;
+        }
+        int a = logs[x & 0xFF];
+        int z = zechLogs[logs[y & 0xFF] - a + order - 1];
+        return (z == -1) ? 0 : antilogs[a + z];
     }
 
     public byte mult(byte x, byte y) {
-        return multiplicationTableArray[getNormalizedIndex(x)][getNormalizedIndex(y)];
+        if (multiplicationTable != null) {
+            return multiplicationTable[((x & 0xFF) << shift) | (y & 0xFF)];
+        }
+        return logMult(x, y);
+    }
+
+    private byte logMult(byte x, byte y) {
+        return antilogs[logs[x & 0xFF] + logs[y & 0xFF]];
     }
 
     public byte inverse(byte x) {
@@ -404,12 +588,20 @@ public class ByteField {
 
     private void findPrimitiveElt() {
         Iterator<List<Short>> iterator = elements.keySet().iterator();
+        List<Short> oneAsList = toList(one);
         boolean found = false;
         Element elt = zero;
         while (iterator.hasNext() && !found) {
-            elt = elements.get(iterator.next());
-            if (getOrder(elt) == (getOrder() - 1)) {
-                found = true;
+            List<Short> x = iterator.next();
+            elt = elements.get(x);
+            if (!elt.equals(zero)) {
+                int k = 1;
+                List<Short> xToTheK = x;
+                while (!xToTheK.equals(oneAsList)) {
+                    xToTheK = multiply(xToTheK, x);
+                    k++;
+                }
+                found = (k == order - 1);
             }
         }
         primitiveElt = elt;
@@ -477,11 +669,11 @@ public class ByteField {
         }
         
         public Element plus(Element e) {
-            return indexedElements[ByteField.getNormalizedIndex(additionTableArray[getNormalizedIndex()][e.getNormalizedIndex()])];
+            return indexedElements[ByteField.getNormalizedIndex(add(index, e.index))];
         }
 
         public Element times(Element e) {
-            return indexedElements[ByteField.getNormalizedIndex(multiplicationTableArray[getNormalizedIndex()][e.getNormalizedIndex()])];
+            return indexedElements[ByteField.getNormalizedIndex(mult(index, e.index))];
         }
 
         public Element inverse() {
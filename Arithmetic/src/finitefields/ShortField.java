@@ -0,0 +1,561 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package finitefields;
+
+import basic_operations.Arithmetic;
+import basic_operations.ModulusContext;
+import java.util.List;
+
+/**
+ * An implementation for Finite Fields of order up to 65536, via 
+ * <code>short</code>-indexing of the field elements, and table lookups for the
+ * arithmetic operations.  This class is the counterpart of ByteField for the 
+ * fields of order greater than 256, with the same API shape, the indices of the 
+ * elements being <code>short</code> rather than <code>byte</code> values.
+ * 
+ * <p>
+ * An element c_0 + c_1*x + ... + c_(n-1)*x^(n-1) of the field, where x is a root
+ * of the polynomial defining the extension of the base field of p elements, has
+ * the index c_0 + c_1*p + ... + c_(n-1)*p^(n-1) (stored in a <code>short</code>,
+ * so that the indices 32768 and above are negative, and are recovered by 
+ * getNormalizedIndex).  In particular, 0 and 1 have the indices 0 and 1, and in
+ * characteristic 2 the index of an element is the binary word of its 
+ * coefficients.  The characteristic p is a <code>short</code> integer prime, so
+ * that the prime fields of order greater than Short.MAX_VALUE are not supported.
+ * </p>
+ * 
+ * <p>
+ * As in ByteField, the arithmetic tables are of size O(q), where q is the order
+ * of the field: multiplication is a sum of discrete logarithms followed by a 
+ * lookup in an antilogarithm table, addition is performed with the Zech 
+ * logarithms in odd characteristic, and by the exclusive or of the indices in 
+ * characteristic 2.  The tables are built by computing the successive powers of
+ * the multiplicative generator, which is found by testing the candidates g for 
+ * g^((q-1)/r) &#8800; 1, for each prime r dividing q-1, so that the construction 
+ * takes time O(q*n^2) rather than the O(q^2) needed to compute the order of 
+ * each candidate.
+ * </p>
+ * 
+ * @author pdokos
+ */
+public class ShortField {
+    
+    /**
+     * The largest supported order.
+     */
+    public static final int MAX_ORDER = 1 << 16;
+    
+    private final short p; //The characteristic of the base field
+    private final int dim;
+    private final int[] minusXToTheN; //x^n = sum of minusXToTheN[i]*x^i
+    private final ModulusContext mc;
+    private final int order;
+    private final Element[] indexedElements;
+    private final Element one;
+    private final Element zero;
+    private final Element primitiveElt;
+    //Tables:
+    private final short[] inverses;
+    private final short[] negatives;
+    private final int[] logs;         //Discrete logarithms, indexed by normalized index, with log(0) = 2(q-1).
+    private final short[] antilogs;   //Indices of g^k for 0 <= k < 2(q-1), and of 0 for 2(q-1) <= k <= 4(q-1).
+    private final int[] zechLogs;     //Zech logarithms Z(n mod q-1) for -(q-1) < n < q-1, offset by q-1, or -1 if 1 + g^n = 0.
+    private final boolean xorAddition;
+    
+    /**
+     * A static convenience method for creating a finite field of order less than
+     * or equal to MAX_ORDER.  The extensions of the prime fields are defined by 
+     * the first primitive polynomial found by findPrimitivePolynomial.
+     * 
+     * @param q any prime power less than or equal to MAX_ORDER.
+     * @return a <code>ShortField</code> object modeling the field of q elements. 
+     * Returns null if q is not a prime power less than or equal to MAX_ORDER, or
+     * if q is a prime greater than Short.MAX_VALUE.
+     */
+    public static ShortField getField(int q) {
+        if (q < 2 || q > MAX_ORDER) {
+            return null;
+        }
+        int prime = 2;
+        while (q % prime != 0) {
+            prime++;
+        }
+        int n = 0;
+        int quot = q;
+        while (quot % prime == 0) {
+            quot /= prime;
+            n++;
+        }
+        if (quot != 1 || prime > Short.MAX_VALUE) {
+            return null;
+        }
+        if (n == 1) {
+            return getPrimeField((short) prime);
+        }
+        return new ShortField((short) prime, findPrimitivePolynomial((short) prime, n));
+    }
+    
+    /**
+     * A static convenience method for creating a prime field.
+     * 
+     * @param p any <code>short</code> integer prime.
+     * @return a <code>ShortField</code> object modeling the field of p elements.
+     */
+    public static ShortField getPrimeField(short p) {
+        return new ShortField(p, new short[] {0});
+    }
+    
+    /**
+     * Returns the coefficients of the first primitive polynomial of degree n 
+     * over the field of p elements, in the order of the indices of their
+     * coefficient vectors, i.e.&#160of a monic polynomial whose roots generate the 
+     * multiplicative group of the field of p^n elements.
+     * 
+     * @param p a <code>short</code> integer prime.
+     * @param n a positive integer with p^n &lt= MAX_ORDER.
+     * @return the coefficients, starting with the constant term and ending with
+     * that of the next to largest order term, of a primitive polynomial of 
+     * degree n over the field of p elements.
+     */
+    public static short[] findPrimitivePolynomial(short p, int n) {
+        int q = checkOrder(p, n);
+        ModulusContext mc = ModulusContext.of(p);
+        int[] primeFactors = primeFactors(q - 1);
+        int[] x = new int[n];
+        if (n > 1) {
+            x[1] = 1;
+        }
+        for (int c = 1; c < q; c++) {
+            int[] coeffs = decode(c, p, n);
+            if (coeffs[0] == 0) {
+                continue;
+            }
+            int[] minusXToTheN = new int[n];
+            for (int i = 0; i < n; i++) {
+                minusXToTheN[i] = mc.neg(coeffs[i]);
+            }
+            if (n == 1) {
+                x[0] = minusXToTheN[0];
+            }
+            if (isPrimitive(x, q, primeFactors, minusXToTheN, mc)) {
+                short[] poly = new short[n];
+                for (int i = 0; i < n; i++) {
+                    poly[i] = (short) coeffs[i];
+                }
+                return poly;
+            }
+        }
+        throw new IllegalStateException("No primitive polynomial of degree " + n + " over F_" + p + " found.");
+    }
+    
+    /**
+     * Constructor for a ShortField object, invoked by specifying a 
+     * <code>short</code> integer prime for the prime base field, and a monic 
+     * irreducible polynomial (in the form of a List of its coefficients) over 
+     * the field of p elements by which the field extension is defined.
+     * 
+     * @param p any <code>short</code> integer prime.
+     * @param coeffs a <code>List&ltShort></code> representing the coefficients, 
+     * starting with the constant term and ending with that of the next to 
+     * largest order term, of a monic irreducible polynomial over the field of 
+     * p elements.
+     * @throws IllegalArgumentException if p is not prime, p^(coeffs.size()) is 
+     * greater than MAX_ORDER, or the polynomial is not irreducible.
+     */
+    public ShortField(short p, List<Short> coeffs) {
+        this(p, toArray(coeffs));
+    }
+    
+    private ShortField(short p, short[] coeffs) {
+        if (!Arithmetic.isPrime(p)) {
+            throw new IllegalArgumentException("Not a prime: " + p);
+        }
+        this.p = p;
+        dim = coeffs.length;
+        order = checkOrder(p, dim);
+        mc = ModulusContext.of(p);
+        minusXToTheN = new int[dim];
+        for (int i = 0; i < dim; i++) {
+            minusXToTheN[i] = mc.neg(mc.reduce(coeffs[i]));
+        }
+        
+        indexedElements = new Element[order];
+        for (int i = 0; i < order; i++) {
+            indexedElements[i] = new Element(decode(i, p, dim), (short) i);
+        }
+        zero = indexedElements[0];
+        one = indexedElements[1];
+        
+        int[] primeFactors = primeFactors(order - 1);
+        Element generator = null;
+        for (int i = 1; i < order && generator == null; i++) {
+            if (isPrimitive(decode(i, p, dim), order, primeFactors, minusXToTheN, mc)) {
+                generator = indexedElements[i];
+            }
+        }
+        if (generator == null) {
+            throw new IllegalArgumentException("The polynomial defining the extension is not irreducible.");
+        }
+        primitiveElt = generator;
+        
+        inverses = new short[order];
+        negatives = new short[order];
+        logs = new int[order];
+        antilogs = new short[4 * (order - 1) + 1];
+        zechLogs = new int[2 * (order - 1)];
+        createTables();
+        xorAddition = (p == 2);
+    }
+    
+    private static short[] toArray(List<Short> coeffs) {
+        short[] array = new short[coeffs.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = coeffs.get(i);
+        }
+        return array;
+    }
+    
+    private static int checkOrder(short p, int n) {
+        long q = 1;
+        for (int i = 0; i < n && q <= MAX_ORDER; i++) {
+            q *= p;
+        }
+        if (n < 1 || p < 2 || q > MAX_ORDER) {
+            throw new IllegalArgumentException("Unsupported field order: " + p + "^" + n);
+        }
+        return (int) q;
+    }
+    
+    private void createTables() {
+        //Powers of the multiplicative generator:
+        int[] g = decode(primitiveElt.getNormalizedIndex(), p, dim);
+        int[] power = decode(1, p, dim);
+        for (int k = 0; k < order - 1; k++) {
+            int ind = encode(power);
+            antilogs[k] = (short) ind;
+            antilogs[k + order - 1] = (short) ind;
+            logs[ind] = k;
+            power = multiply(power, g, minusXToTheN, mc);
+        }
+        logs[0] = 2 * (order - 1); //The entries of antilogs from 2(q-1) on are the index 0.
+        
+        for (int n = 0; n < order - 1; n++) {
+            int ind = antilogs[n] & 0xFFFF;
+            int c0 = ind % p;
+            int sum = ind - c0 + ((c0 + 1 == p) ? 0 : c0 + 1); //1 + g^n
+            zechLogs[n] = (sum == 0) ? -1 : logs[sum];
+            zechLogs[n + order - 1] = zechLogs[n];
+        }
+        
+        for (int i = 0; i < order; i++) {
+            int[] coeffs = decode(i, p, dim);
+            for (int j = 0; j < dim; j++) {
+                coeffs[j] = mc.neg(coeffs[j]);
+            }
+            negatives[i] = (short) encode(coeffs);
+            if (i != 0) {
+                inverses[i] = antilogs[(order - 1 - logs[i]) % (order - 1)];
+            }
+        }
+    }
+    
+    private int encode(int[] coeffs) {
+        int ind = 0;
+        for (int i = dim - 1; i >= 0; i--) {
+            ind = ind * p + coeffs[i];
+        }
+        return ind;
+    }
+    
+    private static int[] decode(int ind, int p, int n) {
+        int[] coeffs = new int[n];
+        for (int i = 0; i < n; i++) {
+            coeffs[i] = ind % p;
+            ind /= p;
+        }
+        return coeffs;
+    }
+    
+    /*
+     * Returns the product of a and b in F_p[x]/(x^n - minusXToTheN).
+     */
+    private static int[] multiply(int[] a, int[] b, int[] minusXToTheN, ModulusContext mc) {
+        int n = a.length;
+        int[] prod = new int[2 * n - 1];
+        for (int i = 0; i < n; i++) {
+            if (a[i] != 0) {
+                for (int j = 0; j < n; j++) {
+                    prod[i + j] = mc.mulAdd(a[i], b[j], prod[i + j]);
+                }
+            }
+        }
+        for (int k = 2 * n - 2; k >= n; k--) { //x^k = x^(k-n) * (sum of minusXToTheN[i]*x^i)
+            int c = prod[k];
+            if (c != 0) {
+                for (int i = 0; i < n; i++) {
+                    prod[k - n + i] = mc.mulAdd(c, minusXToTheN[i], prod[k - n + i]);
+                }
+            }
+        }
+        int[] reduced = new int[n];
+        System.arraycopy(prod, 0, reduced, 0, n);
+        return reduced;
+    }
+    
+    private static int[] power(int[] a, int e, int[] minusXToTheN, ModulusContext mc) {
+        int[] result = new int[a.length];
+        result[0] = 1;
+        int[] base = a;
+        while (e > 0) {
+            if ((e & 1) != 0) {
+                result = multiply(result, base, minusXToTheN, mc);
+            }
+            base = multiply(base, base, minusXToTheN, mc);
+            e >>= 1;
+        }
+        return result;
+    }
+    
+    /*
+     * Returns true if a has multiplicative order q-1, which is impossible unless
+     * the polynomial is irreducible.
+     */
+    private static boolean isPrimitive(int[] a, int q, int[] primeFactors, int[] minusXToTheN, ModulusContext mc) {
+        if (!isOne(power(a, q - 1, minusXToTheN, mc))) {
+            return false;
+        }
+        for (int r : primeFactors) {
+            if (isOne(power(a, (q - 1) / r, minusXToTheN, mc))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isOne(int[] a) {
+        if (a[0] != 1) {
+            return false;
+        }
+        for (int i = 1; i < a.length; i++) {
+            if (a[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int[] primeFactors(int m) {
+        int[] factors = new int[32];
+        int numFactors = 0;
+        for (int r = 2; r * r <= m; r++) {
+            if (m % r == 0) {
+                factors[numFactors++] = r;
+                while (m % r == 0) {
+                    m /= r;
+                }
+            }
+        }
+        if (m > 1) {
+            factors[numFactors++] = m;
+        }
+        int[] array = new int[numFactors];
+        System.arraycopy(factors, 0, array, 0, numFactors);
+        return array;
+    }
+    
+    public short add(short x, short y) {
+        if (xorAddition) {
+            return (short) (x ^ y);
+        }
+        if (x == 0) {
+            return y;
+        }
+        if (y == 0) {
+            return x;
+        }
+        int a = logs[x & 0xFFFF];
+        int z = zechLogs[logs[y & 0xFFFF] - a + order - 1];
+        return (z == -1) ? 0 : antilogs[a + z];
+    }
+    
+    public short mult(short x, short y) {
+        return antilogs[logs[x & 0xFFFF] + logs[y & 0xFFFF]];
+    }
+    
+    public short inverse(short x) {
+        return inverses[x & 0xFFFF];
+    }
+    
+    public short negative(short x) {
+        return negatives[x & 0xFFFF];
+    }
+    
+    public short pow(short x, int n) {
+        if (x == 0) {
+            return (n == 0) ? one.getIndex() : zero.getIndex();
+        }
+        long e = (long) logs[x & 0xFFFF] * n % (order - 1);
+        return antilogs[(int) ((e < 0) ? e + order - 1 : e)];
+    }
+    
+    /**
+     * Returns the discrete logarithm of a non-zero element with respect to the 
+     * multiplicative generator getMultiplicativeGenerator().
+     * 
+     * @param x the index of a non-zero element.
+     * @return the exponent k, with 0 &lt= k &lt getOrder()-1, for which g^k = x, g 
+     * being the generator.
+     */
+    public int log(short x) {
+        return logs[x & 0xFFFF];
+    }
+    
+    /**
+     * Determines whether x is a non-zero square.
+     * 
+     * @param x the index of any element.
+     * @return true if x is a non-zero square.
+     */
+    public boolean isSquare(short x) {
+        return x != 0 && (p == 2 || logs[x & 0xFFFF] % 2 == 0);
+    }
+    
+    public Element one() {
+        return one;
+    }
+    
+    public Element zero() {
+        return zero;
+    }
+    
+    public short getCharacteristic() {
+        return p;
+    }
+    
+    public int getDimension() {
+        return dim;
+    }
+    
+    public int getOrder() {
+        return order;
+    }
+    
+    public Element getMultiplicativeGenerator() {
+        return primitiveElt;
+    }
+    
+    public int getOrder(Element e) {
+        if (e.equals(zero)) {
+            return 0;
+        }
+        return (order - 1) / Arithmetic.gcd(logs[e.getNormalizedIndex()], order - 1);
+    }
+    
+    /**
+     * Returns the element with the given coefficients, which are reduced mod p,
+     * and padded with zeros if there are fewer than getDimension() of them.
+     * 
+     * @param e the coefficients c_0, c_1, ... of the element c_0 + c_1*x + ...
+     * @return the element with the given coefficients.
+     * @throws IllegalArgumentException if there are more than getDimension() coefficients.
+     */
+    public Element lookup(List<Short> e) {
+        if (e.size() > dim) {
+            throw new IllegalArgumentException("An element has at most " + dim + " coefficients.");
+        }
+        int[] coeffs = new int[dim];
+        for (int i = 0; i < e.size(); i++) {
+            coeffs[i] = mc.reduce(e.get(i));
+        }
+        return indexedElements[encode(coeffs)];
+    }
+    
+    public Element getElement(short index) {
+        return indexedElements[getNormalizedIndex(index)];
+    }
+    
+    public static int getNormalizedIndex(short s) {
+        return s & 0xFFFF;
+    }
+    
+    public class Element {
+        
+        private final short[] coeffs;
+        private final short index;
+        
+        private Element(int[] coefficients, short ind) {
+            coeffs = new short[coefficients.length];
+            for (int i = 0; i < coeffs.length; i++) {
+                coeffs[i] = (short) coefficients[i];
+            }
+            index = ind;
+        }
+        
+        public short getIndex() {
+            return index;
+        }
+        
+        public int getNormalizedIndex() {
+            return index & 0xFFFF;
+        }
+        
+        public Element plus(Element e) {
+            return indexedElements[ShortField.getNormalizedIndex(add(index, e.index))];
+        }
+        
+        public Element times(Element e) {
+            return indexedElements[ShortField.getNormalizedIndex(mult(index, e.index))];
+        }
+        
+        public Element inverse() {
+            return indexedElements[ShortField.getNormalizedIndex(inverses[getNormalizedIndex()])];
+        }
+        
+        public Element negative() {
+            return indexedElements[ShortField.getNormalizedIndex(negatives[getNormalizedIndex()])];
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof Element) {
+                return index == ((Element) o).index;
+            }
+            return false;
+        }
+        
+        @Override
+        public int hashCode() {
+            return index;
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(coeffs[0]);
+            for (int i = 1; i < coeffs.length; i++) {
+                sb.append("+").append(coeffs[i]);
+                if (i == 1) {
+                    sb.append("x");
+                } else {
+                    sb.append("x^").append(i);
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
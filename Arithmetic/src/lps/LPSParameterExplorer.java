@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package lps;
+
+import basic_operations.LegendreSymbolTable;
+import basic_operations.Primes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A class for sweeping over the parameters (p, q) of the LPS generating sets 
+ * produced by LPSConstructionUtility, p and q ranging over the odd primes of 
+ * two given intervals.  
+ * 
+ * <p>
+ * For distinct odd primes p and q, the p+1 LPS generators lie in the subgroup 
+ * PSL2(F_q) of PGL2(F_q) if p is a square mod q, i.e.&#160if the Legendre symbol 
+ * (p/q) is 1, in which case the resulting Cayley graph is a non-bipartite graph 
+ * on the q(q<sup>2</sup>-1)/2 elements of PSL2(F_q).  If (p/q) = -1, the 
+ * generators generate PGL2(F_q), and the resulting Cayley graph is a bipartite 
+ * graph on its q(q<sup>2</sup>-1) elements (see [LPS]).  The symbols of all 
+ * pairs are computed at once, in a LegendreSymbolTable, possibly on several 
+ * threads.
+ * </p>
+ * 
+ * @author pdokos
+ */
+public class LPSParameterExplorer {
+
+    private final LegendreSymbolTable table;
+    private final List<Parameters> parameters;
+
+    /**
+     * Constructor for the LPSParameterExplorer of the odd primes p with 
+     * pFrom &lt= p &lt= pTo and q with qFrom &lt= q &lt= qTo, computed on the 
+     * calling thread.
+     * 
+     * @param pFrom the lower bound for p.
+     * @param pTo the upper bound for p.
+     * @param qFrom the lower bound for q.
+     * @param qTo the upper bound for q.
+     */
+    public LPSParameterExplorer(int pFrom, int pTo, int qFrom, int qTo) {
+        this(new LegendreSymbolTable(oddPrimesBetween(pFrom, pTo), qFrom, qTo));
+    }
+
+    /**
+     * Constructor for the LPSParameterExplorer of the odd primes p with 
+     * pFrom &lt= p &lt= pTo and q with qFrom &lt= q &lt= qTo, computed on a newly 
+     * created pool of numThreads threads.
+     * 
+     * @param pFrom the lower bound for p.
+     * @param pTo the upper bound for p.
+     * @param qFrom the lower bound for q.
+     * @param qTo the upper bound for q.
+     * @param numThreads the number of threads on which the Legendre symbols are computed.
+     */
+    public LPSParameterExplorer(int pFrom, int pTo, int qFrom, int qTo, int numThreads) {
+        this(new LegendreSymbolTable(oddPrimesBetween(pFrom, pTo), qFrom, qTo, numThreads));
+    }
+
+    private LPSParameterExplorer(LegendreSymbolTable table) {
+        this.table = table;
+        List<Parameters> list = new ArrayList<Parameters>();
+        for (int i = 0; i < table.getNumberOfModuli(); i++) {
+            for (int j = 0; j < table.getNumberOfNumerators(); j++) {
+                int symbol = table.getSymbolAt(i, j);
+                if (symbol != 0) {
+                    list.add(new Parameters(table.getNumerator(j), table.getModulus(i), symbol));
+                }
+            }
+        }
+        parameters = Collections.unmodifiableList(list);
+    }
+
+    private static int[] oddPrimesBetween(int from, int to) {
+        List<Integer> primes = new ArrayList<Integer>();
+        for (int p : Primes.primesBetween(Math.max(from, 3), to)) {
+            primes.add(p);
+        }
+        int[] array = new int[primes.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = primes.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Returns the table of the Legendre symbols (p/q).
+     * 
+     * @return the table of the Legendre symbols (p/q).
+     */
+    public LegendreSymbolTable getSymbolTable() {
+        return table;
+    }
+
+    /**
+     * Returns the parameters of all pairs (p, q) of distinct primes, ordered by q
+     * and then by p.
+     * 
+     * @return an unmodifiable List of the parameters of all pairs (p, q) of 
+     * distinct primes.
+     */
+    public List<Parameters> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the parameters of the pairs (p, q) for which (p/q) = -1, whose LPS 
+     * Cayley graphs are bipartite graphs on PGL2(F_q), ordered by q and then by p.
+     * 
+     * @return the parameters of the pairs (p, q) for which (p/q) = -1.
+     */
+    public List<Parameters> getBipartiteParameters() {
+        return select(true);
+    }
+
+    /**
+     * Returns the parameters of the pairs (p, q) for which (p/q) = 1, whose LPS 
+     * Cayley graphs are non-bipartite graphs on PSL2(F_q), ordered by q and then 
+     * by p.
+     * 
+     * @return the parameters of the pairs (p, q) for which (p/q) = 1.
+     */
+    public List<Parameters> getNonBipartiteParameters() {
+        return select(false);
+    }
+
+    private List<Parameters> select(boolean bipartite) {
+        List<Parameters> selection = new ArrayList<Parameters>();
+        for (Parameters params : parameters) {
+            if (params.isBipartite() == bipartite) {
+                selection.add(params);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * The parameters of the LPS Cayley graph of a pair (p, q) of distinct odd primes.
+     */
+    public static final class Parameters {
+
+        private final int p;
+        private final int q;
+        private final int symbol;
+
+        private Parameters(int p, int q, int symbol) {
+            this.p = p;
+            this.q = q;
+            this.symbol = symbol;
+        }
+
+        /**
+         * Returns the prime p.
+         * 
+         * @return the prime p.
+         */
+        public int getP() {
+            return p;
+        }
+
+        /**
+         * Returns the prime q.
+         * 
+         * @return the prime q.
+         */
+        public int getQ() {
+            return q;
+        }
+
+        /**
+         * Returns the Legendre symbol (p/q).
+         * 
+         * @return the Legendre symbol (p/q), which is &#177;1.
+         */
+        public int getLegendreSymbol() {
+            return symbol;
+        }
+
+        /**
+         * Returns true if the LPS Cayley graph is bipartite, i.e.&#160if (p/q) = -1.
+         * 
+         * @return true if the LPS Cayley graph is bipartite.
+         */
+        public boolean isBipartite() {
+            return symbol == -1;
+        }
+
+        /**
+         * Returns the degree p+1 of the LPS Cayley graph.
+         * 
+         * @return the degree of the LPS Cayley graph.
+         */
+        public int getDegree() {
+            return p + 1;
+        }
+
+        /**
+         * Returns the number of vertices of the LPS Cayley graph, i.e.&#160the 
+         * order of PGL2(F_q) if (p/q) = -1, and of PSL2(F_q) if (p/q) = 1.
+         * 
+         * @return the number of vertices of the LPS Cayley graph.
+         */
+        public long getGroupOrder() {
+            long order = (long) q * ((long) q * q - 1);
+            return isBipartite() ? order : order / 2;
+        }
+
+        @Override
+        public String toString() {
+            return "(p, q) = (" + p + ", " + q + "): (p/q) = " + symbol + ", degree " + getDegree()
+                    + ", " + (isBipartite() ? "bipartite on PGL2" : "non-bipartite on PSL2") + "(F_" + q + ") of order " + getGroupOrder();
+        }
+    }
+
+}
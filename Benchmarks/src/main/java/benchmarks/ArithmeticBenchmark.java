@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package benchmarks;
+
+import basic_operations.Arithmetic;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the modular arithmetic of Arithmetic: reducedProduct and
+ * findInverse, in their <code>int</code> and <code>short</code> forms.  Each
+ * invocation operates on the next pair of a fixed table of random residues, so
+ * that neither the operands nor the results can be constant-folded.
+ *
+ * @author pdokos
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArithmeticBenchmark {
+
+    private static final int TABLE_SIZE = 1024;
+
+    @Param({"101", "32749"})
+    public short modulus;
+
+    private int[] xs;
+    private int[] ys;
+    private short[] shortXs;
+    private short[] shortYs;
+    private int pos;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        xs = new int[TABLE_SIZE];
+        ys = new int[TABLE_SIZE];
+        shortXs = new short[TABLE_SIZE];
+        shortYs = new short[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            xs[i] = 1 + random.nextInt(modulus - 1);
+            ys[i] = 1 + random.nextInt(modulus - 1);
+            shortXs[i] = (short) xs[i];
+            shortYs[i] = (short) ys[i];
+        }
+    }
+
+    private int next() {
+        pos = (pos + 1) & (TABLE_SIZE - 1);
+        return pos;
+    }
+
+    @Benchmark
+    public int reducedProductInt() {
+        int i = next();
+        return Arithmetic.reducedProduct(xs[i], ys[i], modulus);
+    }
+
+    @Benchmark
+    public short reducedProductShort() {
+        int i = next();
+        return Arithmetic.reducedProduct(shortXs[i], shortYs[i], modulus);
+    }
+
+    @Benchmark
+    public int findInverseInt() {
+        return Arithmetic.findInverse(xs[next()], modulus);
+    }
+
+    @Benchmark
+    public short findInverseShort() {
+        return Arithmetic.findInverse(shortXs[next()], modulus);
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package benchmarks;
+
+import fastgroups.GL4ByteField;
+import fastgroups.GLnByteField;
+import finitefields.ByteField;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the products of one element by a whole set of generators, as
+ * computed for each vertex by the Cayley graph builders, for 4x4 matrices over 
+ * F_16.  The batch product multiplyAll, which makes a single pass over the 
+ * element for all of the generators, is compared with one multiplyInto per 
+ * generator and with one (allocating) rightProductBy per generator, for both 
+ * GLnByteField and GL4ByteField.  The scores are per vertex, i.e.&#160for all 
+ * of the generators.
+ *
+ * @author pdokos
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchProductBenchmark {
+
+    private static final int TABLE_SIZE = 64;
+    private static final int N = 4;
+
+    @Param({"4", "8"})
+    public int degree;
+
+    private GLnByteField[] elements;
+    private GLnByteField[] generators;
+    private GLnByteField[] dest;
+    private GL4ByteField[] elements4;
+    private GL4ByteField[] generators4;
+    private GL4ByteField[] dest4;
+    private int pos;
+
+    @Setup
+    public void setup() {
+        ByteField field = ByteField.getF16();
+        Random random = new Random(42);
+        elements = new GLnByteField[TABLE_SIZE];
+        elements4 = new GL4ByteField[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            elements[i] = randomElement(field, random);
+            elements4[i] = toGL4(elements[i], field);
+        }
+        generators = new GLnByteField[degree];
+        generators4 = new GL4ByteField[degree];
+        dest = new GLnByteField[degree];
+        dest4 = new GL4ByteField[degree];
+        for (int k = 0; k < degree; k++) {
+            generators[k] = randomElement(field, random);
+            generators4[k] = toGL4(generators[k], field);
+            dest[k] = new GLnByteField(field, N);
+            dest4[k] = toGL4(dest[k], field);
+        }
+    }
+
+    private static GLnByteField randomElement(ByteField field, Random random) {
+        GLnByteField upper = randomUnipotent(field, random, true);
+        GLnByteField lower = randomUnipotent(field, random, false);
+        return upper.rightProductBy(lower);
+    }
+
+    private static GLnByteField randomUnipotent(ByteField field, Random random, boolean upper) {
+        byte[][] ents = new byte[N][N];
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                if (i == j) {
+                    ents[i][j] = field.one().getIndex();
+                } else if ((i < j) == upper) {
+                    ents[i][j] = (byte) random.nextInt(field.getOrder());
+                } else {
+                    ents[i][j] = field.zero().getIndex();
+                }
+            }
+        }
+        return new GLnByteField(field, ents);
+    }
+
+    private static GL4ByteField toGL4(GLnByteField g, ByteField field) {
+        ByteField.Element[][] ents = new ByteField.Element[N][N];
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                ents[i][j] = g.getEntry(i, j);
+            }
+        }
+        return new GL4ByteField(ents, field);
+    }
+
+    private int next() {
+        pos = (pos + 1) & (TABLE_SIZE - 1);
+        return pos;
+    }
+
+    @Benchmark
+    public GLnByteField[] multiplyAll() {
+        GLnByteField.multiplyAll(elements[next()], generators, dest);
+        return dest;
+    }
+
+    @Benchmark
+    public GLnByteField[] multiplyInto() {
+        GLnByteField g = elements[next()];
+        for (int k = 0; k < degree; k++) {
+            GLnByteField.multiplyInto(g, generators[k], dest[k]);
+        }
+        return dest;
+    }
+
+    @Benchmark
+    public GLnByteField[] rightProductBy() {
+        GLnByteField g = elements[next()];
+        GLnByteField[] products = new GLnByteField[degree];
+        for (int k = 0; k < degree; k++) {
+            products[k] = g.rightProductBy(generators[k]);
+        }
+        return products;
+    }
+
+    @Benchmark
+    public GL4ByteField[] gl4MultiplyAll() {
+        GL4ByteField.multiplyAll(elements4[next()], generators4, dest4);
+        return dest4;
+    }
+
+    @Benchmark
+    public GL4ByteField[] gl4MultiplyInto() {
+        GL4ByteField g = elements4[next()];
+        for (int k = 0; k < degree; k++) {
+            GL4ByteField.multiplyInto(g, generators4[k], dest4[k]);
+        }
+        return dest4;
+    }
+
+    @Benchmark
+    public GL4ByteField[] gl4RightProductBy() {
+        GL4ByteField g = elements4[next()];
+        GL4ByteField[] products = new GL4ByteField[degree];
+        for (int k = 0; k < degree; k++) {
+            products[k] = g.rightProductBy(generators4[k]);
+        }
+        return products;
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package benchmarks;
+
+import finitefields.ByteField;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the field operations ByteField.mult and ByteField.add, over
+ * fields of characteristic 2 and of odd characteristic, on a fixed table of
+ * random element indices, comparing the two representations of the field 
+ * arithmetic on the same field.  The default representation of ByteField for 
+ * each characteristic is chosen after these measurements.
+ *
+ * @author pdokos
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteFieldBenchmark {
+
+    private static final int TABLE_SIZE = 1024;
+
+    @Param({"16", "27", "81", "125", "243", "256"})
+    public int order;
+
+    @Param({"LOG_TABLES", "FULL_TABLES"})
+    public ByteField.Representation representation;
+
+    private ByteField field;
+    private byte[] xs;
+    private byte[] ys;
+    private int pos;
+
+    @Setup
+    public void setup() {
+        field = ByteField.getField((short) order).withRepresentation(representation);
+        Random random = new Random(42);
+        xs = new byte[TABLE_SIZE];
+        ys = new byte[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            xs[i] = (byte) random.nextInt(order);
+            ys[i] = (byte) random.nextInt(order);
+        }
+    }
+
+    private int next() {
+        pos = (pos + 1) & (TABLE_SIZE - 1);
+        return pos;
+    }
+
+    @Benchmark
+    public byte mult() {
+        int i = next();
+        return field.mult(xs[i], ys[i]);
+    }
+
+    @Benchmark
+    public byte add() {
+        int i = next();
+        return field.add(xs[i], ys[i]);
+    }
+
+}
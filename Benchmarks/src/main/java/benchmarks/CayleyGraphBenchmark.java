@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package benchmarks;
+
+import api.GroupCodec;
+import builder.BreadthFirstNeighborGraphBuilder;
+import cayleygraphs.CayleyGraphBuilder;
+import cayleygraphs.ParallelCayleyGraphBuilder;
+import groups.PGL2_PrimeField;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.GroupCodecs;
+
+/**
+ * Benchmarks for the construction of the Cayley graph of PSL(2,q), realized as
+ * the subgroup of PGL2_PrimeField generated by the images of the matrices
+ * [1,1;0,1], [0,-1;1,0] and [1,0;2,1] (and their inverses), which is all of
+ * PSL(2,q) for every odd prime q.  Each measurement is a single complete build.
+ *
+ * @author pdokos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CayleyGraphBenchmark {
+
+    @Param({"13", "31", "61"})
+    public short q;
+
+    private Set<PGL2_PrimeField> generatingSet;
+    private PGL2_PrimeField root;
+    private GroupCodec<PGL2_PrimeField> codec;
+    private int numThreads;
+
+    @Setup
+    public void setup() {
+        generatingSet = getPSL2GeneratingSet(q);
+        root = new PGL2_PrimeField(q);
+        codec = GroupCodecs.forPGL2_PrimeField(q);
+        numThreads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Returns the generating set of PSL(2,q) described in the class description.
+     *
+     * @param q an odd <code>short</code> integer prime.
+     * @return a symmetric generating set of PSL(2,q), as a subgroup of PGL2_PrimeField.
+     */
+    static Set<PGL2_PrimeField> getPSL2GeneratingSet(short q) {
+        PGL2_PrimeField x = new PGL2_PrimeField(1, 1, 0, 1, q);
+        PGL2_PrimeField y = new PGL2_PrimeField(0, -1, 1, 0, q);
+        PGL2_PrimeField z = new PGL2_PrimeField(1, 0, 2, 1, q);
+        Set<PGL2_PrimeField> gens = new LinkedHashSet<PGL2_PrimeField>();
+        gens.add(x);
+        gens.add(x.getInverse());
+        gens.add(y);
+        gens.add(y.getInverse());
+        gens.add(z);
+        gens.add(z.getInverse());
+        return gens;
+    }
+
+    @Benchmark
+    public BreadthFirstNeighborGraphBuilder<PGL2_PrimeField> buildCayleyGraph() {
+        BreadthFirstNeighborGraphBuilder<PGL2_PrimeField> graph = new BreadthFirstNeighborGraphBuilder<PGL2_PrimeField>(root, generatingSet.size());
+        CayleyGraphBuilder.buildCayleyGraph(graph, generatingSet, root);
+        return graph;
+    }
+
+    @Benchmark
+    public Object buildEncodedCayleyGraph() {
+        return CayleyGraphBuilder.getCompressedNavigableCayleyGraph(generatingSet, root, codec);
+    }
+
+    @Benchmark
+    public Object buildParallelCayleyGraph() {
+        return ParallelCayleyGraphBuilder.getIndexedNavigableCayleyGraph(generatingSet, root, numThreads);
+    }
+
+}
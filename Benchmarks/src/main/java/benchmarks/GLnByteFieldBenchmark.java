@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package benchmarks;
+
+import fastgroups.GLnByteField;
+import fastgroups.PGLnByteField;
+import finitefields.ByteField;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the products of GLnByteField and PGLnByteField, comparing
+ * rightProductBy, which allocates a new element for each product, with
+ * multiplyInto, which overwrites a preallocated one, in each of the two 
+ * representations of the field arithmetic of ByteField.  The elements are 
+ * products of random unipotent upper and lower triangular matrices.
+ *
+ * @author pdokos
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GLnByteFieldBenchmark {
+
+    private static final int TABLE_SIZE = 64;
+
+    @Param({"3", "4"})
+    public int n;
+
+    @Param({"16", "27", "125", "243", "256"})
+    public int order;
+
+    @Param({"LOG_TABLES", "FULL_TABLES"})
+    public ByteField.Representation representation;
+
+    private GLnByteField[] elements;
+    private PGLnByteField[] projectiveElements;
+    private GLnByteField dest;
+    private PGLnByteField projectiveDest;
+    private int pos;
+
+    @Setup
+    public void setup() {
+        ByteField field = ByteField.getField((short) order).withRepresentation(representation);
+        Random random = new Random(42);
+        elements = new GLnByteField[TABLE_SIZE];
+        projectiveElements = new PGLnByteField[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            GLnByteField upper = randomUnipotent(field, random, true);
+            GLnByteField lower = randomUnipotent(field, random, false);
+            elements[i] = upper.rightProductBy(lower);
+            projectiveElements[i] = new PGLnByteField(elements[i]);
+        }
+        dest = new GLnByteField(field, n);
+        projectiveDest = new PGLnByteField(field, n);
+    }
+
+    private GLnByteField randomUnipotent(ByteField field, Random random, boolean upper) {
+        byte[][] ents = new byte[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) {
+                    ents[i][j] = field.one().getIndex();
+                } else if ((i < j) == upper) {
+                    ents[i][j] = (byte) random.nextInt(order);
+                } else {
+                    ents[i][j] = field.zero().getIndex();
+                }
+            }
+        }
+        return new GLnByteField(field, ents);
+    }
+
+    private int next() {
+        pos = (pos + 1) & (TABLE_SIZE - 1);
+        return pos;
+    }
+
+    @Benchmark
+    public GLnByteField rightProductBy() {
+        int i = next();
+        return elements[i].rightProductBy(elements[(i + 1) & (TABLE_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public GLnByteField multiplyInto() {
+        int i = next();
+        GLnByteField.multiplyInto(elements[i], elements[(i + 1) & (TABLE_SIZE - 1)], dest);
+        return dest;
+    }
+
+    @Benchmark
+    public PGLnByteField projectiveRightProductBy() {
+        int i = next();
+        return projectiveElements[i].rightProductBy(projectiveElements[(i + 1) & (TABLE_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public PGLnByteField projectiveMultiplyInto() {
+        int i = next();
+        PGLnByteField.multiplyInto(projectiveElements[i], projectiveElements[(i + 1) & (TABLE_SIZE - 1)], projectiveDest);
+        return projectiveDest;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package benchmarks;
+
+import api.IndexedNavigableRootedNeighborGraph;
+import cayleygraphs.CayleyGraphBuilder;
+import groups.PGL2_PrimeField;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.ShellExpansionAnalyzer;
+import utilities.GroupCodecs;
+
+/**
+ * Benchmarks for ShellExpansionAnalyzer.generateData on the Cayley graph of
+ * PSL(2,q) (with the generating set of CayleyGraphBenchmark), both as built by
+ * the BreadthFirstNeighborGraphBuilder and as a CompressedNavigableRootedNeighborGraph.
+ * The graphs are built once, outside of the measurements.
+ *
+ * @author pdokos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShellExpansionBenchmark {
+
+    @Param({"31", "61"})
+    public short q;
+
+    private ShellExpansionAnalyzer<PGL2_PrimeField> indexedAnalyzer;
+    private ShellExpansionAnalyzer<PGL2_PrimeField> compressedAnalyzer;
+
+    @Setup
+    public void setup() {
+        Set<PGL2_PrimeField> generatingSet = CayleyGraphBenchmark.getPSL2GeneratingSet(q);
+        PGL2_PrimeField root = new PGL2_PrimeField(q);
+        IndexedNavigableRootedNeighborGraph<PGL2_PrimeField> indexed = CayleyGraphBuilder.getIndexedNavigableCayleyGraph(generatingSet, root);
+        IndexedNavigableRootedNeighborGraph<PGL2_PrimeField> compressed = CayleyGraphBuilder.getCompressedNavigableCayleyGraph(generatingSet, root, GroupCodecs.forPGL2_PrimeField(q));
+        indexedAnalyzer = new ShellExpansionAnalyzer<PGL2_PrimeField>(indexed);
+        compressedAnalyzer = new ShellExpansionAnalyzer<PGL2_PrimeField>(compressed);
+    }
+
+    @Benchmark
+    public int generateDataIndexed() {
+        indexedAnalyzer.generateData();
+        return indexedAnalyzer.getGirth();
+    }
+
+    @Benchmark
+    public int generateDataCompressed() {
+        compressedAnalyzer.generateData();
+        return compressedAnalyzer.getGirth();
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package benchmarks;
+
+import groups.SymmetricGroup;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the composition (and inversion) of permutations in
+ * SymmetricGroup, on a fixed table of random permutations.
+ *
+ * @author pdokos
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymmetricGroupBenchmark {
+
+    private static final int TABLE_SIZE = 256;
+
+    @Param({"8", "16", "64"})
+    public int numLetters;
+
+    private SymmetricGroup[] elements;
+    private int pos;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        elements = new SymmetricGroup[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            int[] perm = new int[numLetters];
+            for (int k = 0; k < numLetters; k++) {
+                perm[k] = k;
+            }
+            for (int k = numLetters - 1; k > 0; k--) {
+                int j = random.nextInt(k + 1);
+                int tmp = perm[k];
+                perm[k] = perm[j];
+                perm[j] = tmp;
+            }
+            elements[i] = new SymmetricGroup(perm);
+        }
+    }
+
+    private int next() {
+        pos = (pos + 1) & (TABLE_SIZE - 1);
+        return pos;
+    }
+
+    @Benchmark
+    public SymmetricGroup rightProductBy() {
+        int i = next();
+        return elements[i].rightProductBy(elements[(i + 1) & (TABLE_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public SymmetricGroup getInverse() {
+        return elements[next()].getInverse();
+    }
+
+}
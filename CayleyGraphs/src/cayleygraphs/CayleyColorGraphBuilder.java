@@ -18,8 +18,12 @@
 package cayleygraphs;
 
 import api.Group;
+import api.GroupCodec;
 import api.IndexedColorGraph;
 import builder.IndexedColorGraphBuilder;
+import colorgrouph.ColorGrouph;
+import colorgrouph.ColorGrouphBase;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -30,6 +34,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 
 /**
@@ -96,6 +102,39 @@ public class CayleyColorGraphBuilder {
         return cayleyGraph;
     }
 
+    /**
+     * Returns the Cayley color graph of G with respect to generatingSet, based at
+     * the designated root vertex, as a ColorGrouph, consulting the given cache 
+     * first.  Upon a miss, the graph is built by buildCayleyColorGraph and stored
+     * in the cache, from which it is mapped back into memory.
+     *
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G
+     * @param codec a GroupCodec&ltG&gt for the group containing root, with which
+     * the cache key is computed.
+     * @param groupDescriptor a description of the particular group of the family
+     * modeled by G, as in CayleyGraphCache.computeKey.
+     * @param cache the CayleyGraphCache to consult.
+     * @return the Cayley color graph, as a ColorGrouph.
+     */
+    public static <G extends Group<G>> ColorGrouph buildCayleyColorGrouph(Set<G> generatingSet, G root, GroupCodec<G> codec,
+                                                                          String groupDescriptor, CayleyGraphCache cache) {
+        String key = CayleyGraphCache.computeKey(generatingSet, root, codec, groupDescriptor);
+        ColorGrouph cached = cache.getColorGrouph(key);
+        if (cached != null) {
+            return cached;
+        }
+        IndexedColorGraph<G, G> graph = buildCayleyColorGraph(generatingSet, root);
+        try {
+            cache.putColorGraph(key, graph);
+            cached = cache.getColorGrouph(key);
+        } catch (IOException ex) {
+            Logger.getLogger(CayleyColorGraphBuilder.class.getName()).log(Level.WARNING, null, ex);
+        }
+        return (cached != null) ? cached : ColorGrouphBase.makeColorGrouph(graph);
+    }
+
     /**
      * A general purpose method that, with a given empty
      * ModifiableNeighborGraph&ltG&gt, builds the connected component of the
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package cayleygraphs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import api.Group;
+
+/**
+ * A tool for determining the girth of the Cayley graph of a group with respect
+ * to a generating set, together with a shortest cycle, without building the 
+ * graph.  The search is driven directly by the generating set and 
+ * Group.rightProductBy, and stops as soon as the first cycle closes.
+ * 
+ * <p>
+ * Since Cayley graphs are vertex-transitive, the girth is the length of a 
+ * shortest cycle through the identity.  The elements of the group are explored 
+ * in breadth-first order from the identity, one radial shell at a time.  A cycle 
+ * through the identity closes where two of its geodesic arcs from the identity 
+ * meet, so that a shortest cycle is detected in the middle of its length:<br>
+ * &#160&#160&#160(i) a product u*s of an element u of the shell of radius n which 
+ * lies in the same shell closes a cycle of length 2n+1, and<br>
+ * &#160&#160(ii) an element of the shell of radius n+1 which is reached from two
+ * distinct elements of the shell of radius n closes a cycle of length 2n+2.<br>
+ * The search therefore only visits the ball of radius about half the girth.
+ * Moreover, by vertex-transitivity, the first cycle detected is a genuine cycle
+ * (i.e.&#160its two arcs have no vertex other than the identity in common), and 
+ * its length is the girth.
+ * </p>
+ * 
+ * <p>
+ * Each visited element is stored together with the generator by which it was 
+ * first reached, so that the shortest cycle can be recovered as a word in the
+ * generators (a relation of minimal length).  The memory used is proportional 
+ * to the size of the ball visited.  For groups of very large girth, the search
+ * may be bounded by a maximum cycle length.
+ * </p>
+ * 
+ * @author pdokos
+ * 
+ * @param <G> the group implementation
+ */
+public class CayleyGirthFinder<G extends Group<G>> {
+    
+    private final List<G> generators;
+    private final G identity;
+    
+    private int girth;
+    private List<G> shortestCycle;
+    private int numVisited;
+    
+    /**
+     * The radial shells visited, each mapping its elements to the generator by
+     * which they were first reached (null for the identity).
+     */
+    private List<Map<G, G>> shells;
+
+    /**
+     * Constructor for a CayleyGirthFinder on the Cayley graph of the group 
+     * generated by the given set.
+     * 
+     * @param generatingSet any non-empty Set&ltG&gt closed under the inversion operation.
+     */
+    public CayleyGirthFinder(Set<G> generatingSet) {
+        if (generatingSet.isEmpty()) {
+            throw new IllegalArgumentException("The generating set must not be empty.");
+        }
+        generators = new ArrayList<G>(generatingSet);
+        identity = generators.get(0).getIdentity();
+        generators.remove(identity);
+    }
+
+    /**
+     * Determines the girth of the Cayley graph, stopping as soon as a shortest
+     * cycle has been found.
+     * 
+     * @return the girth of the Cayley graph, or 0 if it has no cycles.
+     */
+    public int findGirth() {
+        return findGirth(Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Determines the girth of the Cayley graph, if it does not exceed maxLength, 
+     * stopping as soon as a shortest cycle has been found, or once it is known 
+     * that there are no cycles of length at most maxLength.
+     * 
+     * @param maxLength the maximum length of the cycles searched for.
+     * @return the girth of the Cayley graph, or 0 if it has no cycles of length
+     * at most maxLength.
+     */
+    public int findGirth(int maxLength) {
+        
+        girth = 0;
+        shortestCycle = null;
+        shells = new ArrayList<Map<G, G>>();
+        
+        try {
+            Map<G, G> previousShell = new HashMap<G, G>();
+            Map<G, G> currentShell = new HashMap<G, G>();
+            currentShell.put(identity, null);
+            shells.add(currentShell);
+            numVisited = 1;
+        
+            for (int n = 0; 2L * n + 1 <= maxLength && !currentShell.isEmpty(); n++) {
+            
+                Map<G, G> nextShell = new HashMap<G, G>();
+                G meetingVertex = null;
+                G meetingGenerator = null;
+                G meetingNeighbor = null;
+            
+                for (G u : currentShell.keySet()) {
+                    for (G s : generators) {
+                        G t = u.rightProductBy(s);
+                        if (previousShell.containsKey(t)) {
+                            continue;
+                        }
+                        if (currentShell.containsKey(t)) {
+                            girth = 2 * n + 1;
+                            shortestCycle = getWordTo(u, n);
+                            shortestCycle.add(s);
+                            shortestCycle.addAll(getInverseWord(getWordTo(t, n)));
+                            return girth;
+                        }
+                        G firstGenerator = nextShell.get(t);
+                        if (firstGenerator == null) {
+                            nextShell.put(t, s);
+                        } else if (meetingVertex == null) {
+                            meetingVertex = t;
+                            meetingGenerator = s;
+                            meetingNeighbor = u;
+                        }
+                    }
+                }
+                numVisited += nextShell.size();
+            
+                if (meetingVertex != null && 2L * n + 2 <= maxLength) {
+                    girth = 2 * n + 2;
+                    shells.add(nextShell);
+                    shortestCycle = getWordTo(meetingVertex, n + 1);
+                    shortestCycle.add(meetingGenerator.getInverse());
+                    shortestCycle.addAll(getInverseWord(getWordTo(meetingNeighbor, n)));
+                    return girth;
+                }
+            
+                shells.add(nextShell);
+                previousShell = currentShell;
+                currentShell = nextShell;
+            }
+        
+            return girth;
+        } finally {
+            shells = null;
+        }
+    }
+    
+    /*
+     * The word in the generators along the branch of the search from the 
+     * identity to the element g of the shell of radius d.
+     */
+    private List<G> getWordTo(G g, int d) {
+        List<G> word = new ArrayList<G>(d);
+        for (int i = d; i > 0; i--) {
+            G s = shells.get(i).get(g);
+            word.add(s);
+            g = g.rightProductBy(s.getInverse());
+        }
+        Collections.reverse(word);
+        return word;
+    }
+    
+    private List<G> getInverseWord(List<G> word) {
+        List<G> inverse = new ArrayList<G>(word.size());
+        for (int i = word.size() - 1; i >= 0; i--) {
+            inverse.add(word.get(i).getInverse());
+        }
+        return inverse;
+    }
+
+    /**
+     * Returns the girth found by the last search.
+     * 
+     * @return the girth found by the last search, or 0 if no cycle was found.
+     */
+    public int getGirth() {
+        return girth;
+    }
+
+    /**
+     * Returns a shortest cycle found by the last search, as a word s_1, s_2, ..., s_k 
+     * in the generators (where k is the girth), such that the product 
+     * s_1*s_2*...*s_k is the identity, and the elements s_1, s_1*s_2, ..., 
+     * s_1*s_2*...*s_k are distinct.
+     * 
+     * @return a shortest cycle found by the last search, or null if no cycle was
+     * found.
+     */
+    public List<G> getShortestCycle() {
+        return (shortestCycle == null) ? null : Collections.unmodifiableList(shortestCycle);
+    }
+
+    /**
+     * Returns the number of elements of the group visited by the last search.
+     * 
+     * @return the number of elements of the group visited by the last search.
+     */
+    public int getNumberOfElementsVisited() {
+        return numVisited;
+    }
+    
+}
@@ -17,22 +17,34 @@
  */
 package cayleygraphs;
 
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import api.IndexedNavigableRootedNeighborGraph;
 import api.IndexedNeighborGraph;
 import api.ModifiableNeighborGraph;
 import api.NeighborGraph;
+import base.CompressedNavigableRootedNeighborGraph;
+import base.LongIndexTable;
 import builder.BreadthFirstNeighborGraphBuilder;
 import builder.IndexedNeighborGraphBuilder;
 import builder.NeighborGraphBuilder;
+import api.BatchProductGroup;
 import api.Group;
+import api.GroupCodec;
+import api.InPlaceGroup;
 
 
 
@@ -231,6 +243,296 @@ public class CayleyGraphBuilder {
         return bigraphBase;
     }
 
+    /**
+     * This method produces a CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with 
+     * respect to generatingSet, based at the designated root vertex, with indexing on the vertex set
+     * defined by the insertion order under a breadth-first construction.
+     * 
+     * <p>
+     * A BreadthFirstNeighborGraphBuilder is utilized as the underlying builder,
+     * which is compacted into compressed sparse row form upon completion. 
+     * </p>
+     * 
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt
+     * @param root any element of G 
+     * 
+     * @return A CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to 
+     * genSet, based at the designated root vertex.
+     */
+    public static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> getCompressedNavigableCayleyGraph(Set<G> generatingSet, G root) {
+        BreadthFirstNeighborGraphBuilder<G> bigraphBase = new BreadthFirstNeighborGraphBuilder<G>(root, generatingSet.size());
+        buildCayleyGraph(bigraphBase, generatingSet, root);
+        return bigraphBase.finishCompressed();
+    }
+    
+    /**
+     * This method produces a CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with 
+     * respect to generatingSet, based at the designated root vertex, when it is
+     * known that the subgroup of G generated by generatingSet has numVerts elements.
+     * 
+     * <p>
+     * A BreadthFirstNeighborGraphBuilder is utilized as the underlying builder,
+     * which is compacted into compressed sparse row form upon completion. 
+     * </p>
+     * 
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt
+     * @param root any element of G 
+     * @param numVerts the number of elements in the subgroup generated by the
+     * given generating set.  
+     * 
+     * @return A CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to 
+     * genSet, based at the designated root vertex.
+     */
+    public static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> getCompressedNavigableCayleyGraph(Set<G> generatingSet, G root, int numVerts) {
+        BreadthFirstNeighborGraphBuilder<G> bigraphBase = new BreadthFirstNeighborGraphBuilder<G>(root, numVerts, generatingSet.size());
+        buildCayleyGraph(bigraphBase, generatingSet, root);
+        return bigraphBase.finishCompressed();
+    }
+
+    /**
+     * This method produces a CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with 
+     * respect to generatingSet, based at the designated root vertex, where the vertices are 
+     * deduplicated by their encodings under the given GroupCodec&ltG&gt.  The graph is identical
+     * to that produced by getCompressedNavigableCayleyGraph(generatingSet, root).
+     * 
+     * <p>
+     * If the codec encodes each element as a single <code>long</code>, then the vertices are
+     * indexed by a LongIndexTable on the heap, and the compressed sparse rows are filled in directly, without 
+     * any intermediate builder.  Otherwise the construction falls back to a BreadthFirstNeighborGraphBuilder.
+     * </p>
+     * 
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G 
+     * @param codec a GroupCodec&ltG&gt for the group containing root.
+     * 
+     * @return A CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to 
+     * genSet, based at the designated root vertex.
+     */
+    public static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> getCompressedNavigableCayleyGraph(Set<G> generatingSet, G root, GroupCodec<G> codec) {
+        if (codec.getWordCount() != 1) {
+            return getCompressedNavigableCayleyGraph(generatingSet, root);
+        }
+        return buildEncodedCayleyGraph(generatingSet, root, codec, new LongIndexTable(), 16);
+    }
+    
+    /**
+     * This method produces a CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with 
+     * respect to generatingSet, based at the designated root vertex, where the vertices are 
+     * deduplicated by their encodings under the given GroupCodec&ltG&gt, when it is
+     * known that the subgroup of G generated by generatingSet has numVerts elements.
+     * 
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G 
+     * @param numVerts the number of elements in the subgroup generated by the
+     * given generating set.  
+     * @param codec a GroupCodec&ltG&gt for the group containing root.
+     * 
+     * @return A CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to 
+     * genSet, based at the designated root vertex.
+     */
+    public static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> getCompressedNavigableCayleyGraph(Set<G> generatingSet, G root, int numVerts, GroupCodec<G> codec) {
+        if (codec.getWordCount() != 1) {
+            return getCompressedNavigableCayleyGraph(generatingSet, root, numVerts);
+        }
+        return buildEncodedCayleyGraph(generatingSet, root, codec, new LongIndexTable(numVerts), numVerts);
+    }
+    
+    /**
+     * This method produces a CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with 
+     * respect to generatingSet, based at the designated root vertex, where the vertices are 
+     * indexed by their encodings under the given GroupCodec&ltG&gt in the given (empty) LongIndexTable.
+     * This allows the client to supply a table held outside of the heap for very large graphs.
+     * 
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G 
+     * @param codec a GroupCodec&ltG&gt for the group containing root, encoding each element as a single <code>long</code>.
+     * @param vertexIndex an empty LongIndexTable, which holds the indices of the encoded vertices upon completion.  
+     * The storage for the vertices and the adjacency lists is sized after the number of keys the table holds 
+     * before it is resized, i.e.&#160half its capacity.
+     * 
+     * @return A CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to 
+     * genSet, based at the designated root vertex.
+     */
+    public static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> getCompressedNavigableCayleyGraph(Set<G> generatingSet, G root, GroupCodec<G> codec, LongIndexTable vertexIndex) {
+        return buildEncodedCayleyGraph(generatingSet, root, codec, vertexIndex, vertexIndex.getCapacity() / 2);
+    }
+    
+    /**
+     * This method produces a CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with 
+     * respect to generatingSet, based at the designated root vertex, where the vertices are 
+     * indexed by their encodings under the given GroupCodec&ltG&gt in the given (empty) LongIndexTable, when it is
+     * known that the subgroup of G generated by generatingSet has numVerts elements.
+     * 
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G 
+     * @param numVerts the number of elements in the subgroup generated by the
+     * given generating set.  
+     * @param codec a GroupCodec&ltG&gt for the group containing root, encoding each element as a single <code>long</code>.
+     * @param vertexIndex an empty LongIndexTable, which holds the indices of the encoded vertices upon completion.
+     * 
+     * @return A CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to 
+     * genSet, based at the designated root vertex.
+     */
+    public static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> getCompressedNavigableCayleyGraph(Set<G> generatingSet, G root, int numVerts, 
+                                                                                                              GroupCodec<G> codec, LongIndexTable vertexIndex) {
+        return buildEncodedCayleyGraph(generatingSet, root, codec, vertexIndex, numVerts);
+    }
+    
+    /**
+     * This method produces a CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with 
+     * respect to generatingSet, based at the designated root vertex, consulting the given cache first.  Upon a miss, the graph is built
+     * as by getCompressedNavigableCayleyGraph(generatingSet, root, codec), and stored in the cache.
+     * 
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G 
+     * @param codec a GroupCodec&ltG&gt for the group containing root, with which the cache key is computed and the vertices are stored.
+     * @param groupDescriptor a description of the particular group of the family modeled by G, as in CayleyGraphCache.computeKey.
+     * @param cache the CayleyGraphCache to consult.
+     * 
+     * @return A CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to 
+     * genSet, based at the designated root vertex.
+     */
+    public static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> getCompressedNavigableCayleyGraph(Set<G> generatingSet, G root, GroupCodec<G> codec,
+                                                                                                              String groupDescriptor, CayleyGraphCache cache) {
+        String key = CayleyGraphCache.computeKey(generatingSet, root, codec, groupDescriptor);
+        CompressedNavigableRootedNeighborGraph<G> cached = cache.getNeighborGraph(key, codec);
+        if (cached != null) {
+            return cached;
+        }
+        CompressedNavigableRootedNeighborGraph<G> graph = getCompressedNavigableCayleyGraph(generatingSet, root, codec);
+        try {
+            cache.putNeighborGraph(key, graph, codec);
+        } catch (IOException ex) {
+            Logger.getLogger(CayleyGraphBuilder.class.getName()).log(Level.WARNING, null, ex);
+        }
+        return graph;
+    }
+    
+    /**
+     * Builds the compressed sparse rows of the Cayley graph breadth-first, keyed on the encodings of the vertices.  
+     * The vertices are discovered in the same order as in buildCayleyGraph (including its iteration orders
+     * over the generating set), so the indexing agrees with that of the BreadthFirstNeighborGraphBuilder.
+     * Since every vertex has exactly one neighbor for each generator, the row of the vertex at position p
+     * occupies positions p*degree, ..., p*degree+degree-1 of the targets array.
+     * If G implements InPlaceGroup&ltG&gt, the products are computed into a single scratch element,
+     * which is only copied when a new vertex is found.  If G implements BatchProductGroup&ltG&gt, the
+     * products of each vertex by all of the generators are computed in a single pass, into an array
+     * of scratch elements.
+     */
+    @SuppressWarnings("unchecked")
+    private static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> buildEncodedCayleyGraph(Set<G> generatingSet, G root, GroupCodec<G> codec,
+                                                                                                     LongIndexTable vertexIndex, int expectedSize) {
+        int degree = generatingSet.size();
+        
+        Set<G> rootGenerators = new HashSet<G>(degree, 1);
+        rootGenerators.addAll(generatingSet);
+        List<G> rootOrder = new ArrayList<G>(rootGenerators);
+        List<G> vertexOrder = new ArrayList<G>(new HashSet<G>(generatingSet));
+        
+        expectedSize = Math.max(expectedSize, 16);
+        List<G> vertices = new ArrayList<G>(expectedSize);
+        int[] targets = new int[(int) Math.min((long) expectedSize * degree, Integer.MAX_VALUE - 8)];
+        List<Integer> shellStartList = new ArrayList<Integer>();
+        
+        vertexIndex.putIfAbsent(codec.encode(root), 0);
+        vertices.add(root);
+        shellStartList.add(0);
+        int shellEnd = 1;
+        
+        boolean inPlace = root instanceof InPlaceGroup;
+        boolean batch = root instanceof BatchProductGroup;
+        G scratch = inPlace ? ((InPlaceGroup<G>) root).copy() : null;
+        G[] rootArray = batch ? toArray(rootOrder, root) : null;
+        G[] vertexArray = batch ? toArray(vertexOrder, root) : null;
+        G[] batchProducts = batch ? newScratchArray(root, degree) : null;
+        
+        System.out.print("GENERATING CAYLEY GRAPH...   ");
+        
+        for (int p = 0; p < vertices.size(); p++) {
+            if (p == shellEnd) {
+                shellStartList.add(p);
+                shellEnd = vertices.size();
+            }
+            int rowStart = p * degree;
+            if (targets.length < rowStart + degree) {
+                targets = Arrays.copyOf(targets, Math.max(2 * targets.length, rowStart + degree));
+            }
+            
+            G g = vertices.get(p);
+            if (batch) {
+                ((BatchProductGroup<G>) g).rightProductsInto((p == 0) ? rootArray : vertexArray, batchProducts);
+            }
+            int k = rowStart;
+            int c = 0;
+            for (G s : (p == 0) ? rootOrder : vertexOrder) {
+                G nextVertex;
+                if (batch) {
+                    nextVertex = batchProducts[c];
+                } else if (inPlace) {
+                    ((InPlaceGroup<G>) g).rightProductInto(s, scratch);
+                    nextVertex = scratch;
+                } else {
+                    nextVertex = g.rightProductBy(s);                                        // Right here is the heart of it all!
+                }
+                int n = vertices.size();
+                int ind = vertexIndex.putIfAbsent(codec.encode(nextVertex), n);
+                if (ind == -1) {
+                    vertices.add(inPlace ? ((InPlaceGroup<G>) nextVertex).copy() : nextVertex);
+                    ind = n;
+                }
+                targets[k] = ind;
+                k++;
+                c++;
+            }
+            Arrays.sort(targets, rowStart, rowStart + degree);
+        }
+        
+        System.out.println("DONE");
+        
+        int numVerts = vertices.size();
+        int[] offsets = new int[numVerts + 1];
+        for (int p = 0; p <= numVerts; p++) {
+            offsets[p] = p * degree;
+        }
+        int[] shellStarts = new int[shellStartList.size() + 1];
+        for (int d = 0; d < shellStartList.size(); d++) {
+            shellStarts[d] = shellStartList.get(d);
+        }
+        shellStarts[shellStartList.size()] = numVerts;
+        
+        return new CompressedNavigableRootedNeighborGraph<G>(vertices, offsets, Arrays.copyOf(targets, numVerts * degree), shellStarts);
+    }
+
+    /**
+     * Returns the given elements in an array whose component type is the class 
+     * of the given element, as required by the implementations of 
+     * BatchProductGroup&ltG&gt.
+     */
+    @SuppressWarnings("unchecked")
+    static <G extends Group<G>> G[] toArray(List<G> elements, G template) {
+        return elements.toArray((G[]) Array.newInstance(template.getClass(), elements.size()));
+    }
+
+    /**
+     * Returns an array of n copies of the given element of an InPlaceGroup&ltG&gt,
+     * to be overwritten by the products of a BatchProductGroup&ltG&gt.
+     */
+    @SuppressWarnings("unchecked")
+    static <G extends Group<G>> G[] newScratchArray(G template, int n) {
+        G[] scratch = (G[]) Array.newInstance(template.getClass(), n);
+        for (int k = 0; k < n; k++) {
+            scratch[k] = ((InPlaceGroup<G>) template).copy();
+        }
+        return scratch;
+    }
+
     private static <G extends Group<G>> G getVertex(G m, Collection<G> s) {
 
         for (G g : s) {
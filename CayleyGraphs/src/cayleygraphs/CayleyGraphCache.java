@@ -0,0 +1,480 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package cayleygraphs;
+
+import api.Group;
+import api.GroupCodec;
+import api.IndexedColorGraph;
+import base.CompressedNavigableRootedNeighborGraph;
+import colorgrouph.ColorGrouph;
+import colorgrouph.ColorGrouphBase;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import tools.ICGBinaryFile;
+
+/**
+ * A persistent cache of built Cayley graphs, held as binary files in a 
+ * directory, and keyed by a canonical hash of the group and the generating set.
+ *
+ * <p>
+ * The key of a Cayley graph, computed by computeKey, is the SHA-256 digest of
+ * the name of the group implementation, a descriptor of the particular group 
+ * supplied by the client (such as the dimension and the order of the base field,
+ * which the Group interface does not expose), the encoding of the root, and 
+ * the encodings of the generators under a GroupCodec, sorted so that the key 
+ * does not depend on the iteration order of the generating set.  The cache 
+ * holds two kinds of entries under a key:<br>
+ * &#160&#160&#160&#160(i) Color graphs, in the format of ICGBinaryFile, which 
+ * are read back by mapping the file into memory as a ColorGrouph, so that a 
+ * cached graph is opened in time independent of its size.<br>
+ * &#160&#160&#160(ii) CompressedNavigableRootedNeighborGraphs, in a format 
+ * holding the compressed sparse rows together with the encodings of the 
+ * vertices, which are read back by mapping the file and decoding the vertices.<br>
+ * The methods of CayleyGraphBuilder and CayleyColorGraphBuilder which take a 
+ * CayleyGraphCache consult the cache before building a graph, and store the 
+ * graph upon a miss.
+ * </p>
+ *
+ * <p>
+ * The total size of the files in the directory is bounded by the size 
+ * specified upon construction, by evicting the least recently used entries 
+ * whenever an entry is stored.  The last use of an entry is recorded as the 
+ * modification time of its file, which is updated on every hit, so that the
+ * ordering survives across processes sharing the directory.  An entry is 
+ * written to a temporary file which is then renamed, so that a reader never 
+ * sees a partially written entry.
+ * </p>
+ *
+ * @author pdokos
+ */
+public class CayleyGraphCache {
+
+    private static final String COLOR_GRAPH_SUFFIX = ".icgb";
+    private static final String NEIGHBOR_GRAPH_SUFFIX = ".cnrg";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * The first four bytes of every neighbor graph file, reading "CNRG" in ASCII.
+     */
+    private static final int MAGIC = 0x47524e43;
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 6;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File directory;
+    private final long maxBytes;
+
+    /**
+     * Constructor for a CayleyGraphCache held in the given directory, which is 
+     * created if it does not exist.
+     *
+     * @param directory the directory holding the cached graphs.
+     * @param maxBytes the maximum total size of the files in the directory.
+     * @throws IllegalArgumentException if the directory cannot be created.
+     */
+    public CayleyGraphCache(File directory, long maxBytes) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create the cache directory " + directory);
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the directory holding the cached graphs.
+     *
+     * @return the directory holding the cached graphs.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the maximum total size of the files in the directory.
+     *
+     * @return the maximum total size of the files in the directory.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the key of the Cayley graph of the group containing root with 
+     * respect to the given generating set.
+     *
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt
+     * @param root any element of G
+     * @param codec a GroupCodec&ltG&gt for the group containing root.
+     * @param groupDescriptor a description of the particular group of the family
+     * modeled by G (e.g.&#160"n=3 q=5"), which distinguishes groups whose 
+     * elements have equal encodings.
+     * @return a string of 64 hexadecimal digits.
+     */
+    public static <G extends Group<G>> String computeKey(Set<G> generatingSet, G root, GroupCodec<G> codec, String groupDescriptor) {
+        int wordCount = codec.getWordCount();
+        List<long[]> generatorWords = new ArrayList<long[]>(generatingSet.size());
+        for (G s : generatingSet) {
+            long[] words = new long[wordCount];
+            codec.encode(s, words, 0);
+            generatorWords.add(words);
+        }
+        Collections.sort(generatorWords, new Comparator<long[]>() {
+            @Override
+            public int compare(long[] a, long[] b) {
+                for (int w = 0; w < a.length; w++) {
+                    if (a[w] != b[w]) {
+                        return (a[w] < b[w]) ? -1 : 1;
+                    }
+                }
+                return 0;
+            }
+        });
+
+        ByteBuffer buf = ByteBuffer.allocate(8 * wordCount * (generatorWords.size() + 1) + 12).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(VERSION).putInt(wordCount).putInt(generatorWords.size());
+        long[] rootWords = new long[wordCount];
+        codec.encode(root, rootWords, 0);
+        for (long word : rootWords) {
+            buf.putLong(word);
+        }
+        for (long[] words : generatorWords) {
+            for (long word : words) {
+                buf.putLong(word);
+            }
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available.", ex);
+        }
+        Charset utf8 = Charset.forName("UTF-8");
+        digest.update(root.getClass().getName().getBytes(utf8));
+        digest.update((byte) 0);
+        digest.update(groupDescriptor.getBytes(utf8));
+        digest.update((byte) 0);
+        digest.update(buf.array());
+
+        StringBuilder key = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16));
+            key.append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+
+    //Color graphs:
+
+    /**
+     * Returns the cached color graph with the given key, mapped into memory, or
+     * null if there is no such entry (or if its file cannot be read).
+     *
+     * @param key a key returned by computeKey.
+     * @return the cached color graph with the given key, or null.
+     */
+    public ColorGrouph getColorGrouph(String key) {
+        File file = new File(directory, key + COLOR_GRAPH_SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            ColorGrouph grouph = ColorGrouphBase.readFromBinaryFile(file);
+            touch(file);
+            return grouph;
+        } catch (IOException ex) {
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the given color graph, all of whose vertices are assumed to have 
+     * the same degree (as is the case for a Cayley graph), under the given key,
+     * and evicts the least recently used entries as needed.
+     *
+     * @param key a key returned by computeKey.
+     * @param graph any IndexedColorGraph.
+     * @throws IOException
+     */
+    public <S, C> void putColorGraph(String key, IndexedColorGraph<S, C> graph) throws IOException {
+        File file = new File(directory, key + COLOR_GRAPH_SUFFIX);
+        File temp = File.createTempFile(key, TEMP_SUFFIX, directory);
+        try {
+            ICGBinaryFile.write(graph, temp);
+            commit(temp, file);
+        } finally {
+            temp.delete();
+        }
+        evict(file);
+    }
+
+
+    //Neighbor graphs:
+
+    /**
+     * Returns the cached CompressedNavigableRootedNeighborGraph with the given 
+     * key, whose vertices are decoded with the given codec, or null if there is
+     * no such entry (or if its file cannot be read).
+     *
+     * @param <G> the group implementation
+     * @param key a key returned by computeKey.
+     * @param codec the GroupCodec&ltG&gt with which the key was computed.
+     * @return the cached graph with the given key, or null.
+     */
+    public <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> getNeighborGraph(String key, GroupCodec<G> codec) {
+        File file = new File(directory, key + NEIGHBOR_GRAPH_SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            CompressedNavigableRootedNeighborGraph<G> graph = readNeighborGraph(file, codec);
+            touch(file);
+            return graph;
+        } catch (IOException ex) {
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the given CompressedNavigableRootedNeighborGraph under the given 
+     * key, with its vertices encoded by the given codec, and evicts the least 
+     * recently used entries as needed.
+     *
+     * @param <G> the group implementation
+     * @param key a key returned by computeKey.
+     * @param graph any CompressedNavigableRootedNeighborGraph&ltG&gt.
+     * @param codec the GroupCodec&ltG&gt with which the key was computed.
+     * @throws IOException
+     */
+    public <G extends Group<G>> void putNeighborGraph(String key, CompressedNavigableRootedNeighborGraph<G> graph, GroupCodec<G> codec) throws IOException {
+        File file = new File(directory, key + NEIGHBOR_GRAPH_SUFFIX);
+        File temp = File.createTempFile(key, TEMP_SUFFIX, directory);
+        try {
+            writeNeighborGraph(temp, graph, codec);
+            commit(temp, file);
+        } finally {
+            temp.delete();
+        }
+        evict(file);
+    }
+
+    /*
+     * The neighbor graph format: the header MAGIC, VERSION, the number of 
+     * vertices, the word count of the codec, the number of shells and the total 
+     * length of the rows, followed by the encodings of the vertices (as longs), 
+     * the 0-based shell starts, the row offsets, and the 0-based row entries 
+     * (as ints), all little-endian.
+     */
+    private static <G extends Group<G>> void writeNeighborGraph(File file, CompressedNavigableRootedNeighborGraph<G> graph, GroupCodec<G> codec) throws IOException {
+        int numVerts = graph.getNumberOfVertices();
+        int wordCount = codec.getWordCount();
+        int numShells = graph.getMaxDistanceFromRoot() + 1;
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            FileChannel channel = out.getChannel();
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(numVerts).putInt(wordCount).putInt(numShells).putInt(graph.getNumberOfEdges());
+            long[] words = new long[wordCount];
+            for (int i = 1; i <= numVerts; i++) {
+                codec.encode(graph.getElement(i), words, 0);
+                for (int w = 0; w < wordCount; w++) {
+                    if (buf.remaining() < 8) {
+                        flush(channel, buf);
+                    }
+                    buf.putLong(words[w]);
+                }
+            }
+            for (int d = 0; d < numShells; d++) {
+                putInt(channel, buf, graph.getShellStartIndex(d) - 1);
+            }
+            int offset = 0;
+            putInt(channel, buf, offset);
+            for (int i = 1; i <= numVerts; i++) {
+                offset += graph.getNumberOfNeighbors(i);
+                putInt(channel, buf, offset);
+            }
+            for (int i = 1; i <= numVerts; i++) {
+                int numNeighbors = graph.getNumberOfNeighbors(i);
+                for (int k = 0; k < numNeighbors; k++) {
+                    putInt(channel, buf, graph.getNeighborIndex(i, k) - 1);
+                }
+            }
+            flush(channel, buf);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> readNeighborGraph(File file, GroupCodec<G> codec) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size < 4 * HEADER_INTS || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a cached neighbor graph file: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+                throw new IOException("Not a cached neighbor graph file: " + file);
+            }
+            int numVerts = mapped.getInt();
+            int wordCount = mapped.getInt();
+            int numShells = mapped.getInt();
+            int numTargets = mapped.getInt();
+            long expectedSize = 4L * HEADER_INTS + 8L * numVerts * wordCount + 4L * (numShells + numVerts + 1 + (long) numTargets);
+            if (numVerts < 0 || numShells < 0 || numTargets < 0 || wordCount != codec.getWordCount() || size != expectedSize) {
+                throw new IOException("Corrupt cached neighbor graph file: " + file);
+            }
+
+            List<G> vertices = new ArrayList<G>(numVerts);
+            long[] words = new long[wordCount];
+            for (int i = 0; i < numVerts; i++) {
+                for (int w = 0; w < wordCount; w++) {
+                    words[w] = mapped.getLong();
+                }
+                vertices.add(codec.decode(words, 0));
+            }
+            int[] shellStarts = new int[numShells + 1];
+            mapped.asIntBuffer().get(shellStarts, 0, numShells);
+            shellStarts[numShells] = numVerts;
+            mapped.position(mapped.position() + 4 * numShells);
+            int[] offsets = new int[numVerts + 1];
+            mapped.asIntBuffer().get(offsets);
+            mapped.position(mapped.position() + 4 * (numVerts + 1));
+            int[] targets = new int[numTargets];
+            mapped.asIntBuffer().get(targets);
+            return new CompressedNavigableRootedNeighborGraph<G>(vertices, offsets, targets, shellStarts);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buf, int value) throws IOException {
+        if (buf.remaining() < 4) {
+            flush(channel, buf);
+        }
+        buf.putInt(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+
+
+    //Eviction:
+
+    private static void touch(File file) {
+        file.setLastModified(System.currentTimeMillis());
+    }
+
+    private static void commit(File temp, File file) throws IOException {
+        if (!temp.renameTo(file)) {
+            file.delete();
+            if (!temp.renameTo(file)) {
+                throw new IOException("Cannot rename " + temp + " to " + file);
+            }
+        }
+        touch(file);
+    }
+
+    /*
+     * Deletes the least recently used entries, other than the given one, until
+     * the total size of the entries is at most maxBytes.  On systems which allow
+     * it, a graph whose file is deleted remains readable for as long as it is 
+     * mapped.
+     */
+    private void evict(File keep) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> entries = new ArrayList<File>();
+        long total = 0;
+        for (File f : files) {
+            String name = f.getName();
+            if (f.isFile() && (name.endsWith(COLOR_GRAPH_SUFFIX) || name.endsWith(NEIGHBOR_GRAPH_SUFFIX))) {
+                entries.add(f);
+                total += f.length();
+            }
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        final long[] lastModified = new long[entries.size()];
+        Integer[] order = new Integer[entries.size()];
+        for (int k = 0; k < order.length; k++) {
+            order[k] = k;
+            lastModified[k] = entries.get(k).lastModified();
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return (lastModified[a] < lastModified[b]) ? -1 : ((lastModified[a] == lastModified[b]) ? 0 : 1);
+            }
+        });
+        for (int k = 0; k < order.length && total > maxBytes; k++) {
+            File f = entries.get(order[k]);
+            if (!f.equals(keep)) {
+                long length = f.length();
+                if (f.delete()) {
+                    total -= length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes all of the entries of the cache.
+     */
+    public void clear() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                String name = f.getName();
+                if (name.endsWith(COLOR_GRAPH_SUFFIX) || name.endsWith(NEIGHBOR_GRAPH_SUFFIX)) {
+                    f.delete();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package cayleygraphs;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import api.BatchProductGroup;
+import api.Group;
+import api.IndexedNavigableRootedNeighborGraph;
+import api.InPlaceGroup;
+import base.CompressedNavigableRootedNeighborGraph;
+import builder.BreadthFirstNeighborGraphBuilder;
+
+/**
+ * This class contains static methods for building <em>Cayley</em> graph
+ * structures on several threads.  The graphs produced are identical (with the
+ * same indexing, shells and neighbor lists) to those produced by the
+ * corresponding methods of the CayleyGraphBuilder class.
+ *
+ * <p>
+ * The construction proceeds one radial shell at a time.  The products
+ * g.rightProductBy(s) of the vertices g of the current shell by the generators
+ * s are computed concurrently on the threads of an ExecutorService, with each
+ * task handling a contiguous range of the shell.  Newly found vertices are
+ * deduplicated across the tasks through a ConcurrentHashMap, so that every
+ * element of the group is represented by a single canonical object.  At the
+ * end of each shell, the products are joined into a BreadthFirstNeighborGraphBuilder
+ * on the calling thread, in the same order as in the sequential construction,
+ * which assigns the indices of the new vertices deterministically.  If G 
+ * implements BatchProductGroup&ltG&gt, each task computes the products of a 
+ * vertex by all of the generators in a single pass, into an array of scratch 
+ * elements, and only copies those products which are new vertices.
+ * </p>
+ *
+ * <p>
+ * Since Cayley graphs are vertex-transitive, and the generating set is required
+ * to be closed under the inversion operation, every product of a vertex of the
+ * current shell lies in the previous, current, or next shell.  Accordingly, the
+ * concurrent index only retains the vertices of these three shells.
+ * </p>
+ *
+ * @author pdokos
+ */
+public class ParallelCayleyGraphBuilder {
+
+    private static final int TASKS_PER_THREAD = 4;
+
+    private ParallelCayleyGraphBuilder() {}
+
+    /**
+     * This method produces an IndexedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with
+     * respect to generatingSet, based at the designated root vertex, using the given number of threads.
+     *
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G
+     * @param numThreads the number of threads on which the products are computed.
+     *
+     * @return An IndexedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to
+     * genSet, based at the designated root vertex, identical to that of CayleyGraphBuilder.getIndexedNavigableCayleyGraph.
+     */
+    public static <G extends Group<G>> IndexedNavigableRootedNeighborGraph<G> getIndexedNavigableCayleyGraph(Set<G> generatingSet, G root, int numThreads) {
+        BreadthFirstNeighborGraphBuilder<G> bigraphBase = new BreadthFirstNeighborGraphBuilder<G>(root, generatingSet.size());
+        buildCayleyGraph(bigraphBase, generatingSet, root, numThreads);
+        return bigraphBase;
+    }
+
+    /**
+     * This method produces an IndexedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with
+     * respect to generatingSet, based at the designated root vertex, using the given number of threads, when it is
+     * known that the subgroup of G generated by generatingSet has numVerts elements.
+     *
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G
+     * @param numVerts the number of elements in the subgroup generated by the
+     * given generating set.
+     * @param numThreads the number of threads on which the products are computed.
+     *
+     * @return An IndexedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to
+     * genSet, based at the designated root vertex, identical to that of CayleyGraphBuilder.getIndexedNavigableCayleyGraph.
+     */
+    public static <G extends Group<G>> IndexedNavigableRootedNeighborGraph<G> getIndexedNavigableCayleyGraph(Set<G> generatingSet, G root, int numVerts, int numThreads) {
+        BreadthFirstNeighborGraphBuilder<G> bigraphBase = new BreadthFirstNeighborGraphBuilder<G>(root, numVerts, generatingSet.size());
+        buildCayleyGraph(bigraphBase, generatingSet, root, numThreads);
+        return bigraphBase;
+    }
+
+    /**
+     * This method produces a CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with
+     * respect to generatingSet, based at the designated root vertex, using the given number of threads.
+     *
+     * @param <G> the group implementation
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G
+     * @param numThreads the number of threads on which the products are computed.
+     *
+     * @return A CompressedNavigableRootedNeighborGraph&ltG&gt model for the connected component of the Cayley graph of G with respect to
+     * genSet, based at the designated root vertex, identical to that of CayleyGraphBuilder.getCompressedNavigableCayleyGraph.
+     */
+    public static <G extends Group<G>> CompressedNavigableRootedNeighborGraph<G> getCompressedNavigableCayleyGraph(Set<G> generatingSet, G root, int numThreads) {
+        BreadthFirstNeighborGraphBuilder<G> bigraphBase = new BreadthFirstNeighborGraphBuilder<G>(root, generatingSet.size());
+        buildCayleyGraph(bigraphBase, generatingSet, root, numThreads);
+        return bigraphBase.finishCompressed();
+    }
+
+    /**
+     * Builds the connected component of the Cayley graph of G with respect to
+     * generatingSet, based at the designated root vertex, on a newly created
+     * pool of numThreads threads, which is shut down upon completion.
+     *
+     * @param <G> the group implementation
+     * @param cayleyGraph a BreadthFirstNeighborGraphBuilder&ltG&gt rooted at root, into which the Cayley graph is built.
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G
+     * @param numThreads the number of threads on which the products are computed.
+     */
+    public static <G extends Group<G>> void buildCayleyGraph(BreadthFirstNeighborGraphBuilder<G> cayleyGraph, Set<G> generatingSet, G root, int numThreads) {
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            buildCayleyGraph(cayleyGraph, generatingSet, root, executor, numThreads);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A general purpose method that, with a given BreadthFirstNeighborGraphBuilder&ltG&gt
+     * containing only the root vertex, builds the connected component of the
+     * Cayley graph of G with respect to generatingSet, based at the designated
+     * root vertex.  The products of each shell are computed by tasks submitted to the given
+     * executor, which is left running.
+     *
+     * @param <G> the group implementation
+     * @param cayleyGraph a BreadthFirstNeighborGraphBuilder&ltG&gt rooted at root, into which the Cayley graph is built.
+     * @param generatingSet any Set&ltG&gt closed under the inversion operation
+     * @param root any element of G
+     * @param executor the ExecutorService on which the products are computed.
+     * @param parallelism the number of threads of the executor.  Each shell is split into
+     * a small multiple of this many tasks.
+     */
+    public static <G extends Group<G>> void buildCayleyGraph(BreadthFirstNeighborGraphBuilder<G> cayleyGraph, Set<G> generatingSet, G root,
+                                                             ExecutorService executor, int parallelism) {
+
+        int degree = generatingSet.size();
+
+        //The generator orders of the sequential construction in CayleyGraphBuilder:
+        Set<G> rootGenerators = new HashSet<G>(degree, 1);
+        rootGenerators.addAll(generatingSet);
+        List<G> rootOrder = new ArrayList<G>(rootGenerators);
+        List<G> vertexOrder = new ArrayList<G>(new HashSet<G>(generatingSet));
+
+        ConcurrentHashMap<G, G> canonicalVertices = new ConcurrentHashMap<G, G>(16 * degree, 0.75f, Math.max(parallelism, 1));
+        canonicalVertices.put(root, root);
+
+        List<G> previousShell = new ArrayList<G>();
+        List<G> currentShell = new ArrayList<G>();
+        currentShell.add(root);
+
+        System.out.print("GENERATING CAYLEY GRAPH...   ");
+
+        while (!currentShell.isEmpty()) {
+
+            List<G> generators = (currentShell.get(0) == root) ? rootOrder : vertexOrder;
+            List<G[]> products = computeProducts(currentShell, generators, canonicalVertices, executor, parallelism);
+
+            List<G> nextShell = new ArrayList<G>();
+            int i = 0;
+            for (G[] chunk : products) {
+                for (int j = 0; j < chunk.length; j += degree) {
+                    G g = currentShell.get(i);
+                    for (int k = 0; k < degree; k++) {
+                        G t = chunk[j + k];
+                        if (!cayleyGraph.containsVertex(t)) {
+                            cayleyGraph.join(g, t);
+                            nextShell.add(t);
+                        } else if (!cayleyGraph.hasEdgeJoining(g, t)) {
+                            cayleyGraph.join(g, t);
+                        }
+                    }
+                    i++;
+                }
+            }
+
+            for (G g : previousShell) {
+                canonicalVertices.remove(g);
+            }
+            previousShell = currentShell;
+            currentShell = nextShell;
+        }
+
+        System.out.println("DONE");
+        System.out.print("SORTING NEIGHBOR LISTS...    ");
+        cayleyGraph.finish();
+        System.out.println("DONE");
+    }
+
+    private static <G extends Group<G>> List<G[]> computeProducts(final List<G> shell, final List<G> generators,
+                                                                  final ConcurrentHashMap<G, G> canonicalVertices,
+                                                                  ExecutorService executor, int parallelism) {
+        int size = shell.size();
+        int numTasks = Math.min(size, Math.max(parallelism, 1) * TASKS_PER_THREAD);
+
+        List<Future<G[]>> futures = new ArrayList<Future<G[]>>(numTasks);
+        for (int t = 0; t < numTasks; t++) {
+            final int from = (int) ((long) size * t / numTasks);
+            final int to = (int) ((long) size * (t + 1) / numTasks);
+            futures.add(executor.submit(new Callable<G[]>() {
+                @Override
+                public G[] call() {
+                    return multiplyRange(shell, from, to, generators, canonicalVertices);
+                }
+            }));
+        }
+
+        List<G[]> products = new ArrayList<G[]>(numTasks);
+        try {
+            for (Future<G[]> future : futures) {
+                products.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cayley graph construction was interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Cayley graph construction failed.", ex.getCause());
+        }
+        return products;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <G extends Group<G>> G[] multiplyRange(List<G> shell, int from, int to, List<G> generators,
+                                                          ConcurrentHashMap<G, G> canonicalVertices) {
+        int degree = generators.size();
+        G[] products = (G[]) new Group<?>[(to - from) * degree];
+        int ind = 0;
+        if (from < to && shell.get(from) instanceof BatchProductGroup) {
+            G[] generatorArray = CayleyGraphBuilder.toArray(generators, shell.get(from));
+            G[] batchProducts = CayleyGraphBuilder.newScratchArray(shell.get(from), degree);
+            for (int i = from; i < to; i++) {
+                ((BatchProductGroup<G>) shell.get(i)).rightProductsInto(generatorArray, batchProducts);
+                for (int k = 0; k < degree; k++) {
+                    G existingVertex = canonicalVertices.get(batchProducts[k]);
+                    if (existingVertex == null) {
+                        G nextVertex = ((InPlaceGroup<G>) batchProducts[k]).copy();
+                        existingVertex = canonicalVertices.putIfAbsent(nextVertex, nextVertex);
+                        if (existingVertex == null) {
+                            existingVertex = nextVertex;
+                        }
+                    }
+                    products[ind] = existingVertex;
+                    ind++;
+                }
+            }
+            return products;
+        }
+        for (int i = from; i < to; i++) {
+            G g = shell.get(i);
+            for (G s : generators) {
+                G nextVertex = g.rightProductBy(s);                                          // Right here is the heart of it all!
+                G existingVertex = canonicalVertices.putIfAbsent(nextVertex, nextVertex);
+                products[ind] = (existingVertex == null) ? nextVertex : existingVertex;
+                ind++;
+            }
+        }
+        return products;
+    }
+
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package cayleygraphs;
+
+import api.BatchProductGroup;
+import api.Group;
+import api.GroupCodec;
+import api.InPlaceGroup;
+import base.LongIndexTable;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A collection of static methods which write the sparse color matrix of a Cayley
+ * graph directly to disk, without ever holding the whole graph in memory.
+ *
+ * <p>
+ * The graph is traversed breadth-first, exactly as in
+ * CayleyColorGraphBuilder.buildCayleyColorGraph, and the file written is identical
+ * to the one written by ICGFileRWTool.createSparseColorMatrixFile for the graph
+ * built by that method: the vertices are indexed in the order in which they are
+ * discovered, the colors are indexed 1, 2, ..., degree in the iteration order of
+ * the generating set, and the file contains the line "i j c" (with 1-based
+ * indices) whenever the vertex j is the product of the vertex i by the generator
+ * of color c.
+ * </p>
+ *
+ * <p>
+ * Since every neighbor of a vertex at distance d from the root is at distance d-1,
+ * d or d+1, only the previous, current and next shells are held in memory.  The row
+ * of a vertex is complete as soon as its products by the generators have been
+ * indexed, so the rows are written out one vertex at a time, and the vertices of a
+ * shell are discarded as soon as the traversal moves two shells beyond it.  The
+ * memory required is therefore governed by the sizes of the three largest
+ * consecutive shells, rather than by the order of the group.
+ * </p>
+ *
+ * <p>
+ * When the elements are encoded under a GroupCodec, the vertices of each shell
+ * are indexed by one or more LongIndexTables, among which they are partitioned
+ * by a hash of their codes.  A single LongIndexTable holds at most 
+ * LongIndexTable.getMaxSize(offHeap) entries, i.e.&#160about 1.3e8 on the heap 
+ * and 6.7e7 off the heap, which is therefore the largest shell that can be 
+ * traversed unless the caller supplies the expected size of the largest shell,
+ * in which case enough partitions are used to hold twice that many vertices.
+ * Beyond the tables, the codes of the current and next shells are held in
+ * <code>long[]</code> arrays, so that no shell may have 2^31 - 8 vertices or 
+ * more, and the vertices are indexed by <code>int</code> values, so that the 
+ * graph may not have more than Integer.MAX_VALUE vertices in all.  An 
+ * IllegalStateException is thrown when any of these limits is exceeded.
+ * </p>
+ *
+ * <p>
+ * The generating set is assumed to be closed under inverses, and not to contain
+ * the identity.
+ * </p>
+ *
+ * @author pdokos
+ */
+public class StreamingCayleyColorGraphBuilder {
+
+    private static final int MAX_SHELL_CODES = Integer.MAX_VALUE - 8;
+
+    private StreamingCayleyColorGraphBuilder() {}
+
+    /**
+     * Writes the sparse color matrix of the Cayley graph of G with respect to
+     * generatingSet, based at the designated root vertex, to sparseMatrixFile.
+     * The shells are held in hash maps keyed on the group elements themselves.
+     *
+     * If radialDataFile is not null, the arrays s_n, e_n and t_n of the graph are
+     * written to it, in the format of ShellExpansionAnalyzer.writeRadialDataToFile.
+     *
+     * @param generatingSet any Set&ltG&gt closed under inverses.
+     * @param root any element of G.
+     * @param sparseMatrixFile the file to which the sparse color matrix is written.
+     * @param radialDataFile the file to which the radial data is written, or null.
+     * @return the list of the sizes of the shells about the root.
+     * @throws IOException
+     */
+    public static <G extends Group<G>> List<Integer> buildSparseColorMatrixFile(Set<G> generatingSet, G root,
+                                                                                File sparseMatrixFile, File radialDataFile) throws IOException {
+        List<G> generators = new ArrayList<G>(generatingSet);
+        int degree = generators.size();
+        RadialData radialData = new RadialData();
+
+        Map<G, Integer> previousShell = new HashMap<G, Integer>();
+        Map<G, Integer> currentShell = new HashMap<G, Integer>();
+        Map<G, Integer> nextShell = new HashMap<G, Integer>();
+        List<G> currentVertices = new ArrayList<G>();
+        List<G> nextVertices = new ArrayList<G>();
+
+        currentShell.put(root, 0);
+        currentVertices.add(root);
+        int numVerts = 1;
+
+        Writer sparse = new BufferedWriter(new FileWriter(sparseMatrixFile), 1 << 16);
+        System.out.print("GENERATING CAYLEY GRAPH...   ");
+        try {
+            int is = 0;
+            while (!currentVertices.isEmpty()) {
+                radialData.startShell(currentVertices.size());
+                for (G g : currentVertices) {
+                    for (int c = 0; c < degree; c++) {
+                        G nextVertex = g.rightProductBy(generators.get(c));                 // Right here is the heart of it all!
+                        Integer it = nextShell.get(nextVertex);
+                        if (it == null) {
+                            it = currentShell.get(nextVertex);
+                            if (it != null) {
+                                radialData.countInnerEdge();
+                            } else {
+                                it = previousShell.get(nextVertex);
+                                if (it != null) {
+                                    radialData.countOuterEdge();
+                                } else {
+                                    it = numVerts;
+                                    numVerts++;
+                                    nextShell.put(nextVertex, it);
+                                    nextVertices.add(nextVertex);
+                                }
+                            }
+                        }
+                        writeSparseEntry(sparse, is, it, c);
+                    }
+                    is++;
+                }
+                Map<G, Integer> discardedShell = previousShell;
+                discardedShell.clear();
+                previousShell = currentShell;
+                currentShell = nextShell;
+                nextShell = discardedShell;
+                List<G> discardedVertices = currentVertices;
+                discardedVertices.clear();
+                currentVertices = nextVertices;
+                nextVertices = discardedVertices;
+            }
+        } finally {
+            sparse.close();
+        }
+        System.out.println("DONE");
+
+        if (radialDataFile != null) {
+            radialData.writeToFile(radialDataFile);
+        }
+        return radialData.s_n;
+    }
+
+    /**
+     * Writes the sparse color matrix of the Cayley graph of G with respect to
+     * generatingSet, based at the designated root vertex, to sparseMatrixFile.
+     * The shells are held as arrays of encodings under the given codec, indexed by
+     * LongIndexTables, so that only a few words of memory are spent on each vertex
+     * of the three shells held in memory.  If G implements InPlaceGroup&ltG&gt, the
+     * products are computed into a single scratch element, and if G implements 
+     * BatchProductGroup&ltG&gt, the products of each vertex by all of the generators
+     * are computed in a single pass, into an array of scratch elements.
+     *
+     * If radialDataFile is not null, the arrays s_n, e_n and t_n of the graph are
+     * written to it, in the format of ShellExpansionAnalyzer.writeRadialDataToFile.
+     * If verticesFile is not null, the encodings of the vertices are written to
+     * it as a sequence of <code>long</code> values (as by DataOutputStream), in
+     * the order of their indices, so that the element of any index can later be
+     * recovered from the file.
+     *
+     * If the codec encodes the elements as more than a single word, the shells
+     * are held in hash maps keyed on the group elements themselves (and the
+     * vertices file, if any, is not written).
+     *
+     * The shells are indexed by tables held on the heap, which grow as needed up
+     * to LongIndexTable.getMaxSize(false) vertices per shell.
+     *
+     * @param generatingSet any Set&ltG&gt closed under inverses.
+     * @param root any element of G.
+     * @param codec a GroupCodec for the group containing root.
+     * @param sparseMatrixFile the file to which the sparse color matrix is written.
+     * @param radialDataFile the file to which the radial data is written, or null.
+     * @param verticesFile the file to which the encodings of the vertices are written, or null.
+     * @return the list of the sizes of the shells about the root.
+     * @throws IOException
+     */
+    public static <G extends Group<G>> List<Integer> buildSparseColorMatrixFile(Set<G> generatingSet, G root, GroupCodec<G> codec,
+                                                                                File sparseMatrixFile, File radialDataFile, File verticesFile) throws IOException {
+        return buildSparseColorMatrixFile(generatingSet, root, codec, sparseMatrixFile, radialDataFile, verticesFile, 16, false);
+    }
+
+    /**
+     * Writes the sparse color matrix of the Cayley graph of G with respect to
+     * generatingSet, based at the designated root vertex, to sparseMatrixFile, 
+     * exactly as buildSparseColorMatrixFile(generatingSet, root, codec, 
+     * sparseMatrixFile, radialDataFile, verticesFile), but with shell tables 
+     * sized for the given expected size of the largest shell, and held either 
+     * on the heap or in direct buffers outside of it.  If expectedShellSize 
+     * exceeds half of LongIndexTable.getMaxSize(offHeap), each shell is 
+     * partitioned by a hash of the codes among several tables, so that shells
+     * of about twice expectedShellSize vertices can be traversed.  Each of the three shell tables is allocated upon 
+     * construction with enough capacity for expectedShellSize vertices, i.e.
+     * 24*expectedShellSize bytes or more.
+     *
+     * @param generatingSet any Set&ltG&gt closed under inverses.
+     * @param root any element of G.
+     * @param codec a GroupCodec for the group containing root.
+     * @param sparseMatrixFile the file to which the sparse color matrix is written.
+     * @param radialDataFile the file to which the radial data is written, or null.
+     * @param verticesFile the file to which the encodings of the vertices are written, or null.
+     * @param expectedShellSize the expected number of vertices of the largest shell.
+     * @param offHeap true if the shell tables are to be held outside of the heap.
+     * @return the list of the sizes of the shells about the root.
+     * @throws IOException
+     * @throws IllegalArgumentException if expectedShellSize is negative.
+     */
+    @SuppressWarnings("unchecked")
+    public static <G extends Group<G>> List<Integer> buildSparseColorMatrixFile(Set<G> generatingSet, G root, GroupCodec<G> codec,
+                                                                                File sparseMatrixFile, File radialDataFile, File verticesFile,
+                                                                                int expectedShellSize, boolean offHeap) throws IOException {
+        if (expectedShellSize < 0) {
+            throw new IllegalArgumentException("Negative expected shell size: " + expectedShellSize);
+        }
+        if (codec.getWordCount() != 1) {
+            return buildSparseColorMatrixFile(generatingSet, root, sparseMatrixFile, radialDataFile);
+        }
+
+        List<G> generators = new ArrayList<G>(generatingSet);
+        int degree = generators.size();
+        RadialData radialData = new RadialData();
+
+        ShellTable previousShell = new ShellTable(expectedShellSize, offHeap);
+        ShellTable currentShell = new ShellTable(expectedShellSize, offHeap);
+        ShellTable nextShell = new ShellTable(expectedShellSize, offHeap);
+        long[] currentCodes = new long[16];
+        long[] nextCodes = new long[16];
+        int currentSize = 1;
+        int nextSize = 0;
+
+        boolean inPlace = root instanceof InPlaceGroup;
+        boolean batch = root instanceof BatchProductGroup;
+        G scratch = inPlace ? ((InPlaceGroup<G>) root).copy() : null;
+        G[] generatorArray = batch ? CayleyGraphBuilder.toArray(generators, root) : null;
+        G[] batchProducts = batch ? CayleyGraphBuilder.newScratchArray(root, degree) : null;
+
+        currentCodes[0] = codec.encode(root);
+        currentShell.putIfAbsent(currentCodes[0], 0);
+        int numVerts = 1;
+
+        Writer sparse = new BufferedWriter(new FileWriter(sparseMatrixFile), 1 << 16);
+        DataOutputStream vertices = null;
+        System.out.print("GENERATING CAYLEY GRAPH...   ");
+        try {
+            if (verticesFile != null) {
+                vertices = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(verticesFile), 1 << 16));
+                vertices.writeLong(currentCodes[0]);
+            }
+            int is = 0;
+            while (currentSize > 0) {
+                radialData.startShell(currentSize);
+                for (int p = 0; p < currentSize; p++) {
+                    G g = codec.decode(currentCodes[p]);
+                    if (batch) {
+                        ((BatchProductGroup<G>) g).rightProductsInto(generatorArray, batchProducts);
+                    }
+                    for (int c = 0; c < degree; c++) {
+                        G nextVertex;
+                        if (batch) {
+                            nextVertex = batchProducts[c];
+                        } else if (inPlace) {
+                            ((InPlaceGroup<G>) g).rightProductInto(generators.get(c), scratch);
+                            nextVertex = scratch;
+                        } else {
+                            nextVertex = g.rightProductBy(generators.get(c));                // Right here is the heart of it all!
+                        }
+                        long code = codec.encode(nextVertex);
+                        int it = nextShell.get(code);
+                        if (it == -1) {
+                            it = currentShell.get(code);
+                            if (it != -1) {
+                                radialData.countInnerEdge();
+                            } else {
+                                it = previousShell.get(code);
+                                if (it != -1) {
+                                    radialData.countOuterEdge();
+                                } else {
+                                    if (numVerts == Integer.MAX_VALUE) {
+                                        throw new IllegalStateException("Too many vertices: at most " + Integer.MAX_VALUE + ".");
+                                    }
+                                    it = numVerts;
+                                    numVerts++;
+                                    nextShell.putIfAbsent(code, it);
+                                    if (nextSize == nextCodes.length) {
+                                        nextCodes = growCodes(nextCodes);
+                                    }
+                                    nextCodes[nextSize] = code;
+                                    nextSize++;
+                                    if (vertices != null) {
+                                        vertices.writeLong(code);
+                                    }
+                                }
+                            }
+                        }
+                        writeSparseEntry(sparse, is, it, c);
+                    }
+                    is++;
+                }
+                ShellTable discardedShell = previousShell;
+                discardedShell.clear();
+                previousShell = currentShell;
+                currentShell = nextShell;
+                nextShell = discardedShell;
+                long[] discardedCodes = currentCodes;
+                currentCodes = nextCodes;
+                nextCodes = discardedCodes;
+                currentSize = nextSize;
+                nextSize = 0;
+            }
+        } finally {
+            sparse.close();
+            if (vertices != null) {
+                vertices.close();
+            }
+        }
+        System.out.println("DONE");
+
+        if (radialDataFile != null) {
+            radialData.writeToFile(radialDataFile);
+        }
+        return radialData.s_n;
+    }
+
+    /*
+     * Grows the array of codes of a shell, which may not have as many as
+     * MAX_SHELL_CODES entries.
+     */
+    private static long[] growCodes(long[] codes) {
+        if (codes.length >= MAX_SHELL_CODES) {
+            throw new IllegalStateException("Shell too large: at most " + MAX_SHELL_CODES + " vertices.");
+        }
+        return Arrays.copyOf(codes, (int) Math.min(2L * codes.length, MAX_SHELL_CODES));
+    }
+
+    private static void writeSparseEntry(Writer sparse, int is, int it, int c) throws IOException {
+        sparse.write(Integer.toString(is + 1));
+        sparse.write(' ');
+        sparse.write(Integer.toString(it + 1));
+        sparse.write(' ');
+        sparse.write(Integer.toString(c + 1));
+        sparse.write('\n');
+    }
+
+    /*
+     * The index of the vertices of a shell, keyed on their codes, partitioned 
+     * among a power of 2 of LongIndexTables by the top bits of a multiplicative
+     * hash of the codes (the LongIndexTables themselves use the low bits of a 
+     * different hash), so that a shell may be larger than a single table.
+     */
+    private static class ShellTable {
+
+        private final LongIndexTable[] partitions;
+        private final int shift;
+
+        private ShellTable(int expectedSize, boolean offHeap) {
+            long maxSize = LongIndexTable.getMaxSize(offHeap);
+            int bits = 0;
+            while ((maxSize << bits) < 2L * expectedSize) {
+                bits++;
+            }
+            partitions = new LongIndexTable[1 << bits];
+            for (int i = 0; i < partitions.length; i++) {
+                partitions[i] = new LongIndexTable(expectedSize >> bits, offHeap);
+            }
+            shift = 64 - bits;
+        }
+
+        private LongIndexTable partitionOf(long code) {
+            if (partitions.length == 1) {
+                return partitions[0];
+            }
+            return partitions[(int) ((code * 0x9E3779B97F4A7C15L) >>> shift)];
+        }
+
+        private int get(long code) {
+            return partitionOf(code).get(code);
+        }
+
+        private int putIfAbsent(long code, int index) {
+            return partitionOf(code).putIfAbsent(code, index);
+        }
+
+        private void clear() {
+            for (LongIndexTable partition : partitions) {
+                partition.clear();
+            }
+        }
+    }
+
+    /*
+     * Accumulates the arrays s_n, e_n and t_n of ShellExpansionAnalyzer as the shells
+     * are traversed.  An edge joining shells d-1 and d is counted once, from its
+     * endpoint in shell d, while an edge within shell d is seen from both of its
+     * endpoints.
+     */
+    private static class RadialData {
+
+        private final List<Integer> s_n = new ArrayList<Integer>();
+        private final List<Integer> e_n = new ArrayList<Integer>();
+        private final List<Integer> t_n = new ArrayList<Integer>();
+        private int outerEdges;
+        private int innerEdgeEnds;
+
+        private void startShell(int shellSize) {
+            closeShell();
+            s_n.add(shellSize);
+            outerEdges = 0;
+            innerEdgeEnds = 0;
+        }
+
+        private void closeShell() {
+            if (e_n.size() < s_n.size()) {
+                e_n.add(outerEdges);
+                t_n.add(innerEdgeEnds / 2);
+            }
+        }
+
+        private void countOuterEdge() {
+            outerEdges++;
+        }
+
+        private void countInnerEdge() {
+            innerEdgeEnds++;
+        }
+
+        private void writeToFile(File f) throws IOException {
+            closeShell();
+            Writer fw = new BufferedWriter(new FileWriter(f));
+            try {
+                for (int i = 0; i < s_n.size(); i++) {
+                    StringBuilder line = new StringBuilder();
+                    line.append(s_n.get(i)).append(' ').append(e_n.get(i)).append(' ').append(t_n.get(i)).append('\n');
+                    fw.write(line.toString());
+                }
+            } finally {
+                fw.close();
+            }
+        }
+    }
+
+}
@@ -18,7 +18,10 @@
 package colorgrouph;
 
 import api.Group;
+import api.IndexVisitor;
 import api.IndexedColorGraph;
+import base.RepeatedNeighbors;
+import base.ShellIndex;
 import cayleygraphs.CayleyColorGraphBuilder;
 import java.io.BufferedReader;
 import java.io.File;
@@ -26,6 +29,7 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -37,16 +41,29 @@ import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import tools.ICGBinaryFile;
 
 /**
+ * An implementation of ColorGrouph, whose colors are the integers 1, 2, ..., degree
+ * and whose vertices are identified with their indices.
+ *
+ * <p>
+ * The edges are held in a single neighbor table, the entry at position
+ * v*degree+c-1 being the index of the neighbor of the vertex of index v along the
+ * color c.  The table is either an array on the heap, or (for a ColorGrouph read
+ * from a file of the format of ICGBinaryFile) a view of the memory-mapped file
+ * itself, in which case opening the file takes time independent of its size.
+ * </p>
  *
  * @author pdokos
  */
 public class ColorGrouphBase implements ColorGrouph {
 
     private GrouphVertex root;
-    private List<ColorMapping> colorKeyedNeighborSets;
-    private List<Integer> shellStartIndices;
+    private int numVerts;
+    private IntBuffer neighborTable;
+    private RepeatedNeighbors repeatedNeighbors; //computed on first use by the shell-neighbor methods
+    private ShellIndex shellIndex;
     private Map<Integer, Integer> colorInvolution;
     private int degree;
     private CGNavigator navigator;
@@ -54,8 +71,10 @@ public class ColorGrouphBase implements ColorGrouph {
     private Map<GrouphVertex, List<Integer>> shortestPathStore;
 
     public ColorGrouphBase(int numverts, Map<Integer, Integer> colorInvolution) {
-        colorKeyedNeighborSets = new ArrayList<ColorMapping>(numverts); //check loadfactor stuff...
-        shellStartIndices = new ArrayList<Integer>();
+        numVerts = 0;
+        neighborTable = IntBuffer.allocate(0);
+        repeatedNeighbors = null;
+        shellIndex = new ShellIndex(new int[0]);
         this.colorInvolution = colorInvolution;
         this.degree = colorInvolution.size();
         navigator = new CGNavigator(this);
@@ -63,14 +82,13 @@ public class ColorGrouphBase implements ColorGrouph {
     }
 
     private <S, C> ColorGrouphBase(IndexedColorGraph<S, C> graph) {
-        colorKeyedNeighborSets = new ArrayList<ColorMapping>(graph.getNumberOfVertices()); //check loadfactor stuff...
-        shellStartIndices = new ArrayList<Integer>();
+        shellIndex = new ShellIndex(new int[0]);
         degree = graph.getColorSet().size();
         navigator = new CGNavigator(this);
         shortestPathStore = new HashMap<GrouphVertex, List<Integer>>();
 
         for (int d = 0; d <= graph.getMaxDistanceFromRoot(); d++) {
-            shellStartIndices.add(graph.getShellStartIndex(d));
+            shellIndex.addShell(graph.getShellStartIndex(d));
         }
 
         S root1 = graph.getRoot();
@@ -87,18 +105,16 @@ public class ColorGrouphBase implements ColorGrouph {
 
         int size = graph.getNumberOfVertices();
         //ColorGrouphBase b = new ColorGrouphBase(size, colorInv);
-        for (int is = 0; is < size; is++) {
-            GrouphVertex vert = new GrouphVertex(is);
-            colorKeyedNeighborSets.add(new ColorMapping(vert));
-        }
-        root = colorKeyedNeighborSets.get(0).getSource();
+        numVerts = size;
+        neighborTable = IntBuffer.allocate(size * degree);
+        repeatedNeighbors = null;
+        root = new GrouphVertex(0);
         for (int is = 0; is < size; is++) {
             S s = graph.getElement(is);
-            ColorMapping colorMapping = colorKeyedNeighborSets.get(is);
             for (C c : graph.getColorSet()) {
                 S t = graph.getNeighbor(s, c);
                 int it = graph.getIndexOf(t);
-                colorMapping.set(colorIndexing.get(c), getElement(it));
+                neighborTable.put(is * degree + colorIndexing.get(c) - 1, it);
             }
         }
 
@@ -108,10 +124,75 @@ public class ColorGrouphBase implements ColorGrouph {
         return new ColorGrouphBase(graph);
     }
     
+    /**
+     * Reads a ColorGrouph from the given file, which is either a sparse text file
+     * as written by ICGFileRWTool.createSparseColorMatrixFile, or a binary file
+     * of the format of ICGBinaryFile.  In the latter case, the file is mapped into
+     * memory rather than read.
+     *
+     * @param file a sparse text file or a binary color graph file.
+     * @return the ColorGrouph held in file.
+     */
     public static ColorGrouph readFromFile(File file) {
+        try {
+            if (ICGBinaryFile.isBinaryFile(file)) {
+                return new ColorGrouphBase(ICGBinaryFile.map(file));
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(ColorGrouphBase.class.getName()).log(Level.SEVERE, null, ex);
+        }
         return new ColorGrouphBase(file);
     }
 
+    /**
+     * Maps the given file of the format of ICGBinaryFile into memory as a
+     * ColorGrouph.  Unlike readFromFile, this method never falls back to
+     * reading a sparse text file.
+     *
+     * @param file a binary color graph file.
+     * @return the ColorGrouph held in file.
+     * @throws IOException if the file cannot be read, or is not a file of the
+     * format of ICGBinaryFile.
+     */
+    public static ColorGrouph readFromBinaryFile(File file) throws IOException {
+        return new ColorGrouphBase(ICGBinaryFile.map(file));
+    }
+
+    private ColorGrouphBase(ICGBinaryFile binaryFile) {
+        numVerts = binaryFile.getNumberOfVertices();
+        degree = binaryFile.getDegree();
+        neighborTable = binaryFile.getNeighborTable();
+        repeatedNeighbors = null;
+        root = (numVerts != 0) ? new GrouphVertex(0) : null;
+
+        shellIndex = new ShellIndex(new int[0]);
+        for (int d = 0; d < binaryFile.getNumberOfShells(); d++) {
+            shellIndex.addShell(binaryFile.getShellStartIndex(d));
+        }
+        colorInvolution = new HashMap<Integer, Integer>(degree + 1, 1.0f);
+        for (int c = 1; c <= degree; c++) {
+            colorInvolution.put(c, binaryFile.getInverseColor(c));
+        }
+
+        navigator = new CGNavigator(this);
+        shortestPathStore = new HashMap<GrouphVertex, List<Integer>>();
+    }
+
+    /**
+     * Writes this ColorGrouph to a file of the binary format of ICGBinaryFile,
+     * from which it can be read back by readFromFile.
+     *
+     * @param file the file to which the ColorGrouph is written.
+     * @throws IOException
+     */
+    public void writeToBinaryFile(File file) throws IOException {
+        int[] colorInv = new int[degree];
+        for (int c = 1; c <= degree; c++) {
+            colorInv[c - 1] = colorInvolution.get(c);
+        }
+        ICGBinaryFile.write(file, numVerts, degree, colorInv, shellIndex.toArray(), neighborTable);
+    }
+
     private ColorGrouphBase(File file) {
         System.out.println("READING FILE...");
         List<int[]> list = readGrouphFileToListOfArrays(file);
@@ -125,16 +206,13 @@ public class ColorGrouphBase implements ColorGrouph {
             degree++;
         }
         
-        int numVerts = (degree != 0) ? size/degree : 0;
+        numVerts = (degree != 0) ? size/degree : 0;
 
-        colorKeyedNeighborSets = new ArrayList<ColorMapping>(numVerts);
-        shellStartIndices = new ArrayList<Integer>();
+        neighborTable = IntBuffer.allocate(numVerts * degree);
+        repeatedNeighbors = null;
+        shellIndex = new ShellIndex(new int[0]);
         
-        for (int is = 0; is < numVerts; is++) {
-            GrouphVertex vert = new GrouphVertex(is);
-            colorKeyedNeighborSets.add(new ColorMapping(vert));
-        }
-        root= (numVerts != 0) ? colorKeyedNeighborSets.get(0).getSource() : null;
+        root= (numVerts != 0) ? new GrouphVertex(0) : null;
         
         colorInvolution = new HashMap<Integer, Integer>(degree + 1, 1.0f);
         for (int i=1; i<=degree; i++) {
@@ -164,25 +242,23 @@ public class ColorGrouphBase implements ColorGrouph {
         
         if (numVerts != 0) {
 
-            ColorMapping fiber = colorKeyedNeighborSets.get(iSrc - 1);
             while (iterator.hasNext()) {
                 int[] sparseEntry = iterator.next();
 
                 if (sparseEntry[0] != iSrc) {
                     if (shellStartVert) {
-                        shellStartIndices.add(iSrc - 1);
+                        shellIndex.addShell(iSrc - 1);
                         //prevShellStart=shellStart;
                         shellStart = iSrc;
                     }
                     shellStartVert = true;
                     iSrc++;
-                    fiber = colorKeyedNeighborSets.get(iSrc - 1);
                     //shellStartVert=true;
                 }
                 if (sparseEntry[1] < shellStart) {
                     shellStartVert = false;
                 }
-                fiber.set(sparseEntry[2], colorKeyedNeighborSets.get(sparseEntry[1] - 1).getSource());
+                neighborTable.put((iSrc - 1) * degree + sparseEntry[2] - 1, sparseEntry[1] - 1);
                 
             }
         }
@@ -281,7 +357,7 @@ public class ColorGrouphBase implements ColorGrouph {
 
     @Override
     public int getShellStartIndex(int d) {
-        return shellStartIndices.get(d);
+        return shellIndex.getShellStart(d);
     }
 
     @Override
@@ -293,7 +369,9 @@ public class ColorGrouphBase implements ColorGrouph {
     
     @Override
     public void clear() {
-        colorKeyedNeighborSets.clear();
+        numVerts = 0;
+        neighborTable = IntBuffer.allocate(0);
+        repeatedNeighbors = null;
     }
     
     public class GrouphVertex implements Group<GrouphVertex> {
@@ -379,47 +457,6 @@ public class ColorGrouphBase implements ColorGrouph {
         return true;
     }
     
-    public class ColorMapping {//implements Collection<GrouphVertex>{
-
-        private GrouphVertex source;
-        private List<GrouphVertex> colorKeyedList;
-        private Map<GrouphVertex, Integer> edgeColors;
-
-        public ColorMapping(GrouphVertex src) {
-            source = src;
-            colorKeyedList = new ArrayList<GrouphVertex>(degree);
-            for (int i = 0; i < degree; i++) {
-                colorKeyedList.add(null);
-            }
-            edgeColors = new HashMap<GrouphVertex, Integer>(degree);
-        }
-
-        public void set(Integer color, GrouphVertex neighbor) {
-            colorKeyedList.set(color - 1, neighbor);
-            edgeColors.put(neighbor, color);
-        }
-
-        public GrouphVertex getSource() {
-            return source;
-        }
-
-        public GrouphVertex getTarget(Integer color) {
-            return colorKeyedList.get(color - 1);
-        }
-
-        public Integer getColor(GrouphVertex target) {
-            return edgeColors.get(target);
-        }
-
-        public List<GrouphVertex> getVertexList() {
-            return Collections.unmodifiableList(colorKeyedList);
-        }
-
-        public boolean containsTarget(GrouphVertex tgt) {
-            return edgeColors.containsKey(tgt);
-        }
-    }
-
     public IndexedColorGraph<GrouphVertex, GrouphVertex> getCayley(Set<GrouphVertex> genSet) {
         return CayleyColorGraphBuilder.buildCayleyColorGraph(genSet, root);//.getIndexedNavigableCayleyGraph(genSet, root);//.getCayleyGraph(genSet, root);
     }
@@ -427,32 +464,24 @@ public class ColorGrouphBase implements ColorGrouph {
     @Override
     public int getDistanceFromTheRoot(GrouphVertex s) {
         if (this.containsVertex(s)) {
-            int index = s.getIndex();
-            int d = 1;
-            while (d < shellStartIndices.size()) {
-                if (shellStartIndices.get(d) > index) {
-                    return d - 1;
-                }
-                d++;
-            }
-            return d - 1;
+            return shellIndex.getShellOf(s.getIndex());
         }
         return -1;
     }
 
     @Override
     public int getMaxDistanceFromRoot() {
-        return shellStartIndices.size() - 1;
+        return shellIndex.getNumberOfShells() - 1;
     }
 
     @Override
     public List<GrouphVertex> getShell(int d) {
         if (d >= 0) {
-            if (d < shellStartIndices.size() - 1) {
-                return getElements(shellStartIndices.get(d), shellStartIndices.get(d + 1));
+            if (d < shellIndex.getNumberOfShells() - 1) {
+                return getElements(shellIndex.getShellStart(d), shellIndex.getShellStart(d + 1));
             }
-            if (d == shellStartIndices.size() - 1) {
-                return getElements(shellStartIndices.get(d), colorKeyedNeighborSets.size());
+            if (d == shellIndex.getNumberOfShells() - 1) {
+                return getElements(shellIndex.getShellStart(d), numVerts);
             }
         }
         return new ArrayList<GrouphVertex>();
@@ -460,7 +489,10 @@ public class ColorGrouphBase implements ColorGrouph {
 
     @Override
     public final GrouphVertex getElement(int i) {
-        return colorKeyedNeighborSets.get(i).getSource();
+        if (i < 0 || i >= numVerts) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + numVerts);
+        }
+        return new GrouphVertex(i);
     }
 
     @Override
@@ -472,19 +504,25 @@ public class ColorGrouphBase implements ColorGrouph {
     public List<GrouphVertex> getElements(int minIncl, int maxExcl) {
         List<GrouphVertex> elements = new ArrayList<GrouphVertex>(maxExcl - minIncl);
         for (int i = minIncl; i < maxExcl; i++) {
-            elements.add(colorKeyedNeighborSets.get(i).getSource());
+            elements.add(new GrouphVertex(i));
         }
         return elements;
     }
 
     @Override
     public GrouphVertex getNeighbor(GrouphVertex vertex, Integer color) {
-        return colorKeyedNeighborSets.get(vertex.getIndex()).getTarget(color);
+        return new GrouphVertex(neighborTable.get(vertex.getIndex() * degree + color - 1));
     }
 
     @Override
     public Integer getEdgeColor(GrouphVertex src, GrouphVertex tgt) {
-        return colorKeyedNeighborSets.get(src.getIndex()).getColor(tgt);
+        int rowStart = src.getIndex() * degree;
+        for (int c = 1; c <= degree; c++) {
+            if (neighborTable.get(rowStart + c - 1) == tgt.getIndex()) {
+                return c;
+            }
+        }
+        return null;
     }
 
     @Override
@@ -502,7 +540,7 @@ public class ColorGrouphBase implements ColorGrouph {
         int dist = getDistanceFromTheRoot(s);
         Set<GrouphVertex> neighs = new HashSet<GrouphVertex>();
         if (dist < getMaxDistanceFromRoot() && dist != -1) {
-            int ind = shellStartIndices.get(dist + 1);
+            int ind = shellIndex.getShellStart(dist + 1);
             for (GrouphVertex t : getNeighborsOf(s)) {
                 if (this.getIndexOf(t) >= ind) {
                     neighs.add(t);
@@ -518,15 +556,15 @@ public class ColorGrouphBase implements ColorGrouph {
         Set<GrouphVertex> neighs = new HashSet<GrouphVertex>();
         if (dist != -1) {
             if (dist < getMaxDistanceFromRoot()) {
-                int startInd = shellStartIndices.get(dist);
-                int endInd = shellStartIndices.get(dist + 1);
+                int startInd = shellIndex.getShellStart(dist);
+                int endInd = shellIndex.getShellStart(dist + 1);
                 for (GrouphVertex t : getNeighborsOf(s)) {
                     if (getIndexOf(t) >= startInd && getIndexOf(t) < endInd) {
                         neighs.add(t);
                     }
                 }
             } else {
-                int startInd = shellStartIndices.get(dist);
+                int startInd = shellIndex.getShellStart(dist);
                 for (GrouphVertex t : getNeighborsOf(s)) {
                     if (getIndexOf(t) >= startInd) {
                         neighs.add(t);
@@ -539,7 +577,7 @@ public class ColorGrouphBase implements ColorGrouph {
 
     @Override
     public Collection<GrouphVertex> getNeighborsInPreviousShell(GrouphVertex s) {
-        int d = shellStartIndices.get(getDistanceFromTheRoot(s));
+        int d = shellIndex.getShellStart(getDistanceFromTheRoot(s));
         Set<GrouphVertex> neighs = new HashSet<GrouphVertex>();
         if (d != -1) {
             Collection<GrouphVertex> neighborsOf = getNeighborsOf(s);
@@ -552,33 +590,121 @@ public class ColorGrouphBase implements ColorGrouph {
         return neighs;
     }
 
+    /*
+     * The index of the first vertex beyond the shell of index d.
+     */
+    private int getShellEndIndex(int d) {
+        if (d < getMaxDistanceFromRoot()) {
+            return shellIndex.getShellStart(d + 1);
+        }
+        return numVerts;
+    }
+
+    /*
+     * The entries of the neighbor table which repeat an earlier entry of their
+     * row, which are skipped so that each neighbor is counted once, as in the 
+     * sets returned by getNeighborsIn...Shell.  They are found on first use,
+     * and again after the table is replaced.
+     */
+    private RepeatedNeighbors getRepeatedNeighbors() {
+        RepeatedNeighbors repeated = repeatedNeighbors;
+        if (repeated == null) {
+            repeated = RepeatedNeighbors.of(neighborTable, numVerts, degree);
+            repeatedNeighbors = repeated;
+        }
+        return repeated;
+    }
+
+    private int countNeighborsInRange(int i, int minIncl, int maxExcl) {
+        RepeatedNeighbors repeated = getRepeatedNeighbors();
+        int rowStart = i * degree;
+        int count = 0;
+        for (int c = 0; c < degree; c++) {
+            int t = neighborTable.get(rowStart + c);
+            if (t >= minIncl && t < maxExcl && !repeated.isRepeated(rowStart + c)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void visitNeighborsInRange(int i, int minIncl, int maxExcl, IndexVisitor visitor) {
+        RepeatedNeighbors repeated = getRepeatedNeighbors();
+        int rowStart = i * degree;
+        for (int c = 0; c < degree; c++) {
+            int t = neighborTable.get(rowStart + c);
+            if (t >= minIncl && t < maxExcl && !repeated.isRepeated(rowStart + c)) {
+                visitor.visit(t);
+            }
+        }
+    }
+
+    @Override
+    public int countNeighborsInNextShell(int i) {
+        int d = shellIndex.getShellOf(i);
+        return countNeighborsInRange(i, getShellEndIndex(d), numVerts);
+    }
+
+    @Override
+    public int countNeighborsInSameShell(int i) {
+        int d = shellIndex.getShellOf(i);
+        return countNeighborsInRange(i, shellIndex.getShellStart(d), getShellEndIndex(d));
+    }
+
+    @Override
+    public int countNeighborsInPreviousShell(int i) {
+        return countNeighborsInRange(i, 0, shellIndex.getShellStart(shellIndex.getShellOf(i)));
+    }
+
+    @Override
+    public void forEachNeighborInNextShell(int i, IndexVisitor visitor) {
+        int d = shellIndex.getShellOf(i);
+        visitNeighborsInRange(i, getShellEndIndex(d), numVerts, visitor);
+    }
+
+    @Override
+    public void forEachNeighborInSameShell(int i, IndexVisitor visitor) {
+        int d = shellIndex.getShellOf(i);
+        visitNeighborsInRange(i, shellIndex.getShellStart(d), getShellEndIndex(d), visitor);
+    }
+
+    @Override
+    public void forEachNeighborInPreviousShell(int i, IndexVisitor visitor) {
+        visitNeighborsInRange(i, 0, shellIndex.getShellStart(shellIndex.getShellOf(i)), visitor);
+    }
+
     @Override
     public boolean containsVertex(GrouphVertex s) {
-        return s.getIndex() >= 0 && s.getIndex() <= colorKeyedNeighborSets.size();
+        return s.getIndex() >= 0 && s.getIndex() <= numVerts;
     }
 
     @Override
     public boolean hasEdgeJoining(GrouphVertex src, GrouphVertex tgt) {
-        return colorKeyedNeighborSets.get(src.getIndex()).containsTarget(tgt);
+        return getEdgeColor(src, tgt) != null;
     }
 
     @Override
     public final int getNumberOfVertices() {
-        return colorKeyedNeighborSets.size();
+        return numVerts;
     }
 
     @Override
     public final int getNumberOfEdges() {
-        return colorKeyedNeighborSets.size() * colorInvolution.size();
+        return numVerts * colorInvolution.size();
     }
 
     @Override
     public Set<GrouphVertex> getVertices() {
-        return new HashSet<GrouphVertex>(getElements(0, colorKeyedNeighborSets.size()));
+        return new HashSet<GrouphVertex>(getElements(0, numVerts));
     }
 
     @Override
     public Collection<GrouphVertex> getNeighborsOf(GrouphVertex s) {
-        return colorKeyedNeighborSets.get(s.getIndex()).getVertexList();
+        int rowStart = s.getIndex() * degree;
+        List<GrouphVertex> neighbors = new ArrayList<GrouphVertex>(degree);
+        for (int c = 0; c < degree; c++) {
+            neighbors.add(new GrouphVertex(neighborTable.get(rowStart + c)));
+        }
+        return Collections.unmodifiableList(neighbors);
     }
 }
@@ -64,4 +64,61 @@ public interface IndexedNavigableRootedNeighborGraph<S> extends NavigableRootedN
      */
     public List<S> getShell(int d);
     
+    /**
+     * Returns the number of neighbors of the vertex of index i whose path-distance
+     * from the root exceeds that of the vertex by one.  Unlike 
+     * getNeighborsInNextShell(S), this method does not allocate any collection.
+     * 
+     * @param i the index of a vertex of the graph.
+     * @return the number of neighbors of the vertex of index i in the next shell.
+     */
+    public int countNeighborsInNextShell(int i);
+    
+    /**
+     * Returns the number of neighbors of the vertex of index i whose path-distance
+     * from the root equals that of the vertex.  Unlike 
+     * getNeighborsInSameShell(S), this method does not allocate any collection.
+     * 
+     * @param i the index of a vertex of the graph.
+     * @return the number of neighbors of the vertex of index i in the same shell.
+     */
+    public int countNeighborsInSameShell(int i);
+    
+    /**
+     * Returns the number of neighbors of the vertex of index i whose path-distance
+     * from the root is less than that of the vertex by one.  Unlike 
+     * getNeighborsInPreviousShell(S), this method does not allocate any collection.
+     * 
+     * @param i the index of a vertex of the graph.
+     * @return the number of neighbors of the vertex of index i in the previous shell.
+     */
+    public int countNeighborsInPreviousShell(int i);
+    
+    /**
+     * Passes the index of each neighbor of the vertex of index i in the next
+     * shell to the given visitor, once for each neighbor.
+     * 
+     * @param i the index of a vertex of the graph.
+     * @param visitor the IndexVisitor receiving the indices of the neighbors.
+     */
+    public void forEachNeighborInNextShell(int i, IndexVisitor visitor);
+    
+    /**
+     * Passes the index of each neighbor of the vertex of index i in the same
+     * shell to the given visitor, once for each neighbor.
+     * 
+     * @param i the index of a vertex of the graph.
+     * @param visitor the IndexVisitor receiving the indices of the neighbors.
+     */
+    public void forEachNeighborInSameShell(int i, IndexVisitor visitor);
+    
+    /**
+     * Passes the index of each neighbor of the vertex of index i in the previous
+     * shell to the given visitor, once for each neighbor.
+     * 
+     * @param i the index of a vertex of the graph.
+     * @param visitor the IndexVisitor receiving the indices of the neighbors.
+     */
+    public void forEachNeighborInPreviousShell(int i, IndexVisitor visitor);
+    
 }
@@ -0,0 +1,402 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package base;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import api.IndexVisitor;
+import api.IndexedNavigableRootedNeighborGraph;
+
+/**
+ * A frozen, read-only implementation of the IndexedNavigableRootedNeighborGraph&ltS&gt
+ * interface, in which the adjacency structure is stored in <em>compressed sparse
+ * row</em> (CSR) form.
+ *
+ * <p>
+ * The neighbors of the vertex of index i are held as a contiguous run of
+ * <code>int</code> vertex positions within a single <code>targets</code> array,
+ * delimited by the entries i-1 and i of an <code>offsets</code> array, and sorted
+ * according to the indexing.  Since the radial shells are intervals under the
+ * indexing, the neighbors of a vertex in the previous, same, and next shells
+ * are consecutive sub-runs of its row, and the views returned by the navigation
+ * methods are backed directly by the row.
+ * </p>
+ *
+ * <p>
+ * The indexing follows the conventions of IndexedNeighborGraphBase&ltS&gt:
+ * the vertices are indexed by 1, 2, ..., getNumberOfVertices(), with the root
+ * vertex having index 1.  In addition to the methods of the interface, this
+ * class provides primitive <code>int</code> accessors for the neighbors and
+ * shells of a vertex given by its index, which allow for iteration over the
+ * graph without any object lookups.
+ * </p>
+ *
+ * <p>
+ * Instances of this class are typically obtained from the finishCompressed()
+ * method of a BreadthFirstNeighborGraphBuilder&ltS&gt.
+ * </p>
+ *
+ * @author pdokos
+ *
+ * @param <S> The vertex type on which the graph structure is defined.
+ */
+public class CompressedNavigableRootedNeighborGraph<S> implements IndexedNavigableRootedNeighborGraph<S> {
+
+    private final List<S> vertices;
+    private final Map<S, Integer> indexing;
+
+    /**
+     * Row delimiters: the neighbors of the vertex at position p lie in
+     * targets[offsets[p]], ..., targets[offsets[p+1]-1].
+     */
+    private final int[] offsets;
+
+    /**
+     * Concatenation of the rows of neighbor positions (0-based).
+     */
+    private final int[] targets;
+
+    /**
+     * Positions (0-based) of the first vertex of each shell, followed by the
+     * number of vertices as a sentinel.
+     */
+    private final int[] shellStarts;
+
+    /**
+     * Constructor for a CompressedNavigableRootedNeighborGraph from its CSR
+     * arrays. The arrays are not copied, and must not be modified by the caller
+     * after construction.
+     *
+     * @param vertices the vertices of the graph, ordered by index (the root first).
+     * @param offsets an array of length vertices.size()+1, with offsets[0]=0,
+     * delimiting the rows of the targets array.
+     * @param targets the concatenation of the rows of 0-based neighbor positions,
+     * each row sorted in increasing order.
+     * @param shellStarts the 0-based positions of the first vertex of each shell,
+     * followed by vertices.size().
+     */
+    public CompressedNavigableRootedNeighborGraph(List<S> vertices, int[] offsets, int[] targets, int[] shellStarts) {
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.shellStarts = shellStarts;
+
+        indexing = new HashMap<S, Integer>(vertices.size() + 1, 1.0f);
+        int i = 1;
+        for (S s : vertices) {
+            indexing.put(s, i);
+            i++;
+        }
+    }
+
+    /**
+     * A read-only view of the consecutive run targets[from], ..., targets[to-1]
+     * as a List&ltS&gt.
+     */
+    private class RowView extends AbstractList<S> {
+
+        private final int from;
+        private final int to;
+
+        RowView(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public S get(int k) {
+            if (k < 0 || k >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + k + ", Size: " + (to - from));
+            }
+            return vertices.get(targets[from + k]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    private int getPosition(S s) {
+        Integer i = indexing.get(s);
+        return (i == null) ? -1 : i - 1;
+    }
+
+    private int getShellOfPosition(int p) {
+        int d = Arrays.binarySearch(shellStarts, p);
+        return (d >= 0) ? d : -d - 2;
+    }
+
+    /**
+     * Returns the first entry of the given row which is at least the given
+     * position.
+     */
+    private int lowerBound(int rowStart, int rowEnd, int p) {
+        int k = Arrays.binarySearch(targets, rowStart, rowEnd, p);
+        return (k >= 0) ? k : -k - 1;
+    }
+
+
+    //Primitive accessors:
+
+    /**
+     * Returns the number of neighbors of the vertex of index i.
+     *
+     * @param i an integer with 1 &lt= i &lt= getNumberOfVertices().
+     * @return the number of neighbors of the vertex of index i.
+     */
+    public int getNumberOfNeighbors(int i) {
+        return offsets[i] - offsets[i - 1];
+    }
+
+    /**
+     * Returns the index of the k-th neighbor of the vertex of index i, where
+     * the neighbors are ordered by index.
+     *
+     * @param i an integer with 1 &lt= i &lt= getNumberOfVertices().
+     * @param k an integer with 0 &lt= k &lt getNumberOfNeighbors(i).
+     * @return the index of the k-th neighbor of the vertex of index i.
+     */
+    public int getNeighborIndex(int i, int k) {
+        return targets[offsets[i - 1] + k] + 1;
+    }
+
+    /**
+     * Returns a newly allocated array containing the indices of the neighbors of
+     * the vertex of index i, in increasing order.
+     *
+     * @param i an integer with 1 &lt= i &lt= getNumberOfVertices().
+     * @return the indices of the neighbors of the vertex of index i.
+     */
+    public int[] getNeighborIndices(int i) {
+        int from = offsets[i - 1];
+        int[] neighbors = new int[offsets[i] - from];
+        for (int k = 0; k < neighbors.length; k++) {
+            neighbors[k] = targets[from + k] + 1;
+        }
+        return neighbors;
+    }
+
+    /**
+     * Returns the path-distance from the root of the vertex of index i.
+     *
+     * @param i any integer.
+     * @return the path-distance from the root of the vertex of index i, or -1
+     * if i is not the index of a vertex.
+     */
+    public int getShellOf(int i) {
+        if (i >= 1 && i <= vertices.size()) {
+            return getShellOfPosition(i - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first vertex of path-distance d from the root.
+     *
+     * @param d an integer with 0 &lt= d &lt= getMaxDistanceFromRoot().
+     * @return the index of the first vertex of path-distance d from the root.
+     */
+    public int getShellStartIndex(int d) {
+        return shellStarts[d] + 1;
+    }
+
+
+    //IndexedNavigableRootedNeighborGraph methods:
+
+    @Override
+    public S getRoot() {
+        return vertices.get(0);
+    }
+
+    @Override
+    public int getDistanceFromTheRoot(S s) {
+        int p = getPosition(s);
+        return (p == -1) ? -1 : getShellOfPosition(p);
+    }
+
+    @Override
+    public int getMaxDistanceFromRoot() {
+        return shellStarts.length - 2;
+    }
+
+    @Override
+    public List<S> getShell(int d) {
+        if (d >= 0 && d < shellStarts.length - 1) {
+            return Collections.unmodifiableList(vertices.subList(shellStarts[d], shellStarts[d + 1]));
+        }
+        return new ArrayList<S>();
+    }
+
+    @Override
+    public List<S> getNeighborsInNextShell(S s) {
+        int p = getPosition(s);
+        if (p != -1) {
+            int d = getShellOfPosition(p);
+            return new RowView(lowerBound(offsets[p], offsets[p + 1], shellStarts[d + 1]), offsets[p + 1]);
+        }
+        return null;
+    }
+
+    @Override
+    public List<S> getNeighborsInSameShell(S s) {
+        int p = getPosition(s);
+        if (p != -1) {
+            int d = getShellOfPosition(p);
+            return new RowView(lowerBound(offsets[p], offsets[p + 1], shellStarts[d]),
+                               lowerBound(offsets[p], offsets[p + 1], shellStarts[d + 1]));
+        }
+        return null;
+    }
+
+    @Override
+    public List<S> getNeighborsInPreviousShell(S s) {
+        int p = getPosition(s);
+        if (p != -1) {
+            int d = getShellOfPosition(p);
+            return new RowView(offsets[p], lowerBound(offsets[p], offsets[p + 1], shellStarts[d]));
+        }
+        return null;
+    }
+
+    @Override
+    public int countNeighborsInNextShell(int i) {
+        int p = i - 1;
+        int d = getShellOfPosition(p);
+        return offsets[p + 1] - lowerBound(offsets[p], offsets[p + 1], shellStarts[d + 1]);
+    }
+
+    @Override
+    public int countNeighborsInSameShell(int i) {
+        int p = i - 1;
+        int d = getShellOfPosition(p);
+        return lowerBound(offsets[p], offsets[p + 1], shellStarts[d + 1])
+                - lowerBound(offsets[p], offsets[p + 1], shellStarts[d]);
+    }
+
+    @Override
+    public int countNeighborsInPreviousShell(int i) {
+        int p = i - 1;
+        int d = getShellOfPosition(p);
+        return lowerBound(offsets[p], offsets[p + 1], shellStarts[d]) - offsets[p];
+    }
+
+    @Override
+    public void forEachNeighborInNextShell(int i, IndexVisitor visitor) {
+        int p = i - 1;
+        int d = getShellOfPosition(p);
+        visitRun(lowerBound(offsets[p], offsets[p + 1], shellStarts[d + 1]), offsets[p + 1], visitor);
+    }
+
+    @Override
+    public void forEachNeighborInSameShell(int i, IndexVisitor visitor) {
+        int p = i - 1;
+        int d = getShellOfPosition(p);
+        visitRun(lowerBound(offsets[p], offsets[p + 1], shellStarts[d]),
+                 lowerBound(offsets[p], offsets[p + 1], shellStarts[d + 1]), visitor);
+    }
+
+    @Override
+    public void forEachNeighborInPreviousShell(int i, IndexVisitor visitor) {
+        int p = i - 1;
+        int d = getShellOfPosition(p);
+        visitRun(offsets[p], lowerBound(offsets[p], offsets[p + 1], shellStarts[d]), visitor);
+    }
+
+    private void visitRun(int from, int to, IndexVisitor visitor) {
+        for (int k = from; k < to; k++) {
+            visitor.visit(targets[k] + 1);
+        }
+    }
+
+    @Override
+    public boolean containsVertex(S s) {
+        return indexing.containsKey(s);
+    }
+
+    @Override
+    public boolean hasEdgeJoining(S src, S tgt) {
+        int p = getPosition(src);
+        int q = getPosition(tgt);
+        if (p != -1 && q != -1) {
+            return Arrays.binarySearch(targets, offsets[p], offsets[p + 1], q) >= 0;
+        }
+        return false;
+    }
+
+    @Override
+    public int getNumberOfVertices() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns the total length of the neighbor rows, in accordance with
+     * NeighborGraphBase&ltS, T&gt.
+     *
+     * @return the sum over all vertices of the number of neighbors.
+     */
+    @Override
+    public int getNumberOfEdges() {
+        return targets.length;
+    }
+
+    @Override
+    public Set<S> getVertices() {
+        return Collections.unmodifiableSet(indexing.keySet());
+    }
+
+    @Override
+    public List<S> getNeighborsOf(S s) {
+        int p = getPosition(s);
+        if (p != -1) {
+            return new RowView(offsets[p], offsets[p + 1]);
+        }
+        return null;
+    }
+
+    @Override
+    public S getElement(int i) {
+        return vertices.get(i - 1);
+    }
+
+    @Override
+    public int getIndexOf(S s) {
+        return indexing.get(s);
+    }
+
+    /**
+     * Returns an unmodifiable view of the vertices with indices in the interval
+     * [minIncl, maxIncl], in accordance with IndexedNeighborGraphBase&ltS&gt.
+     *
+     * @param minIncl any integer &gt= 1
+     * @param maxIncl any integer &lt= getNumberOfVertices()
+     * @return an unmodifiable view of the vertices with indices in the interval
+     * [minIncl, maxIncl].
+     */
+    @Override
+    public List<S> getElements(int minIncl, int maxIncl) {
+        return Collections.unmodifiableList(vertices.subList(minIncl - 1, maxIncl));
+    }
+
+}
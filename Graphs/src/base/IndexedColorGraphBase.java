@@ -17,8 +17,11 @@
  */
 package base;
 
+import api.IndexVisitor;
 import api.IndexedColorGraph;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,42 +31,41 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- *
+ * The neighbors of the vertices are kept in a packed color table: for the vertex
+ * of index i and the color indexed by k under colorIndices, the index of the
+ * neighbor joined to it by an edge of that color is stored at position
+ * i*degree + k of colorTable (or -1 if there is no such edge yet).  
+ * 
  * @author pdokos
  */
 public class IndexedColorGraphBase<S, C> implements IndexedColorGraph<S, C> {
 
     protected S root;
     //protected Map<S, ColorCorrespondence<S, C>> colorKeyedNeighborSets;
-    protected Map<S, Map<S, C>> colorKeyedNeighborSets;
+    protected int[] colorTable;
+    protected int degree;
     protected IndexedSet<S> indexedVertSet;
-    protected List<Integer> shellStartIndices;
+    protected ShellIndex shellIndex;
     protected Map<C, C> colorInvolution;
     protected ColorCorrespondence<Integer, C> colorIndices;
+    private RepeatedNeighbors repeatedNeighbors; //computed on first use by the shell-neighbor methods
     //private ICGNavigator<S, C> navigator;
 
     public IndexedColorGraphBase(S root, int numverts, Map<C, C> colorInvolution) {
         this.root = root;
-        colorKeyedNeighborSets = new HashMap<S, Map<S, C>>(numverts+1, 1.0f);//HashMap<S, Map<S, C>>(numverts + 1, 1.0f); //check loadfactor stuff...
         indexedVertSet = new IndexedSet<S>(numverts);
-        shellStartIndices = new ArrayList<Integer>();
-        shellStartIndices.add(0);
+        shellIndex = new ShellIndex(0);
         this.colorInvolution = colorInvolution;
+        degree = colorInvolution.size();
+        colorTable = new int[Math.max(numverts, 1) * degree];
+        Arrays.fill(colorTable, -1);
         colorIndices = new ColorCorrespondence<Integer, C>(colorInvolution.size());
         initColorIndices();
         //navigator = new ICGNavigator<S, C>(this);
     }
 
     public IndexedColorGraphBase(S root, Map<C, C> colorInvolution) {
-        this.root = root;
-        colorKeyedNeighborSets = new HashMap<S, Map<S, C>>();
-        indexedVertSet = new IndexedSet<S>();
-        shellStartIndices = new ArrayList<Integer>();
-        shellStartIndices.add(0);
-        this.colorInvolution = colorInvolution;
-        colorIndices = new ColorCorrespondence<Integer, C>(colorInvolution.size());
-        initColorIndices();
-        //navigator = new ICGNavigator<S, C>(this);
+        this(root, 16, colorInvolution);
     }
 
     private void initColorIndices() {
@@ -73,24 +75,124 @@ public class IndexedColorGraphBase<S, C> implements IndexedColorGraph<S, C> {
             i++;
         }
     }
+    
+    /**
+     * Grows the color table, if necessary, so as to hold the rows of 
+     * numVerts vertices.
+     * 
+     * @param numVerts the number of vertices the table must accommodate.
+     */
+    protected void ensureTableCapacity(int numVerts) {
+        int required = numVerts * degree;
+        if (required > colorTable.length) {
+            int oldLength = colorTable.length;
+            colorTable = Arrays.copyOf(colorTable, Math.max(required, 2 * oldLength));
+            Arrays.fill(colorTable, oldLength, colorTable.length, -1);
+        }
+        repeatedNeighbors = null;
+    }
+    
+    /**
+     * Trims the color table to the rows of the current vertices. 
+     */
+    protected void trimTable() {
+        int required = indexedVertSet.size() * degree;
+        if (required < colorTable.length) {
+            colorTable = Arrays.copyOf(colorTable, required);
+        }
+        repeatedNeighbors = null;
+    }
+    
+    /**
+     * Records, in the color table, the neighbor of index tgt of the vertex of 
+     * index src along an edge of color c.
+     * 
+     * @param src the index of the source vertex
+     * @param c the color of the edge
+     * @param tgt the index of the target vertex
+     */
+    protected void setNeighbor(int src, C c, int tgt) {
+        colorTable[src * degree + colorIndices.getTarget(c)] = tgt;
+        repeatedNeighbors = null;
+    }
+    
+    /**
+     * Returns the index of the color c in the color table.
+     * 
+     * @param c any color of the graph.
+     * @return the index k, with 0 &lt= k &lt degree, of c in the color table, 
+     * or -1 if c is not a color of the graph.
+     */
+    public int getColorIndex(C c) {
+        Integer k = colorIndices.getTarget(c);
+        return (k == null) ? -1 : k;
+    }
+    
+    /**
+     * Returns the color of the given index in the color table.
+     * 
+     * @param k an integer with 0 &lt= k &lt degree.
+     * @return the color of index k. 
+     */
+    public C getColor(int k) {
+        return colorIndices.getColor(k);
+    }
+    
+    /**
+     * Returns the index of the neighbor of the vertex of index i along the edge 
+     * whose color has index k, by a single lookup in the color table.
+     * 
+     * @param i the index of a vertex of the graph
+     * @param k the index of a color, with 0 &lt= k &lt degree.
+     * @return the index of the neighbor, or -1 if there is no such edge.
+     */
+    public int getNeighborIndex(int i, int k) {
+        return colorTable[i * degree + k];
+    }
+    
+    /**
+     * Returns the index of the color of the edge joining the vertices of 
+     * indices src and tgt, by a scan of the row of src in the color table.
+     * 
+     * @param src the index of a vertex of the graph
+     * @param tgt the index of a vertex of the graph
+     * @return the index of the color of the edge joining src and tgt, or -1
+     * if they are not adjacent.
+     */
+    public int getEdgeColorIndex(int src, int tgt) {
+        int rowStart = src * degree;
+        for (int k = 0; k < degree; k++) {
+            if (colorTable[rowStart + k] == tgt) {
+                return k;
+            }
+        }
+        return -1;
+    }
 
     @Override
     public S getNeighbor(S vertex, C color) {
-        //return colorKeyedNeighborSets.get(vertex).getTarget(color);
-        Map<S, C> neighs = colorKeyedNeighborSets.get(vertex);
-        for (S s : neighs.keySet()) {
-            if (neighs.get(s).equals(color)) {
-                return s;
+        int i = getIndexOf(vertex);
+        Integer k = colorIndices.getTarget(color);
+        if (i != -1 && k != null) {
+            int t = colorTable[i * degree + k];
+            if (t != -1) {
+                return indexedVertSet.get(t);
             }
         }
         return null;
-        //return colorKeyedNeighborSets.get(vertex).get(colorIndices.getTarget(color));//.getTarget(color);
     }
 
     @Override
     public C getEdgeColor(S src, S tgt) {
-        //return colorKeyedNeighborSets.get(src).getColor(tgt);
-        return colorKeyedNeighborSets.get(src).get(tgt);//colorIndices.getColor();
+        int i = getIndexOf(src);
+        int j = getIndexOf(tgt);
+        if (i != -1 && j != -1) {
+            int k = getEdgeColorIndex(i, j);
+            if (k != -1) {
+                return colorIndices.getColor(k);
+            }
+        }
+        return null;
     }
 
     @Override
@@ -108,8 +210,8 @@ public class IndexedColorGraphBase<S, C> implements IndexedColorGraph<S, C> {
         int dist = getDistanceFromTheRoot(s);
         Set<S> neighs = new HashSet<S>();
         if (dist < getMaxDistanceFromRoot() && dist != -1) {
-            int ind = shellStartIndices.get(dist + 1);
-            for (S t : colorKeyedNeighborSets.get(s).keySet()) {//.getUncoloredElts()) {
+            int ind = shellIndex.getShellStart(dist + 1);
+            for (S t : getNeighborsOf(s)) {
                 if (this.getIndexOf(t) >= ind) {
                     neighs.add(t);
                 }
@@ -124,16 +226,16 @@ public class IndexedColorGraphBase<S, C> implements IndexedColorGraph<S, C> {
         Set<S> neighs = new HashSet<S>();
         if (dist != -1) {
             if (dist < getMaxDistanceFromRoot()) {
-                int startInd = shellStartIndices.get(dist);
-                int endInd = shellStartIndices.get(dist + 1);
-                for (S t : colorKeyedNeighborSets.get(s).keySet()) {//.getUncoloredElts()) {
+                int startInd = shellIndex.getShellStart(dist);
+                int endInd = shellIndex.getShellStart(dist + 1);
+                for (S t : getNeighborsOf(s)) {
                     if (getIndexOf(t) >= startInd && getIndexOf(t) < endInd) {
                         neighs.add(t);
                     }
                 }
             } else {
-                int startInd = shellStartIndices.get(dist);
-                for (S t : colorKeyedNeighborSets.get(s).keySet()) {//.getUncoloredElts()) {
+                int startInd = shellIndex.getShellStart(dist);
+                for (S t : getNeighborsOf(s)) {
                     if (getIndexOf(t) >= startInd) {
                         neighs.add(t);
                     }
@@ -145,10 +247,10 @@ public class IndexedColorGraphBase<S, C> implements IndexedColorGraph<S, C> {
 
     @Override
     public Collection<S> getNeighborsInPreviousShell(S s) {
-        int d = shellStartIndices.get(getDistanceFromTheRoot(s));
+        int d = shellIndex.getShellStart(getDistanceFromTheRoot(s));
         Set<S> neighs = new HashSet<S>();
         if (d != -1) {
-            for (S t : colorKeyedNeighborSets.get(s).keySet()) {//.getUncoloredElts()) {
+            for (S t : getNeighborsOf(s)) {
                 if (this.getIndexOf(t) < d) {
                     neighs.add(t);
                 }
@@ -157,66 +259,150 @@ public class IndexedColorGraphBase<S, C> implements IndexedColorGraph<S, C> {
         return neighs;
     }
 
+    /*
+     * The index of the first vertex beyond the shell of index d.
+     */
+    private int getShellEndIndex(int d) {
+        if (d < getMaxDistanceFromRoot()) {
+            return shellIndex.getShellStart(d + 1);
+        }
+        return indexedVertSet.size();
+    }
+
+    /*
+     * The entries of the color table which repeat an earlier entry of their 
+     * row, which are skipped so that each neighbor is counted once, as in the 
+     * sets returned by getNeighborsIn...Shell(S).  They are found on first use, 
+     * and again after any change to the table.
+     */
+    private RepeatedNeighbors getRepeatedNeighbors() {
+        RepeatedNeighbors repeated = repeatedNeighbors;
+        if (repeated == null) {
+            repeated = RepeatedNeighbors.of(colorTable, indexedVertSet.size(), degree);
+            repeatedNeighbors = repeated;
+        }
+        return repeated;
+    }
+
+    private int countNeighborsInRange(int i, int minIncl, int maxExcl) {
+        RepeatedNeighbors repeated = getRepeatedNeighbors();
+        int rowStart = i * degree;
+        int count = 0;
+        for (int k = 0; k < degree; k++) {
+            int t = colorTable[rowStart + k];
+            if (t >= minIncl && t < maxExcl && !repeated.isRepeated(rowStart + k)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void visitNeighborsInRange(int i, int minIncl, int maxExcl, IndexVisitor visitor) {
+        RepeatedNeighbors repeated = getRepeatedNeighbors();
+        int rowStart = i * degree;
+        for (int k = 0; k < degree; k++) {
+            int t = colorTable[rowStart + k];
+            if (t >= minIncl && t < maxExcl && !repeated.isRepeated(rowStart + k)) {
+                visitor.visit(t);
+            }
+        }
+    }
+
+    @Override
+    public int countNeighborsInNextShell(int i) {
+        int d = shellIndex.getShellOf(i);
+        return countNeighborsInRange(i, getShellEndIndex(d), indexedVertSet.size());
+    }
+
+    @Override
+    public int countNeighborsInSameShell(int i) {
+        int d = shellIndex.getShellOf(i);
+        return countNeighborsInRange(i, shellIndex.getShellStart(d), getShellEndIndex(d));
+    }
+
+    @Override
+    public int countNeighborsInPreviousShell(int i) {
+        return countNeighborsInRange(i, 0, shellIndex.getShellStart(shellIndex.getShellOf(i)));
+    }
+
+    @Override
+    public void forEachNeighborInNextShell(int i, IndexVisitor visitor) {
+        int d = shellIndex.getShellOf(i);
+        visitNeighborsInRange(i, getShellEndIndex(d), indexedVertSet.size(), visitor);
+    }
+
+    @Override
+    public void forEachNeighborInSameShell(int i, IndexVisitor visitor) {
+        int d = shellIndex.getShellOf(i);
+        visitNeighborsInRange(i, shellIndex.getShellStart(d), getShellEndIndex(d), visitor);
+    }
+
+    @Override
+    public void forEachNeighborInPreviousShell(int i, IndexVisitor visitor) {
+        visitNeighborsInRange(i, 0, shellIndex.getShellStart(shellIndex.getShellOf(i)), visitor);
+    }
+
     @Override
     public boolean containsVertex(S s) {
-        return colorKeyedNeighborSets.containsKey(s);
+        return indexedVertSet.getIndex(s) != -1;
     }
 
     @Override
     public boolean hasEdgeJoining(S src, S tgt) {
-        return colorKeyedNeighborSets.get(src).containsKey(tgt);//.contains(tgt);//.getUncoloredElts()
+        int i = getIndexOf(src);
+        int j = getIndexOf(tgt);
+        return i != -1 && j != -1 && getEdgeColorIndex(i, j) != -1;
     }
 
     @Override
     public int getNumberOfVertices() {
-        return colorKeyedNeighborSets.size();
+        return indexedVertSet.size();
     }
 
     @Override
     public int getNumberOfEdges() {
-        return colorKeyedNeighborSets.size() * colorInvolution.size();
+        return indexedVertSet.size() * degree;
         //throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
     }
 
     @Override
     public Set<S> getVertices() {
-        return Collections.unmodifiableSet(colorKeyedNeighborSets.keySet());
+        return Collections.unmodifiableSet(indexedVertSet.indexing.keySet());
     }
 
+    /**
+     * Returns an unmodifiable view of the neighbors of s, ordered by the 
+     * indexing of the colors of the joining edges.
+     * 
+     * @param s any vertex of the graph.
+     * @return an unmodifiable view of the neighbors of s.
+     */
     @Override
     public Collection<S> getNeighborsOf(S s) {
-        return colorKeyedNeighborSets.get(s).keySet();//.getUncoloredElts();
+        return new ColorRowView(getIndexOf(s));
     }
 
     @Override
     public int getDistanceFromTheRoot(S s) {
         if (this.containsVertex(s)) {
-            int index = getIndexOf(s);
-            int d = 1;
-            while (d < shellStartIndices.size()) {
-                if (shellStartIndices.get(d) > index) {
-                    return d - 1;
-                }
-                d++;
-            }
-            return d - 1;
+            return shellIndex.getShellOf(getIndexOf(s));
         }
         return -1;
     }
 
     @Override
     public int getMaxDistanceFromRoot() {
-        return shellStartIndices.size() - 1;
+        return shellIndex.getNumberOfShells() - 1;
     }
 
     @Override
     public List<S> getShell(int d) {
         if (d >= 0) {
-            if (d < shellStartIndices.size() - 1) {
-                return getElements(shellStartIndices.get(d), shellStartIndices.get(d + 1));
+            if (d < shellIndex.getNumberOfShells() - 1) {
+                return getElements(shellIndex.getShellStart(d), shellIndex.getShellStart(d + 1));
             }
-            if (d == shellStartIndices.size() - 1) {
-                return getElements(shellStartIndices.get(d), indexedVertSet.size());
+            if (d == shellIndex.getNumberOfShells() - 1) {
+                return getElements(shellIndex.getShellStart(d), indexedVertSet.size());
             }
         }
         return new ArrayList<S>();
@@ -244,7 +430,46 @@ public class IndexedColorGraphBase<S, C> implements IndexedColorGraph<S, C> {
 
     @Override
     public int getShellStartIndex(int d) {
-        return shellStartIndices.get(d);
+        return shellIndex.getShellStart(d);
+    }
+
+    /**
+     * A read-only view of the neighbors recorded in a row of the color table.
+     * Empty entries of the row (which only occur during construction) are skipped.
+     */
+    private class ColorRowView extends AbstractList<S> {
+
+        private final int rowStart;
+
+        ColorRowView(int i) {
+            rowStart = i * degree;
+        }
+
+        @Override
+        public S get(int n) {
+            int count = 0;
+            for (int k = 0; k < degree; k++) {
+                int t = colorTable[rowStart + k];
+                if (t != -1) {
+                    if (count == n) {
+                        return indexedVertSet.get(t);
+                    }
+                    count++;
+                }
+            }
+            throw new IndexOutOfBoundsException("Index: " + n + ", Size: " + count);
+        }
+
+        @Override
+        public int size() {
+            int count = 0;
+            for (int k = 0; k < degree; k++) {
+                if (colorTable[rowStart + k] != -1) {
+                    count++;
+                }
+            }
+            return count;
+        }
     }
 
     protected class IndexedSet<S> extends ArrayList<S> {
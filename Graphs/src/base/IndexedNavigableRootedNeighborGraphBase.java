@@ -20,6 +20,7 @@ package base;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import api.IndexVisitor;
 import api.IndexedNavigableRootedNeighborGraph;
 
 /**
@@ -38,12 +39,12 @@ import api.IndexedNavigableRootedNeighborGraph;
  * and sorts the neighbor lists according to the indexing of the vertices. 
  * </p>
  * 
- * This class has two protected fields, shellSizes and shellStartVertices, which
+ * This class has two protected fields, shellIndex and shellStartVertices, which
  * are used to implement the NavigableRootedNeighborGraph&ltS&gt interface.
  * Builder subclasses need to be implemented so as to:</br> 
  * (i) index the vertices of the graph in insertion order by appropriately modifying 
  * the indexing field, and </br>
- * (ii) modify shellSizes and shellStartVertices appropriately as the graph is being modified.
+ * (ii) modify shellIndex and shellStartVertices appropriately as the graph is being modified.
  * 
  * @author pdokos
  * 
@@ -55,9 +56,9 @@ public class IndexedNavigableRootedNeighborGraphBase<S> extends IndexedNeighborG
     private S root;
     
     /**
-     * List of sizes of consecutive radial shells.
+     * The indices of the first vertex of each of the consecutive radial shells.
      */
-    protected List<Integer> shellSizes;
+    protected ShellIndex shellIndex;
     
     /**
      * A List, over consecutive radial shells, of the first vertex in each shell (according to the indexing).
@@ -68,15 +69,14 @@ public class IndexedNavigableRootedNeighborGraphBase<S> extends IndexedNeighborG
     /**
      * Constructor for an IndexedNavigableRootedNeighborGraphBase. This constructor initializes the 
      * neighborsMap to a new HashMap&ltS, T&gt, initializes the Indexing&ltS&gt and
-     * IndexComparator&ltS&gt, and also initializes the shellSizes and shellStartVertices Lists.
+     * IndexComparator&ltS&gt, and also initializes the shellIndex and the shellStartVertices List.
      * 
      * @param root the designated root vertex of the graph.
      */
     public IndexedNavigableRootedNeighborGraphBase(S root) {
         super();
         this.root = root;
-        shellSizes = new ArrayList<Integer>();
-        shellSizes.add(1);
+        shellIndex = new ShellIndex(1);
         shellStartVertices = new ArrayList<S>();
         shellStartVertices.add(root);
     }
@@ -85,8 +85,8 @@ public class IndexedNavigableRootedNeighborGraphBase<S> extends IndexedNeighborG
      * Constructor for an IndexedNavigableRootedNeighborGraphBase which is of uniform vertex degree 
      * (i.e.&#160a <em>regular</em> graph). This constructor initializes the 
      * neighborsMap to a new HashMap&ltS, T&gt, initializes the Indexing&ltS&gt 
-     * and IndexComparator&ltS&gt, and also initializes the shellSizes and 
-     * shellStartVertices Lists.
+     * and IndexComparator&ltS&gt, and also initializes the shellIndex and 
+     * the shellStartVertices List.
      * 
      * @param root the designated root vertex.
      * @param degree the designated valency of each vertex.
@@ -94,8 +94,7 @@ public class IndexedNavigableRootedNeighborGraphBase<S> extends IndexedNeighborG
     public IndexedNavigableRootedNeighborGraphBase(S root, int degree){
         super(degree);
         this.root = root;
-        shellSizes = new ArrayList<Integer>();
-        shellSizes.add(1);
+        shellIndex = new ShellIndex(1);
         shellStartVertices = new ArrayList<S>();
         shellStartVertices.add(root);
     }
@@ -115,8 +114,7 @@ public class IndexedNavigableRootedNeighborGraphBase<S> extends IndexedNeighborG
     public IndexedNavigableRootedNeighborGraphBase(S root, int numVerts, int degree){
         super(numVerts, degree);
         this.root = root;
-        shellSizes = new ArrayList<Integer>();
-        shellSizes.add(1);
+        shellIndex = new ShellIndex(1);
         shellStartVertices = new ArrayList<S>();
         shellStartVertices.add(root);
     }
@@ -130,27 +128,15 @@ public class IndexedNavigableRootedNeighborGraphBase<S> extends IndexedNeighborG
     public int getDistanceFromTheRoot(S s) {
         
         if (neighborsMap.containsKey(s)) {
-            int index = indexing.getIndexOf(s);
-            int d=0;
-            int i=0;
-            for (int delta : shellSizes) {
-                i += delta;
-                if (i >= index)
-                    return d;
-                else d++;
-            }
+            return shellIndex.getShellOf(indexing.getIndexOf(s));
         }
         return -1;
     }
     
 
     private int getShellStartIndex(int d) {
-        if (d>=0 && d<shellSizes.size()) {
-            int index=1;
-            for (int i=0; i<d; i++) {
-                index += shellSizes.get(i);
-            }
-            return index;
+        if (d>=0 && d<shellIndex.getNumberOfShells()) {
+            return shellIndex.getShellStart(d);
         }
         return -1;
     }
@@ -247,11 +233,11 @@ public class IndexedNavigableRootedNeighborGraphBase<S> extends IndexedNeighborG
     @Override
     public List<S> getShell(int d) {
         
-        if (d>=0 && d<shellSizes.size()) {
+        if (d>=0 && d<shellIndex.getNumberOfShells()) {
             int shellStartIndex = getShellStartIndex(d);
             int shellEndIndex;
             
-            if (d<shellSizes.size() - 1) 
+            if (d<shellIndex.getNumberOfShells() - 1) 
                 shellEndIndex = getShellStartIndex(d+1)-1;
             else
                 shellEndIndex = this.getNumberOfVertices();
@@ -264,7 +250,94 @@ public class IndexedNavigableRootedNeighborGraphBase<S> extends IndexedNeighborG
 
     @Override
     public int getMaxDistanceFromRoot() {
-        return shellSizes.size()-1;
+        return shellIndex.getNumberOfShells()-1;
+    }
+
+    
+    //Allocation-free shell neighbor methods:
+    
+    private List<S> getSortedNeighbors(int i) {
+        List <S> neighbors = neighborsMap.get(indexing.getElement(i));
+        if (!isFinished()) {
+            Collections.sort(neighbors, indexComparator);
+        }
+        return neighbors;
+    }
+    
+    /*
+     * The index of the first vertex beyond the shell of index d (i.e.&#160one
+     * more than the number of vertices, if d is the last shell).
+     */
+    private int getShellEndIndex(int d) {
+        if (d < this.getMaxDistanceFromRoot()) {
+            return shellIndex.getShellStart(d+1);
+        }
+        return this.getNumberOfVertices()+1;
+    }
+    
+    /*
+     * The position, within the index-sorted neighbor list, of the first 
+     * neighbor whose index is at least the given index.
+     */
+    private int lowerBound(List<S> neighbors, int index) {
+        int lo = 0;
+        int hi = neighbors.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (indexing.getIndexOf(neighbors.get(mid)) < index) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    private void visitRange(List<S> neighbors, int from, int to, IndexVisitor visitor) {
+        for (int k = from; k < to; k++) {
+            visitor.visit(indexing.getIndexOf(neighbors.get(k)));
+        }
+    }
+
+    @Override
+    public int countNeighborsInNextShell(int i) {
+        List<S> neighbors = getSortedNeighbors(i);
+        int d = shellIndex.getShellOf(i);
+        return neighbors.size() - lowerBound(neighbors, getShellEndIndex(d));
+    }
+
+    @Override
+    public int countNeighborsInSameShell(int i) {
+        List<S> neighbors = getSortedNeighbors(i);
+        int d = shellIndex.getShellOf(i);
+        return lowerBound(neighbors, getShellEndIndex(d)) - lowerBound(neighbors, shellIndex.getShellStart(d));
+    }
+
+    @Override
+    public int countNeighborsInPreviousShell(int i) {
+        List<S> neighbors = getSortedNeighbors(i);
+        return lowerBound(neighbors, shellIndex.getShellStart(shellIndex.getShellOf(i)));
+    }
+
+    @Override
+    public void forEachNeighborInNextShell(int i, IndexVisitor visitor) {
+        List<S> neighbors = getSortedNeighbors(i);
+        int d = shellIndex.getShellOf(i);
+        visitRange(neighbors, lowerBound(neighbors, getShellEndIndex(d)), neighbors.size(), visitor);
+    }
+
+    @Override
+    public void forEachNeighborInSameShell(int i, IndexVisitor visitor) {
+        List<S> neighbors = getSortedNeighbors(i);
+        int d = shellIndex.getShellOf(i);
+        visitRange(neighbors, lowerBound(neighbors, shellIndex.getShellStart(d)), 
+                              lowerBound(neighbors, getShellEndIndex(d)), visitor);
+    }
+
+    @Override
+    public void forEachNeighborInPreviousShell(int i, IndexVisitor visitor) {
+        List<S> neighbors = getSortedNeighbors(i);
+        visitRange(neighbors, 0, lowerBound(neighbors, shellIndex.getShellStart(shellIndex.getShellOf(i))), visitor);
     }
 
     
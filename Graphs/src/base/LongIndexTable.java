@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package base;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * An open-addressing hash table mapping primitive <code>long</code> keys to
+ * non-negative <code>int</code> indices, intended for indexing the vertex set of a
+ * graph whose vertices are encoded as <code>long</code> values (for instance
+ * the elements of a group under a GroupCodec).
+ *
+ * <p>
+ * The keys and values are held in two parallel tables, whose capacity is always a
+ * power of 2, and collisions are resolved by linear probing.  A slot is empty
+ * when its value is -1, so every <code>long</code> is a valid key.  The tables are
+ * doubled whenever the table becomes half full.  No boxing takes place, and a
+ * lookup typically touches a single cache line of each table.
+ * </p>
+ *
+ * <p>
+ * The tables are either <code>long[]</code> and <code>int[]</code> arrays on the
+ * heap, or direct buffers allocated outside of the heap, as specified upon
+ * construction.  The latter option keeps very large indices out of the reach of
+ * the garbage collector.  Since the keys of an off-heap table are held in a
+ * single direct buffer, whose size in bytes is an <code>int</code>, its capacity
+ * is limited to 2^27 slots (and 2^26 entries), half that of a table on the heap.
+ * Entries cannot be removed individually; the clear() method empties the table.
+ * </p>
+ *
+ * @author pdokos
+ */
+public class LongIndexTable {
+
+    private static final int MAX_CAPACITY = 1 << 28;
+    private static final int MAX_OFF_HEAP_CAPACITY = 1 << 27; //8 bytes per key
+
+    private final boolean offHeap;
+    private LongBuffer keys;
+    private IntBuffer values;
+    private int capacity;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    /**
+     * Constructor for an empty LongIndexTable held on the heap.
+     */
+    public LongIndexTable() {
+        this(16, false);
+    }
+
+    /**
+     * Constructor for an empty LongIndexTable held on the heap, with enough
+     * capacity for expectedSize entries.
+     *
+     * @param expectedSize the expected number of entries.
+     */
+    public LongIndexTable(int expectedSize) {
+        this(expectedSize, false);
+    }
+
+    /**
+     * Constructor for an empty LongIndexTable with enough capacity for
+     * expectedSize entries, held either on the heap or in direct buffers.
+     *
+     * @param expectedSize the expected number of entries.
+     * @param offHeap true if the tables are to be allocated as direct buffers
+     * outside of the heap.
+     */
+    public LongIndexTable(int expectedSize, boolean offHeap) {
+        this.offHeap = offHeap;
+        int maxCapacity = getMaxCapacity();
+        int cap = 16;
+        while (cap < maxCapacity && cap < 2L * expectedSize) {
+            cap <<= 1;
+        }
+        allocate(cap);
+    }
+
+    private int getMaxCapacity() {
+        return offHeap ? MAX_OFF_HEAP_CAPACITY : MAX_CAPACITY;
+    }
+
+    /**
+     * Returns the largest number of entries a LongIndexTable can hold, either 
+     * on the heap or off the heap.
+     *
+     * @param offHeap true for a table held in direct buffers outside of the heap.
+     * @return the largest number of entries of such a table: 2^27 on the heap, 
+     * and 2^26 off the heap.
+     */
+    public static int getMaxSize(boolean offHeap) {
+        return (offHeap ? MAX_OFF_HEAP_CAPACITY : MAX_CAPACITY) / 2;
+    }
+
+    private void allocate(int cap) {
+        capacity = cap;
+        mask = cap - 1;
+        threshold = cap / 2;
+        if (offHeap) {
+            keys = ByteBuffer.allocateDirect(cap * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
+            values = ByteBuffer.allocateDirect(cap * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        } else {
+            keys = LongBuffer.wrap(new long[cap]);
+            values = IntBuffer.wrap(new int[cap]);
+        }
+        for (int i = 0; i < cap; i++) {
+            values.put(i, -1);
+        }
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private int findSlot(long key) {
+        int slot = hash(key) & mask;
+        while (values.get(slot) != -1 && keys.get(slot) != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the index associated with the given key.
+     *
+     * @param key any <code>long</code>.
+     * @return the index associated with key, or -1 if key is not in the table.
+     */
+    public int get(long key) {
+        return values.get(findSlot(key));
+    }
+
+    /**
+     * Returns true if the given key is in the table.
+     *
+     * @param key any <code>long</code>.
+     * @return true if key is in the table.
+     */
+    public boolean containsKey(long key) {
+        return get(key) != -1;
+    }
+
+    /**
+     * Associates the given index with the given key, unless the key is already
+     * in the table, in which case the table is left unchanged.
+     *
+     * @param key any <code>long</code>.
+     * @param index any non-negative <code>int</code>.
+     * @return the index already associated with key, or -1 if key was not in the
+     * table (and has now been added).
+     */
+    public int putIfAbsent(long key, int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Negative index: " + index);
+        }
+        int slot = findSlot(key);
+        int existing = values.get(slot);
+        if (existing != -1) {
+            return existing;
+        }
+        keys.put(slot, key);
+        values.put(slot, index);
+        size++;
+        if (size > threshold) {
+            grow();
+        }
+        return -1;
+    }
+
+    private void grow() {
+        if (capacity >= getMaxCapacity()) {
+            throw new IllegalStateException("LongIndexTable capacity exceeded: at most "
+                    + getMaxCapacity() / 2 + " entries" + (offHeap ? " off the heap." : "."));
+        }
+        LongBuffer oldKeys = keys;
+        IntBuffer oldValues = values;
+        int oldCapacity = capacity;
+        allocate(2 * oldCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            int value = oldValues.get(i);
+            if (value != -1) {
+                long key = oldKeys.get(i);
+                int slot = findSlot(key);
+                keys.put(slot, key);
+                values.put(slot, value);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys in the table.
+     *
+     * @return the number of keys in the table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots of the table.  The table holds up to half 
+     * this many keys before it is resized.
+     *
+     * @return the number of slots of the table.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes all of the keys from the table, retaining its capacity.
+     */
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            values.put(i, -1);
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns true if the tables are held in direct buffers outside of the heap.
+     *
+     * @return true if the tables are held in direct buffers outside of the heap.
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+}
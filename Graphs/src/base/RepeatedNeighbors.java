@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package base;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * The positions of a neighbor table (a table of degree entries per vertex, the 
+ * row of the vertex of index i occupying positions i*degree, ..., 
+ * i*degree + degree - 1) whose entry already occurs at an earlier position of 
+ * the same row, as happens in a color graph when two edges of different colors
+ * join the same pair of vertices.
+ *
+ * <p>
+ * The positions are found once and for all, by sorting a copy of each row, and
+ * are recorded in a bit set, so that the methods which list each neighbor of a 
+ * vertex once need only test a single bit per entry of its row.  If no row has
+ * repeated entries (as in a Cayley graph, where the products of a vertex by 
+ * distinct generators are distinct), no bit set is allocated at all.  Instances
+ * are immutable, and may therefore be shared by several threads.
+ * </p>
+ *
+ * @author pdokos
+ */
+public final class RepeatedNeighbors {
+
+    private final long[] bits; //null if no row has repeated entries
+
+    private RepeatedNeighbors(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Finds the repeated entries of the first numRows rows of the given table.
+     *
+     * @param table a neighbor table with at least numRows*degree entries.
+     * @param numRows the number of rows.
+     * @param degree the number of entries of each row.
+     * @return the repeated entries of the table.
+     */
+    public static RepeatedNeighbors of(IntBuffer table, int numRows, int degree) {
+        long[] bits = null;
+        long[] row = new long[degree];
+        for (int i = 0; i < numRows; i++) {
+            int rowStart = i * degree;
+            for (int k = 0; k < degree; k++) {
+                row[k] = ((long) table.get(rowStart + k) << 32) | k;
+            }
+            Arrays.sort(row);
+            for (int k = 1; k < degree; k++) {
+                if ((row[k] >> 32) == (row[k - 1] >> 32)) {
+                    if (bits == null) {
+                        bits = new long[(int) (((long) numRows * degree + 63) >>> 6)];
+                    }
+                    int position = rowStart + (int) row[k];
+                    bits[position >>> 6] |= 1L << position;
+                }
+            }
+        }
+        return new RepeatedNeighbors(bits);
+    }
+
+    /**
+     * Finds the repeated entries of the first numRows rows of the given table.
+     *
+     * @param table a neighbor table with at least numRows*degree entries.
+     * @param numRows the number of rows.
+     * @param degree the number of entries of each row.
+     * @return the repeated entries of the table.
+     */
+    public static RepeatedNeighbors of(int[] table, int numRows, int degree) {
+        return of(IntBuffer.wrap(table), numRows, degree);
+    }
+
+    /**
+     * Returns true if the entry at the given position of the table also occurs
+     * at an earlier position of the same row.
+     *
+     * @param position a position of the table.
+     * @return true if the entry at the given position is a repeated entry of its row.
+     */
+    public boolean isRepeated(int position) {
+        return bits != null && (bits[position >>> 6] & (1L << position)) != 0;
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package base;
+
+import java.util.Arrays;
+
+/**
+ * The partition of the vertex set of a rooted graph into the radial shells about
+ * its root, for graphs whose vertices are indexed so that each shell is an
+ * interval of consecutive indices (as for graphs built in a breadth-first fashion).
+ *
+ * <p>
+ * The partition is recorded as the increasing array of the indices of the first
+ * vertex of each shell, so that the shell of a vertex is found from its index by
+ * a binary search, in time logarithmic in the number of shells, and the bounds of
+ * a shell are read off in constant time.  The indices may be 0-based or 1-based,
+ * as long as they are used consistently.
+ * </p>
+ *
+ * @author pdokos
+ */
+public class ShellIndex {
+
+    private int[] shellStarts;
+    private int numShells;
+
+    /**
+     * Constructor for a ShellIndex consisting of a single shell, containing the
+     * root, whose index is rootIndex.
+     *
+     * @param rootIndex the index of the root.
+     */
+    public ShellIndex(int rootIndex) {
+        shellStarts = new int[16];
+        shellStarts[0] = rootIndex;
+        numShells = 1;
+    }
+
+    /**
+     * Constructor for a ShellIndex whose shells begin at the given indices.
+     *
+     * @param shellStarts a strictly increasing array of indices, the d-th of which
+     * is the index of the first vertex of distance d from the root.
+     */
+    public ShellIndex(int[] shellStarts) {
+        this.shellStarts = Arrays.copyOf(shellStarts, Math.max(shellStarts.length, 16));
+        numShells = shellStarts.length;
+    }
+
+    /**
+     * Adds a new outermost shell, whose first vertex has the given index.
+     *
+     * @param startIndex an index greater than the start index of every existing shell.
+     */
+    public void addShell(int startIndex) {
+        if (numShells > 0 && startIndex <= shellStarts[numShells - 1]) {
+            throw new IllegalArgumentException("Shell start index " + startIndex + " does not follow " + shellStarts[numShells - 1]);
+        }
+        if (numShells == shellStarts.length) {
+            shellStarts = Arrays.copyOf(shellStarts, 2 * numShells);
+        }
+        shellStarts[numShells] = startIndex;
+        numShells++;
+    }
+
+    /**
+     * Returns the number of shells, i.e.&#160one more than the maximum distance
+     * from the root.
+     *
+     * @return the number of shells.
+     */
+    public int getNumberOfShells() {
+        return numShells;
+    }
+
+    /**
+     * Returns the index of the first vertex of distance d from the root.
+     *
+     * @param d an integer with 0 &lt= d &lt getNumberOfShells().
+     * @return the index of the first vertex of distance d from the root.
+     */
+    public int getShellStart(int d) {
+        if (d < 0 || d >= numShells) {
+            throw new IndexOutOfBoundsException("Shell: " + d + ", Number of shells: " + numShells);
+        }
+        return shellStarts[d];
+    }
+
+    /**
+     * Returns the distance from the root of the vertex of the given index, that is
+     * the largest d whose shell starts at or before index.  It is the
+     * responsibility of the client to ensure that index is the index of a vertex
+     * of the graph.
+     *
+     * @param index the index of a vertex.
+     * @return the distance from the root of the vertex of the given index, or -1
+     * if index precedes the index of the root.
+     */
+    public int getShellOf(int index) {
+        int d = Arrays.binarySearch(shellStarts, 0, numShells, index);
+        return (d >= 0) ? d : -d - 2;
+    }
+
+    /**
+     * Returns a new array containing the start indices of the shells.
+     *
+     * @return the array of the start indices of the shells.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(shellStarts, numShells);
+    }
+
+    /**
+     * Removes all of the shells.
+     */
+    public void clear() {
+        numShells = 0;
+    }
+
+}
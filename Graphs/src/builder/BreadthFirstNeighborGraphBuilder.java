@@ -18,6 +18,8 @@
 package builder;
 
 import java.util.ArrayList;
+import java.util.List;
+import base.CompressedNavigableRootedNeighborGraph;
 import base.IndexedNavigableRootedNeighborGraphBase;
 import api.ModifiableNeighborGraph;
 
@@ -160,11 +162,10 @@ public class BreadthFirstNeighborGraphBuilder<S> extends IndexedNavigableRootedN
             if (tgtDist == -1) {
                 if (srcDist == diameter - 1) {
                     attachVertex(tgt);
-                    shellSizes.add(1 + shellSizes.remove(diameter));
                 } else if (srcDist == diameter) {
                     attachVertex(tgt);
                     diameter++;
-                    shellSizes.add(1);
+                    shellIndex.addShell(getIndexOf(tgt));
                     shellStartVertices.add(tgt);
                 }
             } else {
@@ -191,5 +192,57 @@ public class BreadthFirstNeighborGraphBuilder<S> extends IndexedNavigableRootedN
         //sort target sets...
         super.setFinished();
     }
+
+    /**
+     * Finishes the construction (as in the finish() method), and compacts the 
+     * graph into a CompressedNavigableRootedNeighborGraph&ltS&gt with the same 
+     * root, indexing, shells and neighbor lists.
+     * 
+     * <p>
+     * The neighbor lists and indexing of this builder are released as the 
+     * compressed rows are filled, so that the builder itself is left empty and
+     * should be discarded after this call.
+     * </p>
+     * 
+     * @return a CompressedNavigableRootedNeighborGraph&ltS&gt equivalent to the
+     * graph that was built.
+     */
+    public CompressedNavigableRootedNeighborGraph<S> finishCompressed() {
+        if (!isFinished()) {
+            finish();
+        }
+        
+        int numVerts = getNumberOfVertices();
+        List<S> vertices = new ArrayList<S>(getElements(1, numVerts));
+        
+        int numTargets = 0;
+        for (List<S> neighbors : neighborsMap.values()) {
+            numTargets += neighbors.size();
+        }
+        
+        int[] offsets = new int[numVerts + 1];
+        int[] targets = new int[numTargets];
+        int k = 0;
+        for (int i = 0; i < numVerts; i++) {
+            for (S t : neighborsMap.remove(vertices.get(i))) {
+                targets[k] = indexing.getIndexOf(t) - 1;
+                k++;
+            }
+            offsets[i + 1] = k;
+        }
+        
+        int numShells = shellIndex.getNumberOfShells();
+        int[] shellStarts = new int[numShells + 1];
+        for (int d = 0; d < numShells; d++) {
+            shellStarts[d] = shellIndex.getShellStart(d) - 1;
+        }
+        shellStarts[numShells] = numVerts;
+        
+        indexing.clear();
+        shellIndex.clear();
+        shellStartVertices.clear();
+        
+        return new CompressedNavigableRootedNeighborGraph<S>(vertices, offsets, targets, shellStarts);
+    }
     
 }
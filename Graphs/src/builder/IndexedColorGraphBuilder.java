@@ -19,7 +19,6 @@ package builder;
 
 import api.ModifiableColorGraph;
 import base.IndexedColorGraphBase;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -29,13 +28,11 @@ import java.util.Map;
 public class IndexedColorGraphBuilder<S, C> extends IndexedColorGraphBase<S, C> implements ModifiableColorGraph<S, C> {
 
     private int diameter;
-    private int degree;
     
     public IndexedColorGraphBuilder(S root, int numverts, Map<C, C> colorInvolution) {
         super(root, numverts, colorInvolution);
         
         diameter=0;
-        degree=colorInvolution.size();
         attachVertex(root);
     }
     
@@ -43,21 +40,13 @@ public class IndexedColorGraphBuilder<S, C> extends IndexedColorGraphBase<S, C>
         super(root, colorInvolution);
         
         diameter=0;
-        degree=colorInvolution.size();
         attachVertex(root);
     }
     
     private boolean attachVertex(S s) {
         if (!this.containsVertex(s)) {
-            Map<S, C> neighborList = new HashMap<S, C>(degree +1, 1.0f);
-            //for (int i=0; i<degree; i++) {
-            //    neighborList.add(null);
-            //}
-            
-                colorKeyedNeighborSets.put(s, neighborList);//new ColorCorrespondence<S, C>(degree));
-
-                indexedVertSet.add(s);
-
+            ensureTableCapacity(indexedVertSet.size() + 1);
+            indexedVertSet.add(s);
             return true;
         }
         return false;
@@ -83,7 +72,7 @@ public class IndexedColorGraphBuilder<S, C> extends IndexedColorGraphBase<S, C>
                     attachVertex(tgt);
                     diameter++;
                     //shellSizes.add(1);
-                    shellStartIndices.add(this.getIndexOf(tgt));
+                    shellIndex.addShell(this.getIndexOf(tgt));
                 }
             } else {
                 int diff = tgtDist - srcDist;
@@ -91,8 +80,10 @@ public class IndexedColorGraphBuilder<S, C> extends IndexedColorGraphBase<S, C>
                     return false;
                 }
             }
-            colorKeyedNeighborSets.get(src).put(tgt, color);//.set(color, tgt);
-            colorKeyedNeighborSets.get(tgt).put(src, getInverseColor(color));//.set(getInverseColor(color), src);
+            int srcIndex = getIndexOf(src);
+            int tgtIndex = getIndexOf(tgt);
+            setNeighbor(srcIndex, color, tgtIndex);
+            setNeighbor(tgtIndex, getInverseColor(color), srcIndex);
             
             return true;
         }
@@ -101,7 +92,7 @@ public class IndexedColorGraphBuilder<S, C> extends IndexedColorGraphBase<S, C>
 
     @Override
     public void finish() {
-        //throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+        trimTable();
     }
     
 }
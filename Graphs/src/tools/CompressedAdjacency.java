@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package tools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import api.NeighborGraph;
+
+/**
+ * A copy of the adjacency structure of a NeighborGraph in compressed sparse row
+ * form, over the indices 0, 1, ..., n-1 assigned to the vertices in the 
+ * iteration order of getVertices().  The neighbors of the vertex of index i are
+ * the entries targets[offsets[i]], ..., targets[offsets[i+1]-1].  This is the 
+ * form on which the analysis tools of this package run their numerical 
+ * iterations, without any object lookups.
+ * 
+ * @author pdokos
+ * @param <S> The vertex type on which the graph structure is defined.
+ */
+final class CompressedAdjacency<S> {
+
+    final List<S> vertices;
+    final Map<S, Integer> indexing;
+    final int[] offsets;
+    final int[] targets;
+
+    CompressedAdjacency(NeighborGraph<S> graph) {
+        vertices = new ArrayList<S>(graph.getVertices());
+        int numVerts = vertices.size();
+        indexing = new HashMap<S, Integer>(numVerts + 1, 1.0f);
+        for (int i = 0; i < numVerts; i++) {
+            indexing.put(vertices.get(i), i);
+        }
+
+        offsets = new int[numVerts + 1];
+        for (int i = 0; i < numVerts; i++) {
+            offsets[i + 1] = offsets[i] + graph.getNeighborsOf(vertices.get(i)).size();
+        }
+        targets = new int[offsets[numVerts]];
+        for (int i = 0; i < numVerts; i++) {
+            int k = offsets[i];
+            for (S t : graph.getNeighborsOf(vertices.get(i))) {
+                targets[k] = indexing.get(t);
+                k++;
+            }
+        }
+    }
+
+    int getNumberOfVertices() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns the common degree of the vertices, or -1 if the vertices are not
+     * all of the same degree.
+     */
+    int getDegree() {
+        int numVerts = vertices.size();
+        if (numVerts == 0) {
+            return -1;
+        }
+        int degree = offsets[1];
+        for (int i = 1; i < numVerts; i++) {
+            if (offsets[i + 1] - offsets[i] != degree) {
+                return -1;
+            }
+        }
+        return degree;
+    }
+
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package tools;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import api.NeighborGraph;
+
+/**
+ * A tool for determining the distance distribution of a given NeighborGraph 
+ * over <em>all</em> pairs of vertices, as opposed to the pairs based at a 
+ * single root as in the case of ShellExpansionAnalyzer.  This is intended for 
+ * graphs which are not known to be vertex-transitive, such as those built by
+ * a NeighborGraphBuilder.
+ * 
+ * <p>
+ * Before querying any data, the data must first be created by calling one of the
+ * generateData methods.  These methods determine the following:<br>
+ * &#160&#160&#160&#160(i) The number of vertices and edges of the graph, and whether or not
+ * it is connected.<br>
+ * &#160&#160&#160(ii) The eccentricity of every vertex, and thereby the diameter and 
+ * the radius of the graph.<br>
+ * &#160&#160(iii) The average distance between distinct vertices.<br>
+ * &#160&#160(iv) The girth of the graph (0 if the graph has no cycles).<br>
+ * In addition, an array d_n is created, whose n-th entry is the number of 
+ * ordered pairs of vertices of distance n from one another.  If the graph is not
+ * connected, then all of these quantities refer to the pairs of vertices lying 
+ * in a common connected component.
+ * </p>
+ * 
+ * <p>
+ * Upon generating the data, the graph is copied into a compressed sparse row 
+ * form over the indices 0, 1, ..., getNumberOfVertices()-1, and a breadth-first
+ * search is run from every vertex.  The searches are <em>bit-parallel</em>: 
+ * the sources are processed in batches of 64, and for each vertex a 
+ * <code>long</code> mask records which sources of the batch have reached it, so
+ * that a single sweep over the edges advances all 64 searches by one level.
+ * The girth is detected during the same sweeps: a search from s finds a cycle 
+ * of length 2n+1 through an edge joining two vertices of distance n from s, and
+ * a cycle of length 2n+2 at a vertex of distance n+1 from s having two neighbors
+ * of distance n from s.  The minimum over all sources of the length of the first
+ * such cycle is the girth.
+ * </p>
+ * 
+ * <p>
+ * The batches are independent, and may be distributed over several threads by 
+ * means of the methods generateData(int) and generateData(ExecutorService, int).
+ * Each thread holds three <code>long</code> arrays of length the number of 
+ * vertices.  The results do not depend on the number of threads.
+ * </p>
+ * 
+ * @author pdokos
+ * @param <S> The vertex type on which the graph structure is defined.
+ */
+public class DistanceDistributionAnalyzer<S> {
+
+    private static final int BATCH_SIZE = 64;
+
+    protected NeighborGraph<S> graph;
+
+    protected int numVerts;
+    protected int numEdges;
+    protected boolean connected;
+    protected int diameter;
+    protected int radius;
+    protected double avgDist;
+    protected int girth;
+
+    protected int[] eccentricities;
+    protected List<Long> d_n;
+
+    private Map<S, Integer> indexing;
+
+    /**
+     * Instantiates a new DistanceDistributionAnalyzer on the given NeighborGraph.
+     * The graph assigned to the analyzer through this constructor cannot be changed.
+     * 
+     * @param graph The graph assigned to this analyzer.
+     */
+    public DistanceDistributionAnalyzer(NeighborGraph<S> graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Returns the graph that this analyzer has been assigned.
+     * 
+     * @return The graph that this analyzer had been assigned.
+     */
+    public NeighborGraph<S> getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * Generates all of the numerical data pertaining to the graph on the calling
+     * thread.  See the class description for the quantities determined.
+     */
+    public void generateData() {
+        generateData(null, 1);
+    }
+
+    /**
+     * Generates all of the numerical data pertaining to the graph on a newly 
+     * created pool of numThreads threads, which is shut down upon completion.
+     * 
+     * @param numThreads the number of threads on which the searches are run.
+     */
+    public void generateData(int numThreads) {
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            generateData(executor, numThreads);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Generates all of the numerical data pertaining to the graph, with the 
+     * searches run by parallelism tasks submitted to the given executor, which 
+     * is left running.
+     * 
+     * @param executor the ExecutorService on which the searches are run, or null
+     * if they are to be run on the calling thread.
+     * @param parallelism the number of threads of the executor.
+     */
+    public void generateData(ExecutorService executor, int parallelism) {
+
+        CompressedAdjacency<S> adjacency = new CompressedAdjacency<S>(graph);
+        numVerts = adjacency.getNumberOfVertices();
+        indexing = adjacency.indexing;
+        int[] offsets = adjacency.offsets;
+        int[] targets = adjacency.targets;
+        numEdges = targets.length / 2;
+
+        eccentricities = new int[numVerts];
+        AtomicInteger nextBatch = new AtomicInteger();
+        List<BatchWorker> workers = new ArrayList<BatchWorker>();
+
+        if (executor == null) {
+            BatchWorker worker = new BatchWorker(offsets, targets, nextBatch);
+            worker.call();
+            workers.add(worker);
+        } else {
+            int numBatches = (numVerts + BATCH_SIZE - 1) / BATCH_SIZE;
+            int numTasks = Math.max(1, Math.min(numBatches, parallelism));
+            List<Future<BatchWorker>> futures = new ArrayList<Future<BatchWorker>>(numTasks);
+            for (int t = 0; t < numTasks; t++) {
+                futures.add(executor.submit(new BatchWorker(offsets, targets, nextBatch)));
+            }
+            try {
+                for (Future<BatchWorker> future : futures) {
+                    workers.add(future.get());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Distance distribution analysis was interrupted.", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Distance distribution analysis failed.", ex.getCause());
+            }
+        }
+
+        long[] counts = new long[1];
+        girth = 0;
+        for (BatchWorker worker : workers) {
+            if (worker.counts.length > counts.length) {
+                long[] grown = new long[worker.counts.length];
+                System.arraycopy(counts, 0, grown, 0, counts.length);
+                counts = grown;
+            }
+            for (int n = 0; n < worker.counts.length; n++) {
+                counts[n] += worker.counts[n];
+            }
+            if (worker.girth != 0 && (girth == 0 || worker.girth < girth)) {
+                girth = worker.girth;
+            }
+        }
+
+        //the searches reach every level up to their eccentricities, so the
+        //nonzero counts are those of the levels 0, ..., diameter
+        d_n = new ArrayList<Long>();
+        long numPairs = 0;
+        long distSum = 0;
+        for (int n = 0; n < counts.length && (n == 0 || counts[n] != 0); n++) {
+            d_n.add(counts[n]);
+            numPairs += counts[n];
+            distSum += n * counts[n];
+        }
+        connected = (numPairs == (long) numVerts * numVerts);
+        avgDist = (numPairs > numVerts) ? (double) distSum / (double) (numPairs - numVerts) : 0;
+
+        diameter = 0;
+        radius = (numVerts > 0) ? Integer.MAX_VALUE : 0;
+        for (int i = 0; i < numVerts; i++) {
+            diameter = Math.max(diameter, eccentricities[i]);
+            radius = Math.min(radius, eccentricities[i]);
+        }
+    }
+
+    /**
+     * Runs the bit-parallel searches of the batches claimed from a shared 
+     * counter, accumulating the distance counts and the shortest cycle length
+     * found, and recording the eccentricities of the sources.
+     */
+    private class BatchWorker implements Callable<BatchWorker> {
+
+        private final int[] offsets;
+        private final int[] targets;
+        private final AtomicInteger nextBatch;
+
+        private long[] seen;
+        private long[] frontier;
+        private long[] next;
+
+        long[] counts = new long[1];
+        int girth = 0;
+
+        BatchWorker(int[] offsets, int[] targets, AtomicInteger nextBatch) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.nextBatch = nextBatch;
+        }
+
+        @Override
+        public BatchWorker call() {
+            seen = new long[numVerts];
+            frontier = new long[numVerts];
+            next = new long[numVerts];
+            int batch;
+            while ((batch = nextBatch.getAndIncrement()) * BATCH_SIZE < numVerts) {
+                search(batch * BATCH_SIZE, Math.min(numVerts, (batch + 1) * BATCH_SIZE));
+            }
+            return this;
+        }
+
+        private void search(int firstSource, int endSource) {
+            Arrays.fill(seen, 0L);
+            Arrays.fill(frontier, 0L);
+            int batchSize = endSource - firstSource;
+            long full = (batchSize == BATCH_SIZE) ? -1L : (1L << batchSize) - 1;
+            for (int k = 0; k < batchSize; k++) {
+                seen[firstSource + k] = 1L << k;
+                frontier[firstSource + k] = 1L << k;
+            }
+            counts[0] += batchSize;
+
+            int level = 0;
+            boolean checkCycles = true;
+            while (true) {
+                checkCycles = checkCycles && (girth == 0 || 2 * level + 1 < girth);
+                boolean oddCycle = false;
+                boolean evenCycle = false;
+                long reached = 0L;
+                long numReached = 0L;
+
+                for (int v = 0; v < numVerts; v++) {
+                    long sv = seen[v];
+                    if (sv == full && !checkCycles) {
+                        next[v] = 0L;
+                        continue;
+                    }
+                    long fv = frontier[v];
+                    long once = 0L;
+                    long twice = 0L;
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        long f = frontier[targets[e]];
+                        twice |= once & f;
+                        once |= f;
+                    }
+                    long nv = once & ~sv;
+                    if (checkCycles) {
+                        oddCycle |= (fv & once) != 0L;
+                        evenCycle |= (twice & ~sv) != 0L;
+                    }
+                    next[v] = nv;
+                    if (nv != 0L) {
+                        seen[v] = sv | nv;
+                        reached |= nv;
+                        numReached += Long.bitCount(nv);
+                    }
+                }
+
+                if (checkCycles && (oddCycle || evenCycle)) {
+                    girth = oddCycle ? 2 * level + 1 : 2 * level + 2;
+                    checkCycles = false;
+                }
+                if (reached == 0L) {
+                    break;
+                }
+
+                level++;
+                if (level >= counts.length) {
+                    long[] grown = new long[2 * counts.length];
+                    System.arraycopy(counts, 0, grown, 0, counts.length);
+                    counts = grown;
+                }
+                counts[level] += numReached;
+                for (int k = 0; k < batchSize; k++) {
+                    if ((reached & (1L << k)) != 0L) {
+                        eccentricities[firstSource + k] = level;
+                    }
+                }
+
+                long[] swap = frontier;
+                frontier = next;
+                next = swap;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of vertices of the graph.
+     * 
+     * @return the number of vertices of the graph.
+     */
+    public int getNumberOfVertices() {
+        return numVerts;
+    }
+
+    /**
+     * Returns the number of edges of the graph.
+     * 
+     * @return the number of edges of the graph.
+     */
+    public int getNumberOfEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Returns true if the graph is connected.
+     * 
+     * @return true if the graph is connected.
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Returns the diameter of the graph, i.e.&#160the maximum eccentricity 
+     * among all vertices.
+     * 
+     * @return the diameter of the graph.
+     */
+    public int getDiameter() {
+        return diameter;
+    }
+
+    /**
+     * Returns the radius of the graph, i.e.&#160the minimum eccentricity 
+     * among all vertices.
+     * 
+     * @return the radius of the graph.
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Returns the average distance between distinct vertices of the graph.
+     * 
+     * @return the average distance between distinct vertices of the graph.
+     */
+    public double getAverageDistance() {
+        return avgDist;
+    }
+
+    /**
+     * Returns the girth of the graph, or 0 if the graph has no cycles.
+     * 
+     * @return the girth of the graph.
+     */
+    public int getGirth() {
+        return girth;
+    }
+
+    /**
+     * Returns the eccentricity of the given vertex, i.e.&#160the maximum 
+     * distance from s among all vertices of its connected component.
+     * 
+     * @param s any vertex of the graph.
+     * @return the eccentricity of s.
+     */
+    public int getEccentricity(S s) {
+        return eccentricities[indexing.get(s)];
+    }
+
+    /**
+     * Returns the array d_n, whose n-th entry is the number of ordered pairs of
+     * vertices of distance n from one another, for n = 0, 1, ..., getDiameter().
+     * 
+     * @return the array d_n.
+     */
+    public List<Long> getDistanceDistribution() {
+        return new ArrayList<Long>(d_n);
+    }
+
+    /**
+     * This method writes the array d_n to a text file (see the class description 
+     * for the definition of this array).  The entries are written to the file as
+     * a line-separated sequence of pairs of integers, the n-th pair of the list
+     * being n followed by the n-th entry of d_n (separated by a single space).
+     * 
+     * @param f The file to which the data is written
+     * @return true if the data was successfully written to file.
+     * @throws IOException 
+     */
+    public boolean writeDistanceDistributionToFile(File f) throws IOException {
+
+        FileWriter fw;
+        try {
+            fw = new FileWriter(f);
+        } catch (IOException ex) {
+            Logger.getLogger(DistanceDistributionAnalyzer.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+
+        StringBuilder line;
+
+        for (int n = 0; n < d_n.size(); n++) {
+            line = new StringBuilder();
+            line.append(n).append(' ').append(d_n.get(n)).append('\n');
+            fw.write(line.toString());
+        }
+
+        fw.close();
+
+        return true;
+    }
+
+}
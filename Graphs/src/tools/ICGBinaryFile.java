@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package tools;
+
+import api.IndexedColorGraph;
+import base.ColorCorrespondence;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+
+/**
+ * A binary file format for the color matrix of an IndexedColorGraph whose
+ * vertices all have the same degree (such as a Cayley graph), holding the same
+ * information as the sparse text file written by
+ * ICGFileRWTool.createSparseColorMatrixFile, together with the color involution
+ * and the shell start indices.
+ *
+ * <p>
+ * The colors are indexed 1, 2, ..., degree, color i being the color of the edge
+ * joining the root to the vertex of index i (exactly as in the sparse text file).
+ * All values are 32-bit little-endian integers, laid out as follows:<br>
+ * &#160&#160&#160&#160(i) The magic number MAGIC, followed by the format VERSION.<br>
+ * &#160&#160&#160(ii) The number of vertices, the degree, and the number of shells.<br>
+ * &#160&#160(iii) The color involution: degree entries, the (i-1)-th of which is
+ * the inverse of the color i.<br>
+ * &#160&#160(iv) The shell start indices, one for each shell.<br>
+ * &#160&#160&#160(v) The neighbor table: (number of vertices)*degree entries, the
+ * entry at position v*degree+i-1 being the (0-based) index of the neighbor of
+ * the vertex of index v along the color i.
+ * </p>
+ *
+ * <p>
+ * The file is written through a FileChannel, and is read by mapping it into
+ * memory with FileChannel.map, so that the neighbor table is never copied onto
+ * the heap: opening a file takes time independent of its size, and the pages of
+ * the table are loaded by the operating system as they are accessed.  Since a
+ * mapped region is addressed by an <code>int</code>, the file size is limited to
+ * 2GB, i.e.&#160about 5*10^8 neighbor table entries.
+ * </p>
+ *
+ * @author pdokos
+ */
+public class ICGBinaryFile {
+
+    /**
+     * The first four bytes of every file, reading "ICGB" in ASCII.
+     */
+    public static final int MAGIC = 0x42474349;
+
+    /**
+     * The version of the format written by this class.
+     */
+    public static final int VERSION = 1;
+
+    private static final int HEADER_INTS = 5;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final int numVerts;
+    private final int degree;
+    private final int[] colorInvolution;
+    private final int[] shellStartIndices;
+    private final IntBuffer neighborTable;
+
+    private ICGBinaryFile(int numVerts, int degree, int[] colorInvolution, int[] shellStartIndices, IntBuffer neighborTable) {
+        this.numVerts = numVerts;
+        this.degree = degree;
+        this.colorInvolution = colorInvolution;
+        this.shellStartIndices = shellStartIndices;
+        this.neighborTable = neighborTable;
+    }
+
+    /**
+     * Returns true if the given file begins with the magic number of the format.
+     *
+     * @param file any File.
+     * @return true if file is (the beginning of) a file of this format.
+     * @throws IOException
+     */
+    public static boolean isBinaryFile(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            ByteBuffer buf = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            FileChannel channel = in.getChannel();
+            while (buf.hasRemaining() && channel.read(buf) != -1) {
+            }
+            return !buf.hasRemaining() && buf.getInt(0) == MAGIC;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Maps the given file into memory.  The file is only read when the
+     * returned object is accessed, and remains mapped for as long as the
+     * neighbor table is reachable.
+     *
+     * @param file a file of this format.
+     * @return the ICGBinaryFile held in file.
+     * @throws IOException if the file cannot be read, or is not a file of this format.
+     */
+    public static ICGBinaryFile map(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to be mapped: " + file);
+            }
+            if (size < 4 * HEADER_INTS) {
+                throw new IOException("Not a binary color graph file: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt() != MAGIC) {
+                throw new IOException("Not a binary color graph file: " + file);
+            }
+            int version = mapped.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary color graph file version " + version + ": " + file);
+            }
+            int numVerts = mapped.getInt();
+            int degree = mapped.getInt();
+            int numShells = mapped.getInt();
+            long expectedSize = 4L * (HEADER_INTS + degree + numShells + (long) numVerts * degree);
+            if (numVerts < 0 || degree < 0 || numShells < 0 || size != expectedSize) {
+                throw new IOException("Corrupt binary color graph file: " + file);
+            }
+            int[] colorInvolution = new int[degree];
+            mapped.asIntBuffer().get(colorInvolution);
+            mapped.position(mapped.position() + 4 * degree);
+            int[] shellStartIndices = new int[numShells];
+            mapped.asIntBuffer().get(shellStartIndices);
+            mapped.position(mapped.position() + 4 * numShells);
+            IntBuffer neighborTable = mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            return new ICGBinaryFile(numVerts, degree, colorInvolution, shellStartIndices, neighborTable);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Writes a file of this format.
+     *
+     * @param file the file to which the data is written.
+     * @param numVerts the number of vertices.
+     * @param degree the degree.
+     * @param colorInvolution an array whose (i-1)-th entry is the inverse of the color i.
+     * @param shellStartIndices the shell start indices.
+     * @param neighborTable the neighbor table, laid out as in the class description,
+     * from its position 0 onward.
+     * @throws IOException
+     */
+    public static void write(File file, int numVerts, int degree, int[] colorInvolution, int[] shellStartIndices, IntBuffer neighborTable) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            FileChannel channel = out.getChannel();
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(numVerts).putInt(degree).putInt(shellStartIndices.length);
+            for (int i = 0; i < degree; i++) {
+                putInt(channel, buf, colorInvolution[i]);
+            }
+            for (int i = 0; i < shellStartIndices.length; i++) {
+                putInt(channel, buf, shellStartIndices[i]);
+            }
+            int numEntries = numVerts * degree;
+            for (int k = 0; k < numEntries; k++) {
+                putInt(channel, buf, neighborTable.get(k));
+            }
+            flush(channel, buf);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes the color matrix of the given graph, all of whose vertices are
+     * assumed to have the same degree, to a file of this format.
+     *
+     * @param graph any IndexedColorGraph.
+     * @param file the file to which the data is written.
+     * @throws IOException
+     */
+    public static <S, C> void write(IndexedColorGraph<S, C> graph, File file) throws IOException {
+        int size = graph.getNumberOfVertices();
+        S root = graph.getElement(0);
+        Collection<S> neighbors = graph.getNeighborsOf(root);
+        int degree = neighbors.size();
+        ColorCorrespondence<Integer, C> colorIndexing = new ColorCorrespondence<Integer, C>(degree);
+        for (S t : neighbors) {
+            colorIndexing.set(graph.getEdgeColor(root, t), graph.getIndexOf(t));
+        }
+
+        int[] colorInvolution = new int[degree];
+        for (int i = 1; i <= degree; i++) {
+            colorInvolution[i - 1] = colorIndexing.getTarget(graph.getInverseColor(colorIndexing.getColor(i)));
+        }
+        int[] shellStartIndices = new int[graph.getMaxDistanceFromRoot() + 1];
+        for (int d = 0; d < shellStartIndices.length; d++) {
+            shellStartIndices[d] = graph.getShellStartIndex(d);
+        }
+
+        IntBuffer neighborTable = IntBuffer.allocate(size * degree);
+        for (int is = 0; is < size; is++) {
+            S s = graph.getElement(is);
+            for (int i = 1; i <= degree; i++) {
+                neighborTable.put(graph.getIndexOf(graph.getNeighbor(s, colorIndexing.getColor(i))));
+            }
+        }
+        write(file, size, degree, colorInvolution, shellStartIndices, neighborTable);
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buf, int value) throws IOException {
+        if (!buf.hasRemaining()) {
+            flush(channel, buf);
+        }
+        buf.putInt(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices.
+     */
+    public int getNumberOfVertices() {
+        return numVerts;
+    }
+
+    /**
+     * Returns the degree, i.e.&#160the number of colors.
+     *
+     * @return the degree.
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Returns the inverse of the color c.
+     *
+     * @param c a color, 1 &lt= c &lt= getDegree().
+     * @return the inverse of the color c.
+     */
+    public int getInverseColor(int c) {
+        return colorInvolution[c - 1];
+    }
+
+    /**
+     * Returns the number of shells about the root.
+     *
+     * @return the number of shells about the root.
+     */
+    public int getNumberOfShells() {
+        return shellStartIndices.length;
+    }
+
+    /**
+     * Returns the index of the first vertex of distance d from the root.
+     *
+     * @param d a distance, 0 &lt= d &lt getNumberOfShells().
+     * @return the index of the first vertex of distance d from the root.
+     */
+    public int getShellStartIndex(int d) {
+        return shellStartIndices[d];
+    }
+
+    /**
+     * Returns the neighbor table, as a read-only view of the mapped file, laid out
+     * as in the class description.
+     *
+     * @return the neighbor table.
+     */
+    public IntBuffer getNeighborTable() {
+        return neighborTable.asReadOnlyBuffer();
+    }
+
+}
@@ -20,11 +20,13 @@ package tools;
 import api.IndexedColorGraph;
 import base.ColorCorrespondence;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -39,8 +41,8 @@ import java.util.logging.Logger;
 public class ICGFileRWTool {
     public static <S, C> boolean createSparseColorMatrixFile(IndexedColorGraph<S, C> graph, File sparseMatrixFile) {
         try {
-            FileWriter fwSparse;
-            fwSparse = new FileWriter(sparseMatrixFile);
+            Writer fwSparse;
+            fwSparse = new BufferedWriter(new FileWriter(sparseMatrixFile));
             System.out.println("CREATING SPARSE");
 
             StringBuilder line;
@@ -76,12 +78,34 @@ public class ICGFileRWTool {
         }
     }
     
+    /**
+     * Writes the color matrix of the given graph to a file of the binary format
+     * described in ICGBinaryFile, which can be loaded far faster than the sparse
+     * text file written by createSparseColorMatrixFile.
+     *
+     * @param graph any IndexedColorGraph whose vertices all have the same degree.
+     * @param binaryMatrixFile the file to which the color matrix is written.
+     * @return true if the file was successfully written.
+     */
+    public static <S, C> boolean createBinaryColorMatrixFile(IndexedColorGraph<S, C> graph, File binaryMatrixFile) {
+        try {
+            System.out.println("CREATING BINARY");
+            ICGBinaryFile.write(graph, binaryMatrixFile);
+            System.out.println("BINARY DONE");
+            return true;
+        } catch (IOException ex) {
+            System.out.println("BINARY NOT DONE");
+            Logger.getLogger(ICGFileRWTool.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+    }
+    
     public static <S, C> boolean createIndexedSparseMatrixFiles(IndexedColorGraph<S, C> graph, File sparseMatrixFile, File indexedElementsFile, String eltsFileHeader, IndexedNeighborGraphTool.StringConverter strConverter) {
-        FileWriter fwSparse;
-        FileWriter fwElements;
+        Writer fwSparse;
+        Writer fwElements;
         int size = graph.getNumberOfVertices();
         try {
-            fwSparse = new FileWriter(sparseMatrixFile);
+            fwSparse = new BufferedWriter(new FileWriter(sparseMatrixFile));
             System.out.println("CREATING SPARSE");
 
             StringBuilder line;
@@ -115,7 +139,7 @@ public class ICGFileRWTool {
 
 
         try {
-            fwElements = new FileWriter(indexedElementsFile);
+            fwElements = new BufferedWriter(new FileWriter(indexedElementsFile));
 
             if (eltsFileHeader != null) {
                 StringBuilder header = new StringBuilder(eltsFileHeader);
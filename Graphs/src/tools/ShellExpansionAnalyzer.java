@@ -24,6 +24,11 @@ import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.table.DefaultTableModel;
@@ -61,10 +66,23 @@ import api.IndexedNavigableRootedNeighborGraph;
  * the girth of the graph, item (iv) is the diameter, and the three arrays above 
  * are independent of the root.
  * 
+ * <p>
+ * The data may also be generated on several threads, by means of the methods
+ * generateData(int) and generateData(ExecutorService, int).  Since the shells
+ * are intervals under the indexing, the vertex range of each shell is split into
+ * contiguous sub-ranges, whose edge counts are computed concurrently and then
+ * summed on the calling thread.  The results are identical to those of
+ * generateData().  The graph must not be modified while the data is being
+ * generated.
+ * </p>
+ * 
  * @author pdokos
  */
 public class ShellExpansionAnalyzer<S> {
 
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int MIN_PARALLEL_SHELL_SIZE = 1024;
+
     protected IndexedNavigableRootedNeighborGraph<S> graph;
      
     protected int numVerts;
@@ -114,6 +132,36 @@ public class ShellExpansionAnalyzer<S> {
      * endpoints are both of distance i from the root.
      */
     public void generateData() {
+        generateData(null, 1);
+    }
+    
+    /**
+     * Generates all of the numerical data pertaining to the graph, exactly as
+     * generateData(), with the edge counts of each shell computed on a newly 
+     * created pool of numThreads threads, which is shut down upon completion.
+     * 
+     * @param numThreads the number of threads on which the edge counts are computed.
+     */
+    public void generateData(int numThreads) {
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            generateData(executor, numThreads);
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Generates all of the numerical data pertaining to the graph, exactly as
+     * generateData(), with the edge counts of each shell computed by tasks 
+     * submitted to the given executor, which is left running.
+     * 
+     * @param executor the ExecutorService on which the edge counts are computed,
+     * or null if they are to be computed on the calling thread.
+     * @param parallelism the number of threads of the executor.  Each sufficiently
+     * large shell is split into a small multiple of this many tasks.
+     */
+    public void generateData(ExecutorService executor, int parallelism) {
         
         //System.out.print("GENERATING SHELL DATA...     ");
         
@@ -133,13 +181,18 @@ public class ShellExpansionAnalyzer<S> {
         for (int i=0; i<=diameter; i++) {
             List<S> currentShell = graph.getShell(i);
             
-            int numOutEdges=0;
-            int numTangEdges=0;
+            //the shell is an interval under the indexing
+            int shellStart = graph.getIndexOf(currentShell.get(0));
+            int shellEnd = shellStart + currentShell.size();
             
-            for (S s : currentShell) {
-                numOutEdges += graph.getNeighborsInNextShell(s).size();
-                numTangEdges += graph.getNeighborsInSameShell(s).size();
+            int[] edgeCounts;
+            if (executor == null || currentShell.size() < MIN_PARALLEL_SHELL_SIZE) {
+                edgeCounts = countEdges(shellStart, shellEnd);
+            } else {
+                edgeCounts = countEdges(shellStart, shellEnd, executor, parallelism);
             }
+            int numOutEdges=edgeCounts[0];
+            int numTangEdges=edgeCounts[1];
             
             sum += currentShell.size();
             s_n.add(currentShell.size());
@@ -149,10 +202,13 @@ public class ShellExpansionAnalyzer<S> {
             if (numTangEdges>0) 
                 bipartite=false;
             if (girth==0) {
-                if (!bipartite) {
-                    girth = 2*i + 1;
-                } else if (e_n.get(i) != currentShell.size()) {
+                //a vertex of the shell with two neighbors in the previous shell
+                //closes a cycle of length 2i, which is shorter than one closed
+                //by an edge within the shell
+                if (e_n.get(i) != currentShell.size()) {
                     girth = 2*i;
+                } else if (!bipartite) {
+                    girth = 2*i + 1;
                 }
             }
             
@@ -163,6 +219,52 @@ public class ShellExpansionAnalyzer<S> {
 
     }
     
+    /*
+     * The numbers of neighbors in the next and in the same shell, summed over
+     * the vertices of index from, ..., to-1.
+     */
+    private int[] countEdges(int from, int to) {
+        int numOutEdges=0;
+        int numTangEdges=0;
+        for (int is=from; is<to; is++) {
+            numOutEdges += graph.countNeighborsInNextShell(is);
+            numTangEdges += graph.countNeighborsInSameShell(is);
+        }
+        return new int[]{numOutEdges, numTangEdges};
+    }
+    
+    private int[] countEdges(int shellStart, int shellEnd, ExecutorService executor, int parallelism) {
+        int size = shellEnd - shellStart;
+        int numTasks = Math.min(size, Math.max(parallelism, 1) * TASKS_PER_THREAD);
+        
+        List<Future<int[]>> futures = new ArrayList<Future<int[]>>(numTasks);
+        for (int t=0; t<numTasks; t++) {
+            final int from = shellStart + (int) ((long) size * t / numTasks);
+            final int to = shellStart + (int) ((long) size * (t + 1) / numTasks);
+            futures.add(executor.submit(new Callable<int[]>() {
+                @Override
+                public int[] call() {
+                    return countEdges(from, to);
+                }
+            }));
+        }
+        
+        int[] edgeCounts = new int[2];
+        try {
+            for (Future<int[]> future : futures) {
+                int[] partialCounts = future.get();
+                edgeCounts[0] += partialCounts[0];
+                edgeCounts[1] += partialCounts[1];
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Shell expansion analysis was interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Shell expansion analysis failed.", ex.getCause());
+        }
+        return edgeCounts;
+    }
+    
     /**
      * Returns true if the graph is bipartite.
      * 
@@ -0,0 +1,573 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import api.NeighborGraph;
+
+/**
+ * A tool for determining the extreme eigenvalues of the adjacency matrix of a 
+ * given NeighborGraph, and in particular the spectral gap, without ever forming
+ * the matrix.  This is intended for the expansion analysis of large Cayley 
+ * graphs (e.g.&#160the LPS Ramanujan graphs), for which a dense or even a 
+ * sparse matrix representation in external software is impractical.
+ * 
+ * <p>
+ * Before querying any data, the data must first be created by calling one of the
+ * generateData methods.  The graph is copied into a compressed sparse row form 
+ * over the indices 0, 1, ..., getNumberOfVertices()-1, and the Lanczos 
+ * iteration is run on the adjacency matrix A with a pseudo-random starting
+ * vector, using three <code>double[]</code> vectors of length the number of 
+ * vertices.  The j-th step multiplies the current Lanczos vector by A and 
+ * extends the tridiagonal matrix T_j whose eigenvalues (the <em>Ritz values</em>) 
+ * approximate those of A, the extreme eigenvalues being the first to converge.
+ * </p>
+ * 
+ * <p>
+ * Since the Lanczos vectors are not stored, they are not re-orthogonalized, and
+ * the loss of orthogonality in floating point arithmetic causes converged
+ * eigenvalues to reappear in T_j as spurious copies.  These are discarded by
+ * the test of Cullum and Willoughby: a Ritz value is retained if it is a
+ * multiple eigenvalue of T_j, or if it is not an eigenvalue of the matrix 
+ * obtained from T_j by deleting its first row and column.  Consequently, each 
+ * <em>distinct</em> eigenvalue of A is reported once, regardless of its 
+ * multiplicity (which, for the highly symmetric Cayley graphs, is typically 
+ * large).  The eigenvalues of T_j are computed by bisection with Sturm 
+ * sequences.  The iteration is stopped once the requested eigenvalues agree to 
+ * a relative accuracy of about 10^-10 between consecutive checks, made every 
+ * 50 steps, or once the maximum number of steps has been reached.
+ * </p>
+ * 
+ * <p>
+ * The matrix-vector products and the vector updates may be distributed over 
+ * several threads, by means of the methods generateData(int, int) and 
+ * generateData(int, ExecutorService, int), each task handling a contiguous 
+ * range of vertices.  The inner products are accumulated over fixed blocks of
+ * vertices, whose partial sums are added in a fixed order, so that the results 
+ * do not depend on the number of threads.
+ * </p>
+ * 
+ * @author pdokos
+ * @param <S> The vertex type on which the graph structure is defined.
+ */
+public class SpectralAnalyzer<S> {
+
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int BLOCK_SIZE = 4096;
+    private static final int CHECK_INTERVAL = 50;
+    private static final int DEFAULT_MAX_STEPS = 1000;
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+    private static final double CONVERGENCE_TOLERANCE = 1e-10;
+    private static final double CLUSTER_TOLERANCE = 1e-9;
+    private static final double BREAKDOWN_TOLERANCE = 1e-12;
+    
+    protected NeighborGraph<S> graph;
+    
+    protected int numVerts;
+    protected int degree;
+    protected int numSteps;
+    protected int maxSteps;
+    protected boolean converged;
+    protected List<Double> largestEigenvalues;
+    protected List<Double> smallestEigenvalues;
+
+    private int[] offsets;
+    private int[] targets;
+    private ExecutorService executor;
+    private int parallelism;
+    
+    private double[] alphas;
+    private double[] betas;
+
+    /**
+     * Instantiates a new SpectralAnalyzer on the given NeighborGraph.
+     * The graph assigned to the analyzer through this constructor cannot be changed.
+     * 
+     * @param graph The graph assigned to this analyzer.
+     */
+    public SpectralAnalyzer(NeighborGraph<S> graph) {
+        this.graph = graph;
+        this.maxSteps = DEFAULT_MAX_STEPS;
+    }
+
+    /**
+     * Returns the graph that this analyzer has been assigned.
+     * 
+     * @return The graph that this analyzer had been assigned.
+     */
+    public NeighborGraph<S> getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * Sets the maximum number of Lanczos steps, i.e.&#160matrix-vector 
+     * products, made by the generateData methods.  The default is 1000.
+     * 
+     * @param maxSteps a positive integer.
+     */
+    public void setMaxSteps(int maxSteps) {
+        if (maxSteps < 1) {
+            throw new IllegalArgumentException("The maximum number of steps must be positive: " + maxSteps);
+        }
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Computes the numEigenvalues largest distinct eigenvalues of the adjacency 
+     * matrix, as well as its smallest eigenvalues, on the calling thread.
+     * 
+     * @param numEigenvalues the number of largest eigenvalues to be computed
+     * (at least 2, for the spectral gap to be determined).
+     */
+    public void generateData(int numEigenvalues) {
+        generateData(numEigenvalues, null, 1);
+    }
+
+    /**
+     * Computes the numEigenvalues largest distinct eigenvalues of the adjacency 
+     * matrix, as well as its smallest eigenvalues, on a newly created pool of
+     * numThreads threads, which is shut down upon completion.
+     * 
+     * @param numEigenvalues the number of largest eigenvalues to be computed.
+     * @param numThreads the number of threads on which the iteration is run.
+     */
+    public void generateData(int numEigenvalues, int numThreads) {
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        try {
+            generateData(numEigenvalues, pool, numThreads);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Computes the numEigenvalues largest distinct eigenvalues of the adjacency 
+     * matrix, as well as its smallest eigenvalues, with the vector operations 
+     * of each step run by tasks submitted to the given executor, which is left
+     * running.
+     * 
+     * @param numEigenvalues the number of largest eigenvalues to be computed.
+     * @param executor the ExecutorService on which the iteration is run, or null
+     * if it is to be run on the calling thread.
+     * @param parallelism the number of threads of the executor.  Each step is
+     * split into a small multiple of this many tasks.
+     */
+    public void generateData(int numEigenvalues, ExecutorService executor, int parallelism) {
+        
+        CompressedAdjacency<S> adjacency = new CompressedAdjacency<S>(graph);
+        numVerts = adjacency.getNumberOfVertices();
+        degree = adjacency.getDegree();
+        offsets = adjacency.offsets;
+        targets = adjacency.targets;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        
+        largestEigenvalues = new ArrayList<Double>();
+        smallestEigenvalues = new ArrayList<Double>();
+        numSteps = 0;
+        converged = false;
+        if (numVerts == 0) {
+            return;
+        }
+        
+        try {
+            lanczos(Math.max(numEigenvalues, 1));
+        } finally {
+            this.executor = null;
+            offsets = null;
+            targets = null;
+        }
+    }
+    
+    private void lanczos(int numEigenvalues) {
+        int stepLimit = Math.min(maxSteps, numVerts);
+        alphas = new double[stepLimit];
+        betas = new double[stepLimit];
+        
+        final double[][] vectors = new double[3][];
+        vectors[0] = new double[numVerts];  //previous Lanczos vector
+        vectors[1] = new double[numVerts];  //current Lanczos vector
+        vectors[2] = new double[numVerts];  //next Lanczos vector
+        
+        Random random = new Random(SEED);
+        for (int i = 0; i < numVerts; i++) {
+            vectors[1][i] = random.nextDouble() - 0.5;
+        }
+        scale(vectors[1], 1.0 / Math.sqrt(sumOverRanges(new RangeSum() {
+            @Override
+            double sum(int from, int to) {
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum += vectors[1][i] * vectors[1][i];
+                }
+                return sum;
+            }
+        })));
+        
+        double normEstimate = 0;
+        List<Double> previousLargest = null;
+        List<Double> previousSmallest = null;
+        boolean invariant = false;
+        
+        while (numSteps < stepLimit) {
+            
+            //w = A v - beta v_prev, alpha = <v, w>
+            final double beta = betas[numSteps];
+            final double alpha = sumOverRanges(new RangeSum() {
+                @Override
+                double sum(int from, int to) {
+                    double[] prev = vectors[0];
+                    double[] cur = vectors[1];
+                    double[] next = vectors[2];
+                    double sum = 0;
+                    for (int i = from; i < to; i++) {
+                        double y = -beta * prev[i];
+                        for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                            y += cur[targets[e]];
+                        }
+                        next[i] = y;
+                        sum += cur[i] * y;
+                    }
+                    return sum;
+                }
+            });
+            
+            //w = w - alpha v, nextBeta = |w|
+            final double nextBeta = Math.sqrt(sumOverRanges(new RangeSum() {
+                @Override
+                double sum(int from, int to) {
+                    double[] cur = vectors[1];
+                    double[] next = vectors[2];
+                    double sum = 0;
+                    for (int i = from; i < to; i++) {
+                        double y = next[i] - alpha * cur[i];
+                        next[i] = y;
+                        sum += y * y;
+                    }
+                    return sum;
+                }
+            }));
+            
+            alphas[numSteps] = alpha;
+            numSteps++;
+            normEstimate = Math.max(normEstimate, Math.abs(alpha) + beta + nextBeta);
+            
+            if (nextBeta <= BREAKDOWN_TOLERANCE * normEstimate) {
+                //the Krylov space is invariant, and T is exact
+                invariant = true;
+                break;
+            }
+            
+            if (numSteps % CHECK_INTERVAL == 0 || numSteps == stepLimit) {
+                List<Double> largest = getRitzValues(numEigenvalues, true, true);
+                List<Double> smallest = getRitzValues(2, false, true);
+                double tol = CONVERGENCE_TOLERANCE * normEstimate;
+                if (agree(largest, previousLargest, tol) && agree(smallest, previousSmallest, tol)) {
+                    converged = true;
+                    break;
+                }
+                previousLargest = largest;
+                previousSmallest = smallest;
+            }
+            
+            if (numSteps < stepLimit) {
+                betas[numSteps] = nextBeta;
+                double[] swap = vectors[0];
+                vectors[0] = vectors[1];
+                vectors[1] = vectors[2];
+                vectors[2] = swap;
+                scale(vectors[1], 1.0 / nextBeta);
+            }
+        }
+        
+        if (invariant) {
+            converged = true;
+        }
+        largestEigenvalues = getRitzValues(numEigenvalues, true, !invariant);
+        smallestEigenvalues = getRitzValues(2, false, !invariant);
+        alphas = null;
+        betas = null;
+    }
+    
+    private static boolean agree(List<Double> values, List<Double> previousValues, double tol) {
+        if (previousValues == null || values.size() != previousValues.size()) {
+            return false;
+        }
+        for (int r = 0; r < values.size(); r++) {
+            if (Math.abs(values.get(r) - previousValues.get(r)) > tol) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void scale(final double[] v, final double factor) {
+        sumOverRanges(new RangeSum() {
+            @Override
+            double sum(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    v[i] *= factor;
+                }
+                return 0;
+            }
+        });
+    }
+    
+    /**
+     * An operation over a range of vertex indices, returning a partial sum.
+     */
+    private abstract class RangeSum {
+        abstract double sum(int from, int to);
+    }
+    
+    /*
+     * Sums the partial sums of op over consecutive blocks of BLOCK_SIZE vertices,
+     * in the order of the blocks, so that the result does not depend on how the
+     * blocks are distributed over the threads.
+     */
+    private double sumOverRanges(final RangeSum op) {
+        int numBlocks = (numVerts + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        final double[] partialSums = new double[numBlocks];
+        
+        if (executor == null || numBlocks == 1) {
+            sumBlocks(op, partialSums, 0, numBlocks);
+        } else {
+            int numTasks = Math.min(numBlocks, Math.max(parallelism, 1) * TASKS_PER_THREAD);
+            List<Future<?>> futures = new ArrayList<Future<?>>(numTasks);
+            for (int t = 0; t < numTasks; t++) {
+                final int from = (int) ((long) numBlocks * t / numTasks);
+                final int to = (int) ((long) numBlocks * (t + 1) / numTasks);
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        sumBlocks(op, partialSums, from, to);
+                    }
+                }));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Spectral analysis was interrupted.", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Spectral analysis failed.", ex.getCause());
+            }
+        }
+        
+        double sum = 0;
+        for (int b = 0; b < numBlocks; b++) {
+            sum += partialSums[b];
+        }
+        return sum;
+    }
+    
+    private void sumBlocks(RangeSum op, double[] partialSums, int fromBlock, int toBlock) {
+        for (int b = fromBlock; b < toBlock; b++) {
+            partialSums[b] = op.sum(b * BLOCK_SIZE, Math.min(numVerts, (b + 1) * BLOCK_SIZE));
+        }
+    }
+    
+    
+    //Eigenvalues of the tridiagonal matrix T, with diagonal alphas[0], ..., alphas[numSteps-1] 
+    //and off-diagonal entries betas[1], ..., betas[numSteps-1]:
+    
+    /*
+     * The number of eigenvalues less than x of the trailing principal submatrix
+     * of T starting at the given row, by the Sturm sequence of its leading minors.
+     */
+    private int countEigenvaluesBelow(int from, double x) {
+        int count = 0;
+        double q = 1;
+        for (int i = from; i < numSteps; i++) {
+            q = alphas[i] - x - ((i == from) ? 0 : betas[i] * betas[i] / q);
+            if (q == 0) {
+                q = -Double.MIN_NORMAL;
+            }
+            if (q < 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /*
+     * The r-th largest eigenvalue of T (counted with multiplicity), by bisection.
+     */
+    private double getEigenvalue(int r) {
+        double lo = Double.POSITIVE_INFINITY;
+        double hi = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < numSteps; i++) {
+            double radius = ((i > 0) ? betas[i] : 0) + ((i + 1 < numSteps) ? betas[i + 1] : 0);
+            lo = Math.min(lo, alphas[i] - radius);
+            hi = Math.max(hi, alphas[i] + radius);
+        }
+        double margin = Math.ulp(Math.max(Math.abs(lo), Math.abs(hi))) + Double.MIN_NORMAL;
+        lo -= margin;
+        hi += margin;
+        //invariant: at least r eigenvalues are >= lo, and fewer than r are >= hi
+        while (true) {
+            double mid = 0.5 * (lo + hi);
+            if (mid <= lo || mid >= hi) {
+                return lo;
+            }
+            if (numSteps - countEigenvaluesBelow(0, mid) >= r) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+    }
+    
+    /*
+     * The first k distinct eigenvalues of T from the top (or the bottom), 
+     * omitting the spurious ones if filter is true.
+     */
+    private List<Double> getRitzValues(int k, boolean largest, boolean filter) {
+        double norm = 0;
+        for (int i = 0; i < numSteps; i++) {
+            norm = Math.max(norm, Math.abs(alphas[i]) + betas[i]);
+        }
+        double tol = CLUSTER_TOLERANCE * Math.max(norm, 1);
+        
+        List<Double> values = new ArrayList<Double>();
+        int r = 1;
+        while (values.size() < k && r <= numSteps) {
+            double theta = getEigenvalue(largest ? r : numSteps - r + 1);
+            int s = r;
+            while (s < numSteps && Math.abs(getEigenvalue(largest ? s + 1 : numSteps - s) - theta) <= tol) {
+                s++;
+            }
+            boolean spurious = filter && s == r && numSteps > 1
+                    && countEigenvaluesBelow(1, theta + tol) - countEigenvaluesBelow(1, theta - tol) > 0;
+            if (!spurious) {
+                values.add(theta);
+            }
+            r = s + 1;
+        }
+        return values;
+    }
+    
+    
+    //Results:
+
+    /**
+     * Returns the number of vertices of the graph.
+     * 
+     * @return the number of vertices of the graph.
+     */
+    public int getNumberOfVertices() {
+        return numVerts;
+    }
+
+    /**
+     * Returns the common degree of the vertices of the graph, or -1 if the graph
+     * is not regular.
+     * 
+     * @return the degree of the graph, or -1 if the graph is not regular.
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Returns the number of Lanczos steps made by the last call to generateData.
+     * 
+     * @return the number of Lanczos steps made.
+     */
+    public int getNumberOfSteps() {
+        return numSteps;
+    }
+
+    /**
+     * Returns true if the computed eigenvalues converged before the maximum 
+     * number of steps was reached.
+     * 
+     * @return true if the computed eigenvalues converged.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Returns the largest distinct eigenvalues of the adjacency matrix, in 
+     * decreasing order.  The list has the length requested upon generating the
+     * data, unless the graph has fewer distinct eigenvalues.
+     * 
+     * @return the largest distinct eigenvalues, in decreasing order.
+     */
+    public List<Double> getLargestEigenvalues() {
+        return new ArrayList<Double>(largestEigenvalues);
+    }
+
+    /**
+     * Returns the smallest eigenvalue of the adjacency matrix.
+     * 
+     * @return the smallest eigenvalue of the adjacency matrix.
+     */
+    public double getSmallestEigenvalue() {
+        return smallestEigenvalues.get(0);
+    }
+
+    /**
+     * Returns the spectral gap, i.e.&#160the difference between the two largest
+     * distinct eigenvalues of the adjacency matrix.  For a connected regular 
+     * graph, this is the degree minus the second largest eigenvalue.
+     * 
+     * @return the spectral gap, or NaN if the graph has a single distinct eigenvalue.
+     */
+    public double getSpectralGap() {
+        if (largestEigenvalues.size() < 2) {
+            return Double.NaN;
+        }
+        return largestEigenvalues.get(0) - largestEigenvalues.get(1);
+    }
+
+    /**
+     * Returns true if the graph is a regular graph of some degree d, all of
+     * whose eigenvalues other than d and -d are bounded in absolute value by
+     * 2&radic(d-1).  Since the multiplicities of the eigenvalues are not 
+     * determined, the connectedness of the graph (i.e.&#160the simplicity of 
+     * the eigenvalue d) is not verified by this method.
+     * 
+     * @return true if the graph satisfies the Ramanujan bound.
+     */
+    public boolean isRamanujan() {
+        if (degree < 1 || largestEigenvalues.size() < 2) {
+            return false;
+        }
+        double tol = CLUSTER_TOLERANCE * degree;
+        double bound = 2 * Math.sqrt(degree - 1) + tol;
+        if (Math.abs(largestEigenvalues.get(0) - degree) > tol) {
+            return false;
+        }
+        double smallest = smallestEigenvalues.get(0);
+        if (Math.abs(smallest + degree) <= tol) {
+            smallest = (smallestEigenvalues.size() > 1) ? smallestEigenvalues.get(1) : -bound;
+        }
+        return largestEigenvalues.get(1) <= bound && smallest >= -bound;
+    }
+
+}
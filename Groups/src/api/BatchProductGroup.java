@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package api;
+
+/**
+ * An extension of the InPlaceGroup&ltT&gt interface for implementations which
+ * can multiply an element by a whole array of generators in a single pass, 
+ * e.g.&#160by reading each row of a matrix once for all of the generators.
+ *
+ * <p>
+ * The Cayley graph builders check for this interface, as they do for 
+ * InPlaceGroup, and compute the products of each vertex by all of the 
+ * generators into an array of scratch elements, keeping a copy of a scratch 
+ * element only when the product is a new vertex.
+ * </p>
+ *
+ * @author pdokos
+ *
+ * @param <T> The type on which the operation is defined.
+ */
+public interface BatchProductGroup<T> extends InPlaceGroup<T> {
+
+    /**
+     * Overwrites each dest[k] with the right action of generators[k] on the 
+     * element making the call, for 0 &lt= k &lt generators.length.
+     *
+     * @param generators an array of elements of T operational with the element making the call.
+     * @param dest an array of distinct elements of T operational with the element 
+     * making the call, at least as long as generators, and containing neither the 
+     * element making the call nor any of the generators.
+     */
+    public void rightProductsInto(T[] generators, T[] dest);
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package api;
+
+/**
+ * An interface for encoding the elements of a particular finite group, modeled
+ * by some implementation of the Group&ltT&gt interface, as compact words of
+ * <code>long</code> integers, and for decoding these words back into group elements.
+ *
+ * <p>
+ * A GroupCodec&ltT&gt is associated with a single group in the family modeled by T
+ * (e.g.&#160PGL2_PrimeField over the field of q elements for some fixed prime q),
+ * and every element of that group is encoded as the same number of <code>long</code> words,
+ * given by getWordCount().  The encoding is required to be injective, so that
+ * two elements g and h are equal (in the sense of the <code>equals</code> method)
+ * if and only if their encodings agree.  In this way, algorithms such as the
+ * construction of Cayley graphs can key their data structures on primitive
+ * <code>long</code> values, rather than on the group elements themselves.
+ * </p>
+ *
+ * <p>
+ * The following requirements are to be satisfied, for every element g of the group:<br>
+ * &#160 &#160 &#160 &#160 (1) decode(encode(g)) equals g, whenever getWordCount()==1.<br>
+ * &#160 &#160 &#160 &#160 (2) After encode(g, words, offset), decode(words, offset) equals g.
+ * </p>
+ *
+ * @author pdokos
+ *
+ * @param <T> The type whose elements are encoded.
+ */
+public interface GroupCodec<T> {
+
+    /**
+     * Returns the number of <code>long</code> words in the encoding of each
+     * element of the group.
+     *
+     * @return The number of <code>long</code> words in the encoding of each
+     * element of the group.
+     */
+    public int getWordCount();
+
+    /**
+     * Returns the encoding of the element g, in the case that getWordCount()==1.
+     *
+     * @param g Any element of the group associated with this codec.
+     *
+     * @return The encoding of g as a single <code>long</code>.
+     *
+     * @throws UnsupportedOperationException if getWordCount() is greater than 1.
+     */
+    public long encode(T g);
+
+    /**
+     * Returns the element whose encoding is the given code, in the case that
+     * getWordCount()==1.
+     *
+     * @param code The encoding of an element of the group associated with this codec.
+     *
+     * @return The element whose encoding is code.
+     *
+     * @throws UnsupportedOperationException if getWordCount() is greater than 1.
+     */
+    public T decode(long code);
+
+    /**
+     * Writes the encoding of the element g into the entries words[offset], ...,
+     * words[offset + getWordCount() - 1].
+     *
+     * @param g Any element of the group associated with this codec.
+     * @param words The array into which the encoding is written.
+     * @param offset The position in words of the first word of the encoding.
+     */
+    public void encode(T g, long[] words, int offset);
+
+    /**
+     * Returns the element whose encoding is held in the entries words[offset], ...,
+     * words[offset + getWordCount() - 1].
+     *
+     * @param words An array containing the encoding of an element of the group.
+     * @param offset The position in words of the first word of the encoding.
+     *
+     * @return The element whose encoding is held in words at the given offset.
+     */
+    public T decode(long[] words, int offset);
+
+}
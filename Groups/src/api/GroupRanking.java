@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package api;
+
+/**
+ * An interface for a <em>perfect ranking</em> of the elements of a particular 
+ * finite group, modeled by some implementation of the Group&ltT&gt interface, 
+ * i.e.&#160a bijection between the group and the range of integers 
+ * 0, 1, ..., |G|-1.
+ *
+ * <p>
+ * As with a GroupCodec&ltT&gt, a GroupRanking&ltT&gt is associated with a single 
+ * group in the family modeled by T.  Since the ranks are dense, an algorithm 
+ * which needs to associate data with the elements of the group (such as the 
+ * index of a vertex in a Cayley graph) can hold that data in a flat array of 
+ * length |G|, addressed by rank, rather than in a hash table keyed on the 
+ * elements or on their encodings.
+ * </p>
+ *
+ * <p>
+ * The following requirements are to be satisfied:<br>
+ * &#160 &#160 &#160 &#160 (1) 0 &lt= rank(g) &lt getOrder(), for every element g of the group.<br>
+ * &#160 &#160 &#160 &#160 (2) unrank(rank(g)) equals g, for every element g of the group.<br>
+ * &#160 &#160 &#160 &#160 (3) rank(unrank(r)) == r, for every r with 0 &lt= r &lt getOrder().
+ * </p>
+ *
+ * @author pdokos
+ *
+ * @param <T> The type whose elements are ranked.
+ */
+public interface GroupRanking<T> {
+
+    /**
+     * Returns the order of the group, i.e.&#160the number of ranks.
+     *
+     * @return The order of the group.
+     */
+    public long getOrder();
+
+    /**
+     * Returns the rank of the element g.
+     *
+     * @param g Any element of the group associated with this ranking.
+     *
+     * @return The rank of g, with 0 &lt= rank(g) &lt getOrder().
+     */
+    public long rank(T g);
+
+    /**
+     * Returns the element of the given rank.
+     *
+     * @param r Any <code>long</code> with 0 &lt= r &lt getOrder().
+     *
+     * @return The element of rank r.
+     *
+     * @throws IllegalArgumentException if r is out of range.
+     */
+    public T unrank(long r);
+
+}
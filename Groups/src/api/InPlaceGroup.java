@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package api;
+
+/**
+ * An extension of the Group&ltT&gt interface for implementations whose
+ * elements can be overwritten with the result of a product, so that products
+ * can be computed without allocating a new object each time.
+ *
+ * <p>
+ * The typical usage is to allocate a single scratch element with copy(), and to
+ * repeatedly overwrite it with g.rightProductInto(s, scratch), keeping a copy of
+ * the scratch element only when the product is to be retained.  Since the
+ * value of an element changes when it is overwritten, an element should never
+ * be passed as the destination of a product while it is held as a key of a
+ * hash-based collection.
+ * </p>
+ *
+ * @author pdokos
+ *
+ * @param <T> The type on which the operation is defined.
+ */
+public interface InPlaceGroup<T> extends Group<T> {
+
+    /**
+     * Overwrites dest with the right action of h on the element making the call.
+     * The destination may be the element making the call, or h itself.
+     *
+     * @param h Any element of T operational with the element making the call.
+     * @param dest Any element of T operational with the element making the call.
+     */
+    public void rightProductInto(T h, T dest);
+
+    /**
+     * Returns a new element equal to the element making the call, which does not
+     * share any mutable state with it.
+     *
+     * @return A copy of the element making the call.
+     */
+    public T copy();
+
+}
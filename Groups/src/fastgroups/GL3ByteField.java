@@ -17,7 +17,7 @@
  */
 package fastgroups;
 
-import api.Group;
+import api.BatchProductGroup;
 import finitefields.ByteField;
 import java.util.HashSet;
 import java.util.Set;
@@ -26,7 +26,7 @@ import java.util.Set;
  *
  * @author pdokos
  */
-public class GL3ByteField implements Group<GL3ByteField>{
+public class GL3ByteField implements BatchProductGroup<GL3ByteField>{
     
     private byte a11, a12, a13;
     private byte a21, a22, a23;
@@ -215,20 +215,76 @@ public class GL3ByteField implements Group<GL3ByteField>{
     @Override
     public GL3ByteField rightProductBy(GL3ByteField h) {
         if (h.q == q) {
-            return new GL3ByteField(f.add(f.add(f.mult(a11, h.a11), f.mult(a12, h.a21)), f.mult(a13, h.a31)),
-                    f.add(f.add(f.mult(a11, h.a12), f.mult(a12, h.a22)), f.mult(a13, h.a32)),
-                    f.add(f.add(f.mult(a11, h.a13), f.mult(a12, h.a23)), f.mult(a13, h.a33)),
-                    f.add(f.add(f.mult(a21, h.a11), f.mult(a22, h.a21)), f.mult(a23, h.a31)),
-                    f.add(f.add(f.mult(a21, h.a12), f.mult(a22, h.a22)), f.mult(a23, h.a32)),
-                    f.add(f.add(f.mult(a21, h.a13), f.mult(a22, h.a23)), f.mult(a23, h.a33)),
-                    f.add(f.add(f.mult(a31, h.a11), f.mult(a32, h.a21)), f.mult(a33, h.a31)),
-                    f.add(f.add(f.mult(a31, h.a12), f.mult(a32, h.a22)), f.mult(a33, h.a32)),
-                    f.add(f.add(f.mult(a31, h.a13), f.mult(a32, h.a23)), f.mult(a33, h.a33)),
-                    f);
+            GL3ByteField prod = new GL3ByteField(f);
+            multiplyInto(this, h, prod);
+            return prod;
         }
         return null;
     }
 
+    /**
+     * Overwrites dest with the product a*b, without allocating any objects.  
+     * The destination may be a or b itself.
+     * 
+     * @param a any GL3ByteField.
+     * @param b any GL3ByteField over the same field as a.
+     * @param dest any GL3ByteField, which is overwritten with the product a*b.
+     */
+    public static void multiplyInto(GL3ByteField a, GL3ByteField b, GL3ByteField dest) {
+        ByteField f = a.f;
+        byte c11 = f.add(f.add(f.mult(a.a11, b.a11), f.mult(a.a12, b.a21)), f.mult(a.a13, b.a31));
+        byte c12 = f.add(f.add(f.mult(a.a11, b.a12), f.mult(a.a12, b.a22)), f.mult(a.a13, b.a32));
+        byte c13 = f.add(f.add(f.mult(a.a11, b.a13), f.mult(a.a12, b.a23)), f.mult(a.a13, b.a33));
+        byte c21 = f.add(f.add(f.mult(a.a21, b.a11), f.mult(a.a22, b.a21)), f.mult(a.a23, b.a31));
+        byte c22 = f.add(f.add(f.mult(a.a21, b.a12), f.mult(a.a22, b.a22)), f.mult(a.a23, b.a32));
+        byte c23 = f.add(f.add(f.mult(a.a21, b.a13), f.mult(a.a22, b.a23)), f.mult(a.a23, b.a33));
+        byte c31 = f.add(f.add(f.mult(a.a31, b.a11), f.mult(a.a32, b.a21)), f.mult(a.a33, b.a31));
+        byte c32 = f.add(f.add(f.mult(a.a31, b.a12), f.mult(a.a32, b.a22)), f.mult(a.a33, b.a32));
+        byte c33 = f.add(f.add(f.mult(a.a31, b.a13), f.mult(a.a32, b.a23)), f.mult(a.a33, b.a33));
+        dest.a11 = c11;
+        dest.a12 = c12;
+        dest.a13 = c13;
+        dest.a21 = c21;
+        dest.a22 = c22;
+        dest.a23 = c23;
+        dest.a31 = c31;
+        dest.a32 = c32;
+        dest.a33 = c33;
+        dest.f = f;
+        dest.q = a.q;
+    }
+    
+    /**
+     * Overwrites each dest[k] with the product g*generators[k], for 0 &lt= k &lt generators.length.
+     * 
+     * @param g any GL3ByteField.
+     * @param generators an array of GL3ByteField elements over the same field as g.
+     * @param dest an array of GL3ByteField elements, at least as long as generators, and 
+     * not containing g.
+     */
+    public static void multiplyAll(GL3ByteField g, GL3ByteField[] generators, GL3ByteField[] dest) {
+        for (int k = 0; k < generators.length; k++) {
+            multiplyInto(g, generators[k], dest[k]);
+        }
+    }
+
+    @Override
+    public void rightProductInto(GL3ByteField h, GL3ByteField dest) {
+        multiplyInto(this, h, dest);
+    }
+
+    @Override
+    public void rightProductsInto(GL3ByteField[] generators, GL3ByteField[] dest) {
+        multiplyAll(this, generators, dest);
+    }
+
+    @Override
+    public GL3ByteField copy() {
+        return new GL3ByteField(a11, a12, a13,
+                a21, a22, a23,
+                a31, a32, a33, f);
+    }
+
     @Override
     public GL3ByteField getInverse() {
         ByteField.Element[][] g = GLnByteField.getInverse(new ByteField.Element[][]{{f.getElement(a11), f.getElement(a12), f.getElement(a13)}, 
@@ -17,7 +17,7 @@
  */
 package fastgroups;
 
-import api.Group;
+import api.BatchProductGroup;
 import finitefields.ByteField;
 import java.util.HashSet;
 import java.util.Set;
@@ -26,7 +26,7 @@ import java.util.Set;
  *
  * @author pdokos
  */
-public class GL4ByteField implements Group<GL4ByteField>{
+public class GL4ByteField implements BatchProductGroup<GL4ByteField>{
     
     private byte a11, a12, a13, a14;
     private byte a21, a22, a23, a24;
@@ -265,27 +265,91 @@ public class GL4ByteField implements Group<GL4ByteField>{
     @Override
     public GL4ByteField rightProductBy(GL4ByteField h) {
         if (h.getFieldOrder() == q) {
-            return new GL4ByteField(f.add(f.add(f.add(f.mult(a11, h.a11), f.mult(a12, h.a21)), f.mult(a13, h.a31)), f.mult(a14, h.a41)),
-                    f.add(f.add(f.add(f.mult(a11, h.a12), f.mult(a12, h.a22)), f.mult(a13, h.a32)), f.mult(a14, h.a42)),
-                    f.add(f.add(f.add(f.mult(a11, h.a13), f.mult(a12, h.a23)), f.mult(a13, h.a33)), f.mult(a14, h.a43)),
-                    f.add(f.add(f.add(f.mult(a11, h.a14), f.mult(a12, h.a24)), f.mult(a13, h.a34)), f.mult(a14, h.a44)),
-                    f.add(f.add(f.add(f.mult(a21, h.a11), f.mult(a22, h.a21)), f.mult(a23, h.a31)), f.mult(a24, h.a41)),
-                    f.add(f.add(f.add(f.mult(a21, h.a12), f.mult(a22, h.a22)), f.mult(a23, h.a32)), f.mult(a24, h.a42)),
-                    f.add(f.add(f.add(f.mult(a21, h.a13), f.mult(a22, h.a23)), f.mult(a23, h.a33)), f.mult(a24, h.a43)),
-                    f.add(f.add(f.add(f.mult(a21, h.a14), f.mult(a22, h.a24)), f.mult(a23, h.a34)), f.mult(a24, h.a44)),
-                    f.add(f.add(f.add(f.mult(a31, h.a11), f.mult(a32, h.a21)), f.mult(a33, h.a31)), f.mult(a34, h.a41)),
-                    f.add(f.add(f.add(f.mult(a31, h.a12), f.mult(a32, h.a22)), f.mult(a33, h.a32)), f.mult(a34, h.a42)),
-                    f.add(f.add(f.add(f.mult(a31, h.a13), f.mult(a32, h.a23)), f.mult(a33, h.a33)), f.mult(a34, h.a43)),
-                    f.add(f.add(f.add(f.mult(a31, h.a14), f.mult(a32, h.a24)), f.mult(a33, h.a34)), f.mult(a34, h.a44)),
-                    f.add(f.add(f.add(f.mult(a41, h.a11), f.mult(a42, h.a21)), f.mult(a43, h.a31)), f.mult(a44, h.a41)),
-                    f.add(f.add(f.add(f.mult(a41, h.a12), f.mult(a42, h.a22)), f.mult(a43, h.a32)), f.mult(a44, h.a42)),
-                    f.add(f.add(f.add(f.mult(a41, h.a13), f.mult(a42, h.a23)), f.mult(a43, h.a33)), f.mult(a44, h.a43)),
-                    f.add(f.add(f.add(f.mult(a41, h.a14), f.mult(a42, h.a24)), f.mult(a43, h.a34)), f.mult(a44, h.a44)),
-                    f);
+            GL4ByteField prod = new GL4ByteField(f);
+            multiplyInto(this, h, prod);
+            return prod;
         }
         return null;
     }
 
+    /**
+     * Overwrites dest with the product a*b, without allocating any objects.  
+     * The destination may be a or b itself.
+     * 
+     * @param a any GL4ByteField.
+     * @param b any GL4ByteField over the same field as a.
+     * @param dest any GL4ByteField, which is overwritten with the product a*b.
+     */
+    public static void multiplyInto(GL4ByteField a, GL4ByteField b, GL4ByteField dest) {
+        ByteField f = a.f;
+        byte c11 = f.add(f.add(f.add(f.mult(a.a11, b.a11), f.mult(a.a12, b.a21)), f.mult(a.a13, b.a31)), f.mult(a.a14, b.a41));
+        byte c12 = f.add(f.add(f.add(f.mult(a.a11, b.a12), f.mult(a.a12, b.a22)), f.mult(a.a13, b.a32)), f.mult(a.a14, b.a42));
+        byte c13 = f.add(f.add(f.add(f.mult(a.a11, b.a13), f.mult(a.a12, b.a23)), f.mult(a.a13, b.a33)), f.mult(a.a14, b.a43));
+        byte c14 = f.add(f.add(f.add(f.mult(a.a11, b.a14), f.mult(a.a12, b.a24)), f.mult(a.a13, b.a34)), f.mult(a.a14, b.a44));
+        byte c21 = f.add(f.add(f.add(f.mult(a.a21, b.a11), f.mult(a.a22, b.a21)), f.mult(a.a23, b.a31)), f.mult(a.a24, b.a41));
+        byte c22 = f.add(f.add(f.add(f.mult(a.a21, b.a12), f.mult(a.a22, b.a22)), f.mult(a.a23, b.a32)), f.mult(a.a24, b.a42));
+        byte c23 = f.add(f.add(f.add(f.mult(a.a21, b.a13), f.mult(a.a22, b.a23)), f.mult(a.a23, b.a33)), f.mult(a.a24, b.a43));
+        byte c24 = f.add(f.add(f.add(f.mult(a.a21, b.a14), f.mult(a.a22, b.a24)), f.mult(a.a23, b.a34)), f.mult(a.a24, b.a44));
+        byte c31 = f.add(f.add(f.add(f.mult(a.a31, b.a11), f.mult(a.a32, b.a21)), f.mult(a.a33, b.a31)), f.mult(a.a34, b.a41));
+        byte c32 = f.add(f.add(f.add(f.mult(a.a31, b.a12), f.mult(a.a32, b.a22)), f.mult(a.a33, b.a32)), f.mult(a.a34, b.a42));
+        byte c33 = f.add(f.add(f.add(f.mult(a.a31, b.a13), f.mult(a.a32, b.a23)), f.mult(a.a33, b.a33)), f.mult(a.a34, b.a43));
+        byte c34 = f.add(f.add(f.add(f.mult(a.a31, b.a14), f.mult(a.a32, b.a24)), f.mult(a.a33, b.a34)), f.mult(a.a34, b.a44));
+        byte c41 = f.add(f.add(f.add(f.mult(a.a41, b.a11), f.mult(a.a42, b.a21)), f.mult(a.a43, b.a31)), f.mult(a.a44, b.a41));
+        byte c42 = f.add(f.add(f.add(f.mult(a.a41, b.a12), f.mult(a.a42, b.a22)), f.mult(a.a43, b.a32)), f.mult(a.a44, b.a42));
+        byte c43 = f.add(f.add(f.add(f.mult(a.a41, b.a13), f.mult(a.a42, b.a23)), f.mult(a.a43, b.a33)), f.mult(a.a44, b.a43));
+        byte c44 = f.add(f.add(f.add(f.mult(a.a41, b.a14), f.mult(a.a42, b.a24)), f.mult(a.a43, b.a34)), f.mult(a.a44, b.a44));
+        dest.a11 = c11;
+        dest.a12 = c12;
+        dest.a13 = c13;
+        dest.a14 = c14;
+        dest.a21 = c21;
+        dest.a22 = c22;
+        dest.a23 = c23;
+        dest.a24 = c24;
+        dest.a31 = c31;
+        dest.a32 = c32;
+        dest.a33 = c33;
+        dest.a34 = c34;
+        dest.a41 = c41;
+        dest.a42 = c42;
+        dest.a43 = c43;
+        dest.a44 = c44;
+        dest.f = f;
+        dest.q = a.q;
+    }
+    
+    /**
+     * Overwrites each dest[k] with the product g*generators[k], for 0 &lt= k &lt generators.length.
+     * 
+     * @param g any GL4ByteField.
+     * @param generators an array of GL4ByteField elements over the same field as g.
+     * @param dest an array of GL4ByteField elements, at least as long as generators, and 
+     * not containing g.
+     */
+    public static void multiplyAll(GL4ByteField g, GL4ByteField[] generators, GL4ByteField[] dest) {
+        for (int k = 0; k < generators.length; k++) {
+            multiplyInto(g, generators[k], dest[k]);
+        }
+    }
+
+    @Override
+    public void rightProductInto(GL4ByteField h, GL4ByteField dest) {
+        multiplyInto(this, h, dest);
+    }
+
+    @Override
+    public void rightProductsInto(GL4ByteField[] generators, GL4ByteField[] dest) {
+        multiplyAll(this, generators, dest);
+    }
+
+    @Override
+    public GL4ByteField copy() {
+        return new GL4ByteField(a11, a12, a13, a14,
+                a21, a22, a23, a24,
+                a31, a32, a33, a34,
+                a41, a42, a43, a44, f);
+    }
+
     @Override
     public GL4ByteField getInverse() {
         ByteField.Element[][] g = GLnByteField.getInverse(new ByteField.Element[][]{{f.getElement(a11), f.getElement(a12), f.getElement(a13), f.getElement(a14)}, 
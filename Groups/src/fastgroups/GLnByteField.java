@@ -17,7 +17,7 @@
  */
 package fastgroups;
 
-import api.Group;
+import api.BatchProductGroup;
 import finitefields.ByteField;
 import groups.GLn_PrimeField;
 import java.util.ArrayList;
@@ -28,7 +28,7 @@ import java.util.List;
  *
  * @author pdokos
  */
-public class GLnByteField implements Group<GLnByteField>{
+public class GLnByteField implements BatchProductGroup<GLnByteField>{
     
     ByteField f;
     byte dim;
@@ -185,26 +185,93 @@ public class GLnByteField implements Group<GLnByteField>{
 
     @Override
     public GLnByteField rightProductBy(GLnByteField h) {
-        byte[] prod = new byte[entries.length];
-        byte zero =f.zero().getIndex();
-        int ind=0;
-        int rowStartInd=0;
-        for (int i = 0; i < dim; i++) {
-            for (int j = 0; j < dim; j++) {
-                int rowInd=rowStartInd;
-                int colInd=j;
-                byte entry = zero;
-                for (int k = 0; k < dim; k++) {
-                    entry = f.add(entry, f.mult(entries[rowInd], h.entries[colInd]));
-                    rowInd++;
-                    colInd += dim;
+        GLnByteField prod = new GLnByteField(f, dim, new byte[entries.length]);
+        multiplyInto(this, h, prod);
+        return prod;
+    }
+    
+    /**
+     * Overwrites dest with the product a*b.  No objects are allocated, unless 
+     * the destination is a or b itself (which is permitted), or is of a 
+     * different dimension.
+     * 
+     * @param a any GLnByteField.
+     * @param b any GLnByteField over the same field and of the same dimension as a.
+     * @param dest any GLnByteField, which is overwritten with the product a*b.
+     */
+    public static void multiplyInto(GLnByteField a, GLnByteField b, GLnByteField dest) {
+        ByteField f = a.f;
+        int n = a.dim;
+        byte[] x = a.entries;
+        byte[] y = b.entries;
+        boolean aliased = (dest == a || dest == b || dest.entries.length != x.length);
+        byte[] prod = aliased ? new byte[x.length] : dest.entries;
+        int ind = 0;
+        for (int rowStart = 0; rowStart < x.length; rowStart += n) {
+            for (int j = 0; j < n; j++) {
+                byte entry = f.mult(x[rowStart], y[j]);
+                int colInd = j + n;
+                for (int k = 1; k < n; k++) {
+                    entry = f.add(entry, f.mult(x[rowStart + k], y[colInd]));
+                    colInd += n;
                 }
                 prod[ind] = entry;
                 ind++;
             }
-            rowStartInd += dim;
         }
-        return new GLnByteField(f, dim, prod);
+        dest.entries = prod;
+        dest.f = f;
+        dest.dim = a.dim;
+    }
+    
+    /**
+     * Overwrites each dest[k] with the product g*generators[k], for 0 &lt= k &lt generators.length.
+     * The products are computed in a single pass over the rows of g, each row 
+     * being multiplied against all of the generators before moving on to the next.
+     * 
+     * @param g any GLnByteField.
+     * @param generators an array of GLnByteField elements over the same field and of the same dimension as g.
+     * @param dest an array of GLnByteField elements of the same dimension as g, at least as long as 
+     * generators, with distinct elements not containing g or any of the generators.
+     */
+    public static void multiplyAll(GLnByteField g, GLnByteField[] generators, GLnByteField[] dest) {
+        ByteField f = g.f;
+        int n = g.dim;
+        byte[] x = g.entries;
+        for (int rowStart = 0; rowStart < x.length; rowStart += n) {
+            for (int s = 0; s < generators.length; s++) {
+                byte[] y = generators[s].entries;
+                byte[] prod = dest[s].entries;
+                for (int j = 0; j < n; j++) {
+                    byte entry = f.mult(x[rowStart], y[j]);
+                    int colInd = j + n;
+                    for (int k = 1; k < n; k++) {
+                        entry = f.add(entry, f.mult(x[rowStart + k], y[colInd]));
+                        colInd += n;
+                    }
+                    prod[rowStart + j] = entry;
+                }
+            }
+        }
+        for (int s = 0; s < generators.length; s++) {
+            dest[s].f = f;
+            dest[s].dim = g.dim;
+        }
+    }
+
+    @Override
+    public void rightProductInto(GLnByteField h, GLnByteField dest) {
+        multiplyInto(this, h, dest);
+    }
+
+    @Override
+    public void rightProductsInto(GLnByteField[] generators, GLnByteField[] dest) {
+        multiplyAll(this, generators, dest);
+    }
+
+    @Override
+    public GLnByteField copy() {
+        return new GLnByteField(f, dim, entries.clone());
     }
 
     @Override
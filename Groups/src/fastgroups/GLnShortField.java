@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package fastgroups;
+
+import api.InPlaceGroup;
+import finitefields.ShortField;
+import java.util.Arrays;
+
+/**
+ * A class that models the group of non-singular square matrices over a 
+ * ShortField, i.e.&#160over a finite field of order up to 65536, implemented in 
+ * the framework of the InPlaceGroup interface.  This class is the counterpart 
+ * of GLnByteField for the fields of order greater than 256: the entries are 
+ * held as the <code>short</code> indices of the field elements, in a single 
+ * array listing the rows of the matrix from top to bottom.
+ *
+ * @author pdokos
+ */
+public class GLnShortField implements InPlaceGroup<GLnShortField> {
+
+    ShortField f;
+    int dim;
+    short[] entries;
+
+    public GLnShortField(ShortField field, ShortField.Element[][] ents) {
+        f = field;
+        dim = ents.length;
+        entries = new short[dim * dim];
+        int ind = 0;
+        for (int i = 0; i < dim; i++) {
+            for (int j = 0; j < dim; j++) {
+                entries[ind] = ents[i][j].getIndex();
+                ind++;
+            }
+        }
+    }
+
+    public GLnShortField(ShortField field, short[][] ents) {
+        f = field;
+        dim = ents.length;
+        entries = new short[dim * dim];
+        for (int i = 0; i < dim; i++) {
+            System.arraycopy(ents[i], 0, entries, i * dim, dim);
+        }
+    }
+
+    public GLnShortField(ShortField field, int dimension, short[] ents) {
+        f = field;
+        dim = dimension;
+        entries = ents;
+    }
+
+    public GLnShortField(ShortField field, int n) {
+        f = field;
+        dim = n;
+        entries = new short[n * n];
+        short one = f.one().getIndex();
+        for (int i = 0; i < n; i++) {
+            entries[i * n + i] = one;
+        }
+    }
+
+    /**
+     * A static helper for producing the identity element of GLnShortField 
+     * over the field f.
+     * 
+     * @param n the dimension.
+     * @param f a <code>ShortField</code>.
+     * @return The identity element of GLnShortField.
+     */
+    public static GLnShortField constructIdentity(int n, ShortField f) {
+        return new GLnShortField(f, n);
+    }
+
+    private void scale(short lambda) {
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = f.mult(lambda, entries[i]);
+        }
+    }
+
+    /**
+     * Scales the matrix so that the first nonzero entry of its first column is 1.
+     */
+    public void project() {
+        int ind = 0;
+        while (ind < entries.length && entries[ind] == 0) {
+            ind += dim;
+        }
+        if (ind < entries.length) {
+            scale(f.inverse(entries[ind]));
+        }
+    }
+
+    public int getFieldOrder() {
+        return f.getOrder();
+    }
+
+    public ShortField getField() {
+        return f;
+    }
+
+    public int getDimension() {
+        return dim;
+    }
+
+    public ShortField.Element getEntry(int i, int j) {
+        return f.getElement(entries[dim * i + j]);
+    }
+
+    public ShortField.Element getEntry(int ind) {
+        return f.getElement(entries[ind]);
+    }
+
+    /**
+     * Computes the determinant by Gaussian elimination.
+     * 
+     * @return the index of the determinant of the matrix.
+     */
+    public short determinant() {
+        short[] rows = entries.clone();
+        short det = f.one().getIndex();
+        for (int k = 0; k < dim; k++) {
+            int pivot = k;
+            while (pivot < dim && rows[pivot * dim + k] == 0) {
+                pivot++;
+            }
+            if (pivot == dim) {
+                return 0;
+            }
+            if (pivot != k) {
+                for (int l = k; l < dim; l++) {
+                    short temp = rows[pivot * dim + l];
+                    rows[pivot * dim + l] = rows[k * dim + l];
+                    rows[k * dim + l] = temp;
+                }
+                det = f.negative(det);
+            }
+            short d = rows[k * dim + k];
+            det = f.mult(det, d);
+            short dInv = f.inverse(d);
+            for (int j = k + 1; j < dim; j++) {
+                short factor = f.negative(f.mult(rows[j * dim + k], dInv));
+                if (factor != 0) {
+                    for (int l = k; l < dim; l++) {
+                        rows[j * dim + l] = f.add(rows[j * dim + l], f.mult(factor, rows[k * dim + l]));
+                    }
+                }
+            }
+        }
+        return det;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof GLnShortField) {
+            return Arrays.equals(entries, ((GLnShortField) o).entries);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 47 * hash + Arrays.hashCode(entries);
+        return hash;
+    }
+
+    @Override
+    public GLnShortField leftProductBy(GLnShortField h) {
+        return h.rightProductBy(this);
+    }
+
+    @Override
+    public GLnShortField rightProductBy(GLnShortField h) {
+        GLnShortField prod = new GLnShortField(f, dim, new short[entries.length]);
+        multiplyInto(this, h, prod);
+        return prod;
+    }
+
+    /**
+     * Overwrites dest with the product a*b.  No objects are allocated, unless 
+     * the destination is a or b itself (which is permitted), or is of a 
+     * different dimension.
+     * 
+     * @param a any GLnShortField.
+     * @param b any GLnShortField over the same field and of the same dimension as a.
+     * @param dest any GLnShortField, which is overwritten with the product a*b.
+     */
+    public static void multiplyInto(GLnShortField a, GLnShortField b, GLnShortField dest) {
+        ShortField f = a.f;
+        int n = a.dim;
+        short[] x = a.entries;
+        short[] y = b.entries;
+        boolean aliased = (dest == a || dest == b || dest.entries.length != x.length);
+        short[] prod = aliased ? new short[x.length] : dest.entries;
+        int ind = 0;
+        for (int rowStart = 0; rowStart < x.length; rowStart += n) {
+            for (int j = 0; j < n; j++) {
+                short entry = f.mult(x[rowStart], y[j]);
+                int colInd = j + n;
+                for (int k = 1; k < n; k++) {
+                    entry = f.add(entry, f.mult(x[rowStart + k], y[colInd]));
+                    colInd += n;
+                }
+                prod[ind] = entry;
+                ind++;
+            }
+        }
+        dest.entries = prod;
+        dest.f = f;
+        dest.dim = n;
+    }
+
+    @Override
+    public void rightProductInto(GLnShortField h, GLnShortField dest) {
+        multiplyInto(this, h, dest);
+    }
+
+    @Override
+    public GLnShortField copy() {
+        return new GLnShortField(f, dim, entries.clone());
+    }
+
+    @Override
+    public GLnShortField getInverse() {
+        short[] rows = entries.clone();
+        short[] inv = new short[entries.length];
+        short one = f.one().getIndex();
+        for (int i = 0; i < dim; i++) {
+            inv[i * dim + i] = one;
+        }
+
+        for (int k = 0; k < dim; k++) {
+            int pivot = k;
+            while (pivot < dim && rows[pivot * dim + k] == 0) {
+                pivot++;
+            }
+            if (pivot == dim) {
+                return null;
+            }
+            if (pivot != k) { //switch rows
+                for (int l = 0; l < dim; l++) {
+                    short temp = rows[pivot * dim + l];
+                    rows[pivot * dim + l] = rows[k * dim + l];
+                    rows[k * dim + l] = temp;
+                    temp = inv[pivot * dim + l];
+                    inv[pivot * dim + l] = inv[k * dim + l];
+                    inv[k * dim + l] = temp;
+                }
+            }
+
+            short dInv = f.inverse(rows[k * dim + k]);
+            for (int l = 0; l < dim; l++) {
+                rows[k * dim + l] = f.mult(dInv, rows[k * dim + l]);
+                inv[k * dim + l] = f.mult(dInv, inv[k * dim + l]);
+            }
+
+            for (int j = 0; j < dim; j++) { //add - a[j][k] times kth row to the jth row
+                if (j != k && rows[j * dim + k] != 0) {
+                    short factor = f.negative(rows[j * dim + k]);
+                    for (int l = 0; l < dim; l++) {
+                        rows[j * dim + l] = f.add(rows[j * dim + l], f.mult(factor, rows[k * dim + l]));
+                        inv[j * dim + l] = f.add(inv[j * dim + l], f.mult(factor, inv[k * dim + l]));
+                    }
+                }
+            }
+        }
+        return new GLnShortField(f, dim, inv);
+    }
+
+    @Override
+    public GLnShortField getIdentity() {
+        return new GLnShortField(f, dim);
+    }
+
+    @Override
+    public boolean isOperationalWith(GLnShortField h) {
+        return f == h.f && dim == h.dim;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        int ind = 0;
+        for (int i = 0; i < dim; i++) {
+            for (int j = 0; j < dim; j++) {
+                sb.append(f.getElement(entries[ind]).toString());
+                if (j != dim - 1) {
+                    sb.append(", ");
+                }
+                ind++;
+            }
+            if (i != dim - 1) {
+                sb.append("; ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Returns a representation of the element making the call as a String
+     * consisting of n^2 + 1 integers separated by single spaces. The first n^2
+     * integers of the list are the (normalized) indices of the entries of the 
+     * matrix, listed by concatenating the rows of the matrix from top to bottom.  
+     * The last entry is the order of the base field.
+     * 
+     * @return A String representation of the element making the call
+     * consisting of n^2 + 1 integers separated by single spaces.
+     */
+    public String toUnpunctuatedString() {
+        StringBuilder sb = new StringBuilder();
+        for (int ind = 0; ind < entries.length; ind++) {
+            sb.append(ShortField.getNormalizedIndex(entries[ind])).append(' ');
+        }
+        sb.append(f.getOrder());
+        return sb.toString();
+    }
+
+}
@@ -17,14 +17,14 @@
  */
 package fastgroups;
 
-import api.Group;
+import api.BatchProductGroup;
 import finitefields.ByteField;
 
 /**
  *
  * @author pdokos
  */
-public class PGLnByteField implements Group<PGLnByteField>{
+public class PGLnByteField implements BatchProductGroup<PGLnByteField>{
    
     private GLnByteField g;
     
@@ -107,6 +107,49 @@ public class PGLnByteField implements Group<PGLnByteField>{
         return new PGLnByteField(g.rightProductBy(h.g));
     }
 
+    /**
+     * Overwrites dest with the product a*b, normalized as a projective 
+     * representative.  No objects are allocated, unless the destination is a 
+     * or b itself (which is permitted).
+     * 
+     * @param a any PGLnByteField.
+     * @param b any PGLnByteField over the same field and of the same dimension as a.
+     * @param dest any PGLnByteField, which is overwritten with the product a*b.
+     */
+    public static void multiplyInto(PGLnByteField a, PGLnByteField b, PGLnByteField dest) {
+        GLnByteField.multiplyInto(a.g, b.g, dest.g);
+        dest.g.project();
+    }
+    
+    /**
+     * Overwrites each dest[k] with the product g*generators[k], for 0 &lt= k &lt generators.length.
+     * 
+     * @param g any PGLnByteField.
+     * @param generators an array of PGLnByteField elements over the same field and of the same dimension as g.
+     * @param dest an array of PGLnByteField elements of the same dimension as g, at least as long as 
+     * generators, with distinct elements not containing g or any of the generators.
+     */
+    public static void multiplyAll(PGLnByteField g, PGLnByteField[] generators, PGLnByteField[] dest) {
+        for (int s = 0; s < generators.length; s++) {
+            multiplyInto(g, generators[s], dest[s]);
+        }
+    }
+
+    @Override
+    public void rightProductInto(PGLnByteField h, PGLnByteField dest) {
+        multiplyInto(this, h, dest);
+    }
+
+    @Override
+    public void rightProductsInto(PGLnByteField[] generators, PGLnByteField[] dest) {
+        multiplyAll(this, generators, dest);
+    }
+
+    @Override
+    public PGLnByteField copy() {
+        return new PGLnByteField(g.copy());
+    }
+
     @Override
     public PGLnByteField getInverse() {
         return new PGLnByteField(g.getInverse());
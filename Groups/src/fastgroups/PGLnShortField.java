@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package fastgroups;
+
+import api.InPlaceGroup;
+import basic_operations.Arithmetic;
+import finitefields.ShortField;
+
+/**
+ * A class that models the group of non-singular projective square matrices 
+ * over a ShortField, i.e.&#160over a finite field of order up to 65536, 
+ * implemented in the framework of the InPlaceGroup interface.  Elements are 
+ * represented by the GLnShortField matrix which has an entry of 1 as the first 
+ * nonzero entry of the first column.
+ *
+ * @author pdokos
+ */
+public class PGLnShortField implements InPlaceGroup<PGLnShortField> {
+
+    private GLnShortField g;
+
+    public PGLnShortField(ShortField field, ShortField.Element[][] entries) {
+        g = new GLnShortField(field, entries);
+        g.project();
+    }
+
+    public PGLnShortField(ShortField field, short[][] ents) {
+        g = new GLnShortField(field, ents);
+        g.project();
+    }
+
+    public PGLnShortField(ShortField f, int n) {
+        g = new GLnShortField(f, n);
+    }
+
+    public PGLnShortField(GLnShortField g) {
+        this.g = g;
+        g.project();
+    }
+
+    /**
+     * A static helper for producing the identity element of PGLnShortField 
+     * over the field f.
+     * 
+     * @param n the dimension.
+     * @param f a <code>ShortField</code>.
+     * @return The identity element of PGLnShortField.
+     */
+    public static PGLnShortField constructIdentity(int n, ShortField f) {
+        return new PGLnShortField(f, n);
+    }
+
+    /**
+     * Determines whether the element making the call lies in the subgroup 
+     * PSLn, i.e.&#160whether the determinant of its representative is an n-th 
+     * power, n being the dimension.  For instance, the Cayley graphs of PSL2(F_q)
+     * are those whose generators all lie in PSL2.
+     * 
+     * @return true if the element making the call lies in PSLn.
+     */
+    public boolean isInPSLn() {
+        ShortField f = g.getField();
+        int k = Arithmetic.gcd(g.getDimension(), f.getOrder() - 1);
+        return f.log(g.determinant()) % k == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PGLnShortField) {
+            return g.equals(((PGLnShortField) o).g);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return g.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return g.toString();
+    }
+
+    public String toUnpunctuatedString() {
+        return g.toUnpunctuatedString();
+    }
+
+    public ShortField getField() {
+        return g.getField();
+    }
+
+    public int getFieldOrder() {
+        return g.getFieldOrder();
+    }
+
+    public int getDimension() {
+        return g.getDimension();
+    }
+
+    public ShortField.Element getEntry(int i, int j) {
+        return g.getEntry(i, j);
+    }
+
+    @Override
+    public PGLnShortField leftProductBy(PGLnShortField h) {
+        return new PGLnShortField(g.leftProductBy(h.g));
+    }
+
+    @Override
+    public PGLnShortField rightProductBy(PGLnShortField h) {
+        return new PGLnShortField(g.rightProductBy(h.g));
+    }
+
+    /**
+     * Overwrites dest with the product a*b, normalized as a projective 
+     * representative.  No objects are allocated, unless the destination is a 
+     * or b itself (which is permitted).
+     * 
+     * @param a any PGLnShortField.
+     * @param b any PGLnShortField over the same field and of the same dimension as a.
+     * @param dest any PGLnShortField, which is overwritten with the product a*b.
+     */
+    public static void multiplyInto(PGLnShortField a, PGLnShortField b, PGLnShortField dest) {
+        GLnShortField.multiplyInto(a.g, b.g, dest.g);
+        dest.g.project();
+    }
+
+    @Override
+    public void rightProductInto(PGLnShortField h, PGLnShortField dest) {
+        multiplyInto(this, h, dest);
+    }
+
+    @Override
+    public PGLnShortField copy() {
+        return new PGLnShortField(g.copy());
+    }
+
+    @Override
+    public PGLnShortField getInverse() {
+        return new PGLnShortField(g.getInverse());
+    }
+
+    @Override
+    public PGLnShortField getIdentity() {
+        return new PGLnShortField(g.getField(), g.getDimension());
+    }
+
+    @Override
+    public boolean isOperationalWith(PGLnShortField h) {
+        return g.isOperationalWith(h.g);
+    }
+
+}
@@ -19,6 +19,7 @@ package groups;
 
 import java.util.Random;
 import basic_operations.Arithmetic;
+import basic_operations.ModulusContext;
 import api.Group;
 
 /**
@@ -70,10 +71,11 @@ public class GL2_PrimeField implements Group<GL2_PrimeField> {
      * @param q any <code>short</code> integer prime
      */
     public GL2_PrimeField(int a, int b, int c, int d, short q) {
-        this.a = Arithmetic.reduce(a, q);
-        this.b = Arithmetic.reduce(b, q);
-        this.c = Arithmetic.reduce(c, q);
-        this.d = Arithmetic.reduce(d, q);
+        ModulusContext mc = ModulusContext.of(q);
+        this.a = (short) mc.reduce(a);
+        this.b = (short) mc.reduce(b);
+        this.c = (short) mc.reduce(c);
+        this.d = (short) mc.reduce(d);
         this.q = q;
     }
 
@@ -251,10 +253,9 @@ public class GL2_PrimeField implements Group<GL2_PrimeField> {
     @Override
     public GL2_PrimeField leftProductBy(GL2_PrimeField h) {
         if (h.getFieldOrder()== q) {
-        return new GL2_PrimeField(Arithmetic.reducedSum(Arithmetic.reducedProduct(h.getA(), a, q), Arithmetic.reducedProduct(h.getB(), c, q), q), 
-                                  Arithmetic.reducedSum(Arithmetic.reducedProduct(h.getA(), b, q), Arithmetic.reducedProduct(h.getB(), d, q), q),
-                                  Arithmetic.reducedSum(Arithmetic.reducedProduct(h.getC(), a, q), Arithmetic.reducedProduct(h.getD(), c, q), q), 
-                                  Arithmetic.reducedSum(Arithmetic.reducedProduct(h.getC(), b, q), Arithmetic.reducedProduct(h.getD(), d, q), q), q);
+        ModulusContext mc = ModulusContext.of(q);
+        return new GL2_PrimeField(mc.dot2(h.getA(), a, h.getB(), c), mc.dot2(h.getA(), b, h.getB(), d),
+                                  mc.dot2(h.getC(), a, h.getD(), c), mc.dot2(h.getC(), b, h.getD(), d), q);
         }
         return null;
     }
@@ -265,10 +266,9 @@ public class GL2_PrimeField implements Group<GL2_PrimeField> {
     @Override
     public GL2_PrimeField rightProductBy(GL2_PrimeField h) {
         if (h.getFieldOrder()== q) {
-        return new GL2_PrimeField(Arithmetic.reducedSum(Arithmetic.reducedProduct(a, h.getA(), q), Arithmetic.reducedProduct(b, h.getC(), q), q), 
-                                  Arithmetic.reducedSum(Arithmetic.reducedProduct(a, h.getB(), q), Arithmetic.reducedProduct(b, h.getD(), q), q),
-                                  Arithmetic.reducedSum(Arithmetic.reducedProduct(c, h.getA(), q), Arithmetic.reducedProduct(d, h.getC(), q), q), 
-                                  Arithmetic.reducedSum(Arithmetic.reducedProduct(c, h.getB(), q), Arithmetic.reducedProduct(d, h.getD(), q), q),q);
+        ModulusContext mc = ModulusContext.of(q);
+        return new GL2_PrimeField(mc.dot2(a, h.getA(), b, h.getC()), mc.dot2(a, h.getB(), b, h.getD()),
+                                  mc.dot2(c, h.getA(), d, h.getC()), mc.dot2(c, h.getB(), d, h.getD()), q);
         }
         return null;
     }
@@ -19,6 +19,7 @@ package groups;
 
 import java.util.Random;
 import basic_operations.Arithmetic;
+import basic_operations.ModulusContext;
 import api.Group;
 
 /**
@@ -39,7 +40,9 @@ import api.Group;
  * 
  * <p>
  * Remark: The arithmetic operations mod q in this class are delegated to the 
- * class basic_operations.Arithmetic of the Arithmetic module.
+ * class basic_operations.ModulusContext of the Arithmetic module, and inverses
+ * to Arithmetic.findInverse, so that for a prime q normalizing the matrix 
+ * representative amounts to a lookup in the cached PrimeFieldTables of q.
  * </p>
  * 
  * @author pdokos
@@ -72,7 +75,8 @@ public class PGL2_PrimeField implements Group<PGL2_PrimeField> {
      */
     public PGL2_PrimeField(int a, int b, int c, int d, short q) {
 
-        short[] ents = {Arithmetic.reduce(a, q), Arithmetic.reduce(b, q), Arithmetic.reduce(c, q), Arithmetic.reduce(d, q)};
+        ModulusContext mc = ModulusContext.of(q);
+        short[] ents = {(short) mc.reduce(a), (short) mc.reduce(b), (short) mc.reduce(c), (short) mc.reduce(d)};
 
         this.q = q;
 
@@ -80,15 +84,15 @@ public class PGL2_PrimeField implements Group<PGL2_PrimeField> {
         if (ents[0] != 0) {
             prop = Arithmetic.findInverse(ents[0], q);
             this.a = 1;
-            this.c = Arithmetic.reducedProduct(ents[2], prop, q);
+            this.c = (short) mc.mul(ents[2], prop);
         } else {
             prop = Arithmetic.findInverse(ents[2], q);
             this.a = 0;
             this.c = 1;
         }
 
-        this.b = Arithmetic.reducedProduct(ents[1], prop, q);
-        this.d = Arithmetic.reducedProduct(ents[3], prop, q);
+        this.b = (short) mc.mul(ents[1], prop);
+        this.d = (short) mc.mul(ents[3], prop);
 
     }
     
@@ -287,10 +291,9 @@ public class PGL2_PrimeField implements Group<PGL2_PrimeField> {
     @Override
     public PGL2_PrimeField leftProductBy(PGL2_PrimeField h) {
         if (h.getFieldOrder()== q) {
-        return new PGL2_PrimeField(Arithmetic.reducedSum(Arithmetic.reducedProduct(h.getA(), a, q), Arithmetic.reducedProduct(h.getB(), c, q), q), 
-                                   Arithmetic.reducedSum(Arithmetic.reducedProduct(h.getA(), b, q), Arithmetic.reducedProduct(h.getB(), d, q), q),
-                                   Arithmetic.reducedSum(Arithmetic.reducedProduct(h.getC(), a, q), Arithmetic.reducedProduct(h.getD(), c, q), q), 
-                                   Arithmetic.reducedSum(Arithmetic.reducedProduct(h.getC(), b, q), Arithmetic.reducedProduct(h.getD(), d, q), q), q);
+        ModulusContext mc = ModulusContext.of(q);
+        return new PGL2_PrimeField(mc.dot2(h.getA(), a, h.getB(), c), mc.dot2(h.getA(), b, h.getB(), d),
+                                   mc.dot2(h.getC(), a, h.getD(), c), mc.dot2(h.getC(), b, h.getD(), d), q);
         }
         return null;
     }
@@ -301,10 +304,9 @@ public class PGL2_PrimeField implements Group<PGL2_PrimeField> {
     @Override
     public PGL2_PrimeField rightProductBy(PGL2_PrimeField h) {
         if (h.getFieldOrder()== q) {
-        return new PGL2_PrimeField(Arithmetic.reducedSum(Arithmetic.reducedProduct(a, h.getA(), q), Arithmetic.reducedProduct(b, h.getC(), q), q), 
-                                   Arithmetic.reducedSum(Arithmetic.reducedProduct(a, h.getB(), q), Arithmetic.reducedProduct(b, h.getD(), q), q),
-                                   Arithmetic.reducedSum(Arithmetic.reducedProduct(c, h.getA(), q), Arithmetic.reducedProduct(d, h.getC(), q), q), 
-                                   Arithmetic.reducedSum(Arithmetic.reducedProduct(c, h.getB(), q), Arithmetic.reducedProduct(d, h.getD(), q), q),q);
+        ModulusContext mc = ModulusContext.of(q);
+        return new PGL2_PrimeField(mc.dot2(a, h.getA(), b, h.getC()), mc.dot2(a, h.getB(), b, h.getD()),
+                                   mc.dot2(c, h.getA(), d, h.getC()), mc.dot2(c, h.getB(), d, h.getD()), q);
         }
         return null;
     }
@@ -304,6 +304,7 @@ public class FileRWUtility {
         BufferedReader in = new BufferedReader(fr);
         String s = in.readLine();
         if (s.equals("GLn")) {
+            int primeModulus = -1; //the last modulus validated as a prime, -1 if none
             s = in.readLine();
             while (!(s == null)) {
                 Scanner scanner = new Scanner(s);
@@ -314,7 +315,10 @@ public class FileRWUtility {
                 scanner.close();
                 int dim = Arithmetic.perfSqrt(entries.size() - 1);
                 int q = entries.get(entries.size() - 1);
-                if (dim > 0 && Arithmetic.isPrime(q)) {
+                if (q != primeModulus && Arithmetic.isPrime(q)) {
+                    primeModulus = q;
+                }
+                if (dim > 0 && q == primeModulus) {
                     int[][] mtx = new int[dim][dim];
                     for (int i = 0; i < dim; i++) {
                         for (int j = 0; j < dim; j++) {
@@ -355,6 +359,7 @@ public class FileRWUtility {
         BufferedReader in = new BufferedReader(fr);
         String s = in.readLine();
         if (s.equals("PGLn")) {
+            int primeModulus = -1; //the last modulus validated as a prime, -1 if none
             s = in.readLine();
             while (!(s == null)) {
                 Scanner scanner = new Scanner(s);
@@ -365,7 +370,10 @@ public class FileRWUtility {
                 scanner.close();
                 int dim = Arithmetic.perfSqrt(entries.size() - 1);
                 int q = entries.get(entries.size() - 1);
-                if (dim > 0 && Arithmetic.isPrime(q)) {
+                if (q != primeModulus && Arithmetic.isPrime(q)) {
+                    primeModulus = q;
+                }
+                if (dim > 0 && q == primeModulus) {
                     int[][] mtx = new int[dim][dim];
                     for (int i = 0; i < dim; i++) {
                         for (int j = 0; j < dim; j++) {
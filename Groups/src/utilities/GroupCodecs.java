@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package utilities;
+
+import api.GroupCodec;
+import fastgroups.GL2ByteField;
+import fastgroups.GLnByteField;
+import fastgroups.GLnShortField;
+import fastgroups.PGL2ByteField;
+import fastgroups.PGLnByteField;
+import fastgroups.PGLnShortField;
+import finitefields.ByteField;
+import finitefields.ShortField;
+import groups.GL2_PrimeField;
+import groups.GLn_PrimeField;
+import groups.PGL2_PrimeField;
+import groups.PGLn_PrimeField;
+import groups.SymmetricGroup;
+
+/**
+ * A collection of static methods for producing GroupCodec implementations for
+ * the groups modeled in the groups and fastgroups packages.
+ *
+ * <p>
+ * The matrix groups are encoded by packing the entries of their (reduced)
+ * matrix representatives row by row, with ceil(log2(q)) bits per entry, where q
+ * is the order of the base field.  For the ByteField and ShortField groups the
+ * entries are the (normalized) indices of the field elements.  The elements of the Symmetric Group on n
+ * letters are encoded by packing the images of the letters 0, 1, ..., n-1, with
+ * ceil(log2(n)) bits per image.  In particular, PGL2 and GL2 over any
+ * <code>short</code> prime field, GLn and PGLn over F_16 for n&lt=4, and the
+ * Symmetric Group on up to 16 letters are all encoded by single <code>long</code> words.
+ * </p>
+ *
+ * @author pdokos
+ */
+public class GroupCodecs {
+
+    private GroupCodecs() {}
+
+    /**
+     * Returns a GroupCodec for PGL2_PrimeField over the field of q elements.
+     *
+     * @param q a <code>short</code> integer prime.
+     * @return A GroupCodec for PGL2_PrimeField over the field of q elements.
+     */
+    public static GroupCodec<PGL2_PrimeField> forPGL2_PrimeField(final short q) {
+        return new PackedGroupCodec<PGL2_PrimeField>(4, q) {
+
+            @Override
+            protected int getEntry(PGL2_PrimeField g, int k) {
+                switch (k) {
+                    case 0: return g.getA();
+                    case 1: return g.getB();
+                    case 2: return g.getC();
+                    default: return g.getD();
+                }
+            }
+
+            @Override
+            protected PGL2_PrimeField construct(int[] entries) {
+                return new PGL2_PrimeField(entries[0], entries[1], entries[2], entries[3], q);
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for GL2_PrimeField over the field of q elements.
+     *
+     * @param q a <code>short</code> integer prime.
+     * @return A GroupCodec for GL2_PrimeField over the field of q elements.
+     */
+    public static GroupCodec<GL2_PrimeField> forGL2_PrimeField(final short q) {
+        return new PackedGroupCodec<GL2_PrimeField>(4, q) {
+
+            @Override
+            protected int getEntry(GL2_PrimeField g, int k) {
+                switch (k) {
+                    case 0: return g.getA();
+                    case 1: return g.getB();
+                    case 2: return g.getC();
+                    default: return g.getD();
+                }
+            }
+
+            @Override
+            protected GL2_PrimeField construct(int[] entries) {
+                return new GL2_PrimeField(entries[0], entries[1], entries[2], entries[3], q);
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for GLn_PrimeField in dimension n over the field of q elements.
+     *
+     * @param n a positive <code>int</code> value.
+     * @param q a <code>short</code> integer prime.
+     * @return A GroupCodec for GLn_PrimeField in dimension n over the field of q elements.
+     */
+    public static GroupCodec<GLn_PrimeField> forGLn_PrimeField(final int n, final short q) {
+        return new PackedGroupCodec<GLn_PrimeField>(n * n, q) {
+
+            @Override
+            protected int getEntry(GLn_PrimeField g, int k) {
+                return g.getEntry(k / n, k % n);
+            }
+
+            @Override
+            protected GLn_PrimeField construct(int[] entries) {
+                return new GLn_PrimeField(toSquareMatrix(entries, n), q);
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for PGLn_PrimeField in dimension n over the field of q elements.
+     *
+     * @param n a positive <code>int</code> value.
+     * @param q a <code>short</code> integer prime.
+     * @return A GroupCodec for PGLn_PrimeField in dimension n over the field of q elements.
+     */
+    public static GroupCodec<PGLn_PrimeField> forPGLn_PrimeField(final int n, final short q) {
+        return new PackedGroupCodec<PGLn_PrimeField>(n * n, q) {
+
+            @Override
+            protected int getEntry(PGLn_PrimeField g, int k) {
+                return g.getEntry(k / n, k % n);
+            }
+
+            @Override
+            protected PGLn_PrimeField construct(int[] entries) {
+                return new PGLn_PrimeField(toSquareMatrix(entries, n), q);
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for GL2ByteField over the field f.
+     *
+     * @param f a <code>ByteField</code>.
+     * @return A GroupCodec for GL2ByteField over the field f.
+     */
+    public static GroupCodec<GL2ByteField> forGL2ByteField(final ByteField f) {
+        return new PackedGroupCodec<GL2ByteField>(4, f.getOrder()) {
+
+            @Override
+            protected int getEntry(GL2ByteField g, int k) {
+                switch (k) {
+                    case 0: return ByteField.getNormalizedIndex(g.getA());
+                    case 1: return ByteField.getNormalizedIndex(g.getB());
+                    case 2: return ByteField.getNormalizedIndex(g.getC());
+                    default: return ByteField.getNormalizedIndex(g.getD());
+                }
+            }
+
+            @Override
+            protected GL2ByteField construct(int[] entries) {
+                return new GL2ByteField((byte) entries[0], (byte) entries[1], (byte) entries[2], (byte) entries[3], f);
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for PGL2ByteField over the field f.
+     *
+     * @param f a <code>ByteField</code>.
+     * @return A GroupCodec for PGL2ByteField over the field f.
+     */
+    public static GroupCodec<PGL2ByteField> forPGL2ByteField(final ByteField f) {
+        return new PackedGroupCodec<PGL2ByteField>(4, f.getOrder()) {
+
+            @Override
+            protected int getEntry(PGL2ByteField g, int k) {
+                switch (k) {
+                    case 0: return ByteField.getNormalizedIndex(g.getA());
+                    case 1: return ByteField.getNormalizedIndex(g.getB());
+                    case 2: return ByteField.getNormalizedIndex(g.getC());
+                    default: return ByteField.getNormalizedIndex(g.getD());
+                }
+            }
+
+            @Override
+            protected PGL2ByteField construct(int[] entries) {
+                return new PGL2ByteField((byte) entries[0], (byte) entries[1], (byte) entries[2], (byte) entries[3], f);
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for GLnByteField in dimension n over the field f.
+     *
+     * @param n a positive <code>int</code> value.
+     * @param f a <code>ByteField</code>.
+     * @return A GroupCodec for GLnByteField in dimension n over the field f.
+     */
+    public static GroupCodec<GLnByteField> forGLnByteField(final int n, final ByteField f) {
+        return new PackedGroupCodec<GLnByteField>(n * n, f.getOrder()) {
+
+            @Override
+            protected int getEntry(GLnByteField g, int k) {
+                return g.getEntry(k).getNormalizedIndex();
+            }
+
+            @Override
+            protected GLnByteField construct(int[] entries) {
+                return new GLnByteField(f, (byte) n, toByteArray(entries));
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for PGLnByteField in dimension n over the field f.
+     *
+     * @param n a positive <code>int</code> value.
+     * @param f a <code>ByteField</code>.
+     * @return A GroupCodec for PGLnByteField in dimension n over the field f.
+     */
+    public static GroupCodec<PGLnByteField> forPGLnByteField(final int n, final ByteField f) {
+        return new PackedGroupCodec<PGLnByteField>(n * n, f.getOrder()) {
+
+            @Override
+            protected int getEntry(PGLnByteField g, int k) {
+                return g.getEntry(k / n, k % n).getNormalizedIndex();
+            }
+
+            @Override
+            protected PGLnByteField construct(int[] entries) {
+                return new PGLnByteField(new GLnByteField(f, (byte) n, toByteArray(entries)));
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for GLnShortField in dimension n over the field f.
+     *
+     * @param n a positive <code>int</code> value.
+     * @param f a <code>ShortField</code>.
+     * @return A GroupCodec for GLnShortField in dimension n over the field f.
+     */
+    public static GroupCodec<GLnShortField> forGLnShortField(final int n, final ShortField f) {
+        return new PackedGroupCodec<GLnShortField>(n * n, f.getOrder()) {
+
+            @Override
+            protected int getEntry(GLnShortField g, int k) {
+                return g.getEntry(k).getNormalizedIndex();
+            }
+
+            @Override
+            protected GLnShortField construct(int[] entries) {
+                return new GLnShortField(f, n, toShortArray(entries));
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for PGLnShortField in dimension n over the field f.
+     *
+     * @param n a positive <code>int</code> value.
+     * @param f a <code>ShortField</code>.
+     * @return A GroupCodec for PGLnShortField in dimension n over the field f.
+     */
+    public static GroupCodec<PGLnShortField> forPGLnShortField(final int n, final ShortField f) {
+        return new PackedGroupCodec<PGLnShortField>(n * n, f.getOrder()) {
+
+            @Override
+            protected int getEntry(PGLnShortField g, int k) {
+                return g.getEntry(k / n, k % n).getNormalizedIndex();
+            }
+
+            @Override
+            protected PGLnShortField construct(int[] entries) {
+                return new PGLnShortField(new GLnShortField(f, n, toShortArray(entries)));
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupCodec for the Symmetric Group on n letters.
+     *
+     * @param n a positive <code>int</code> value.
+     * @return A GroupCodec for the Symmetric Group on n letters.
+     */
+    public static GroupCodec<SymmetricGroup> forSymmetricGroup(int n) {
+        return new PackedGroupCodec<SymmetricGroup>(n, n) {
+
+            @Override
+            protected int getEntry(SymmetricGroup g, int k) {
+                return g.getImageOf(k);
+            }
+
+            @Override
+            protected SymmetricGroup construct(int[] entries) {
+                return new SymmetricGroup(entries);
+            }
+        };
+    }
+
+    private static int[][] toSquareMatrix(int[] entries, int n) {
+        int[][] mtx = new int[n][n];
+        int ind = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                mtx[i][j] = entries[ind];
+                ind++;
+            }
+        }
+        return mtx;
+    }
+
+    private static byte[] toByteArray(int[] entries) {
+        byte[] ents = new byte[entries.length];
+        for (int k = 0; k < entries.length; k++) {
+            ents[k] = (byte) entries[k];
+        }
+        return ents;
+    }
+
+    private static short[] toShortArray(int[] entries) {
+        short[] ents = new short[entries.length];
+        for (int k = 0; k < entries.length; k++) {
+            ents[k] = (short) entries[k];
+        }
+        return ents;
+    }
+
+}
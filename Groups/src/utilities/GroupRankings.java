@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package utilities;
+
+import api.GroupRanking;
+import basic_operations.Arithmetic;
+import fastgroups.PGL2ByteField;
+import fastgroups.PGLnByteField;
+import finitefields.ByteField;
+import groups.PGL2_PrimeField;
+import groups.PGLn_PrimeField;
+
+/**
+ * A collection of static methods for producing GroupRanking implementations for
+ * the projective matrix groups modeled in the groups and fastgroups packages.
+ *
+ * <p>
+ * All of the rankings are instances of ProjectiveMatrixRanking, and rank the 
+ * elements through their reduced matrix representatives.  For the prime field
+ * groups the entries are the integer representatives 0, 1, ..., q-1, and for the
+ * ByteField groups they are the indices of the field elements.  The rank of an
+ * element depends only on its reduced matrix representative, so that PGL2_PrimeField
+ * and PGLn_PrimeField (with n=2) rank equal matrices equally, as do PGL2ByteField 
+ * and PGLnByteField.
+ * </p>
+ *
+ * @author pdokos
+ */
+public class GroupRankings {
+
+    private GroupRankings() {}
+
+    /**
+     * Returns a GroupRanking for PGL2_PrimeField over the field of q elements.
+     *
+     * @param q a <code>short</code> integer prime.
+     * @return A GroupRanking for PGL2_PrimeField over the field of q elements.
+     */
+    public static GroupRanking<PGL2_PrimeField> forPGL2_PrimeField(final short q) {
+        return new PrimeFieldRanking<PGL2_PrimeField>(2, q) {
+
+            @Override
+            protected int getEntry(PGL2_PrimeField g, int i, int j) {
+                if (i == 0) {
+                    return (j == 0) ? g.getA() : g.getB();
+                }
+                return (j == 0) ? g.getC() : g.getD();
+            }
+
+            @Override
+            protected PGL2_PrimeField construct(int[][] mtx) {
+                return new PGL2_PrimeField(mtx, q);
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupRanking for PGLn_PrimeField in dimension n over the field of q elements.
+     *
+     * @param n a positive <code>int</code> value.
+     * @param q a <code>short</code> integer prime.
+     * @return A GroupRanking for PGLn_PrimeField in dimension n over the field of q elements.
+     */
+    public static GroupRanking<PGLn_PrimeField> forPGLn_PrimeField(int n, final short q) {
+        return new PrimeFieldRanking<PGLn_PrimeField>(n, q) {
+
+            @Override
+            protected int getEntry(PGLn_PrimeField g, int i, int j) {
+                return g.getEntry(i, j);
+            }
+
+            @Override
+            protected PGLn_PrimeField construct(int[][] mtx) {
+                return new PGLn_PrimeField(mtx, q);
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupRanking for PGL2ByteField over the field f.
+     *
+     * @param f a <code>ByteField</code>.
+     * @return A GroupRanking for PGL2ByteField over the field f.
+     */
+    public static GroupRanking<PGL2ByteField> forPGL2ByteField(final ByteField f) {
+        return new ByteFieldRanking<PGL2ByteField>(2, f) {
+
+            @Override
+            protected int getEntry(PGL2ByteField g, int i, int j) {
+                if (i == 0) {
+                    return ByteField.getNormalizedIndex((j == 0) ? g.getA() : g.getB());
+                }
+                return ByteField.getNormalizedIndex((j == 0) ? g.getC() : g.getD());
+            }
+
+            @Override
+            protected PGL2ByteField construct(int[][] mtx) {
+                return new PGL2ByteField((byte) mtx[0][0], (byte) mtx[0][1], (byte) mtx[1][0], (byte) mtx[1][1], f);
+            }
+        };
+    }
+
+    /**
+     * Returns a GroupRanking for PGLnByteField in dimension n over the field f.
+     *
+     * @param n a positive <code>int</code> value.
+     * @param f a <code>ByteField</code>.
+     * @return A GroupRanking for PGLnByteField in dimension n over the field f.
+     */
+    public static GroupRanking<PGLnByteField> forPGLnByteField(final int n, final ByteField f) {
+        return new ByteFieldRanking<PGLnByteField>(n, f) {
+
+            @Override
+            protected int getEntry(PGLnByteField g, int i, int j) {
+                return g.getEntry(i, j).getNormalizedIndex();
+            }
+
+            @Override
+            protected PGLnByteField construct(int[][] mtx) {
+                byte[][] ents = new byte[n][n];
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        ents[i][j] = (byte) mtx[i][j];
+                    }
+                }
+                return new PGLnByteField(f, ents);
+            }
+        };
+    }
+
+    /**
+     * The arithmetic of the field of q elements, for q prime, with a table of 
+     * inverses computed upon construction.
+     */
+    private static abstract class PrimeFieldRanking<T> extends ProjectiveMatrixRanking<T> {
+
+        private final int q;
+        private final int[] inverses;
+
+        PrimeFieldRanking(int n, short q) {
+            super(n, q);
+            this.q = q;
+            inverses = new int[q];
+            for (int x = 1; x < q; x++) {
+                inverses[x] = Arithmetic.findInverse(x, q);
+            }
+        }
+
+        @Override
+        protected int add(int x, int y) {
+            int s = x + y;
+            return (s >= q) ? s - q : s;
+        }
+
+        @Override
+        protected int multiply(int x, int y) {
+            return (x * y) % q;
+        }
+
+        @Override
+        protected int negative(int x) {
+            return (x == 0) ? 0 : q - x;
+        }
+
+        @Override
+        protected int inverse(int x) {
+            return inverses[x];
+        }
+    }
+
+    /**
+     * The arithmetic of a ByteField, on the normalized indices of its elements.
+     */
+    private static abstract class ByteFieldRanking<T> extends ProjectiveMatrixRanking<T> {
+
+        private final ByteField f;
+
+        ByteFieldRanking(int n, ByteField f) {
+            super(n, f.getOrder());
+            this.f = f;
+        }
+
+        @Override
+        protected int add(int x, int y) {
+            return ByteField.getNormalizedIndex(f.add((byte) x, (byte) y));
+        }
+
+        @Override
+        protected int multiply(int x, int y) {
+            return ByteField.getNormalizedIndex(f.mult((byte) x, (byte) y));
+        }
+
+        @Override
+        protected int negative(int x) {
+            return ByteField.getNormalizedIndex(f.negative((byte) x));
+        }
+
+        @Override
+        protected int inverse(int x) {
+            return ByteField.getNormalizedIndex(f.inverse((byte) x));
+        }
+    }
+
+}
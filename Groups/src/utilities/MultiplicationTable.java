@@ -0,0 +1,407 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package utilities;
+
+import api.Group;
+import api.GroupRanking;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A precomputed table of the right action of a fixed generating set S on a 
+ * finite group G, over the ranks of the elements of G under a GroupRanking.
+ *
+ * <p>
+ * The table is a single <code>int</code> array of length |G|*|S|, whose entry at
+ * position r*|S| + k is the rank of g*s_k, where g is the element of rank r and 
+ * s_k is the k-th generator.  Once the table is built, a product by a generator 
+ * is a single array lookup, so that algorithms which repeatedly multiply by the 
+ * same generators (such as the construction of Cayley graphs, or the simulation 
+ * of random walks) need not redo the group arithmetic.  The table holds up to
+ * <code>Integer.MAX_VALUE</code> entries, e.g.&#160the 4 generators of a group 
+ * of several hundred million elements.
+ * </p>
+ *
+ * <p>
+ * The rows of the table are computed independently of one another, and may be
+ * computed concurrently on the threads of an ExecutorService, each task filling
+ * a contiguous range of rows.
+ * </p>
+ *
+ * <p>
+ * The table is also exposed as a group in its own right, through the inner 
+ * class Element, which implements the Group interface over the ranks: the 
+ * product of an Element by a generator is looked up in the table, and all other
+ * operations are carried out by unranking, multiplying and ranking.  In 
+ * particular, a Cayley graph built by CayleyGraphBuilder with the generators
+ * returned by getGeneratorElements() is built from table lookups alone.
+ * </p>
+ *
+ * @author pdokos
+ *
+ * @param <T> The group implementation.
+ */
+public class MultiplicationTable<T extends Group<T>> {
+
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int UNKNOWN_GENERATOR_INDEX = -2;
+
+    private final GroupRanking<T> ranking;
+    private final List<T> generators;
+    private final int[] generatorRanks;
+    private final int order;
+    private final int degree;
+    private final int identityRank;
+    private final int[] table;
+
+    /**
+     * Constructor for the MultiplicationTable of the given generators, computed 
+     * on the calling thread.
+     *
+     * @param ranking a GroupRanking for the group.
+     * @param generators a non-empty collection of elements of the group.
+     * @throws IllegalArgumentException if the table would exceed 
+     * <code>Integer.MAX_VALUE</code> entries.
+     */
+    public MultiplicationTable(GroupRanking<T> ranking, Collection<T> generators) {
+        this(ranking, generators, null, 1);
+    }
+
+    /**
+     * Constructor for the MultiplicationTable of the given generators, computed 
+     * on a newly created pool of numThreads threads, which is shut down upon 
+     * completion.
+     *
+     * @param ranking a GroupRanking for the group.
+     * @param generators a non-empty collection of elements of the group.
+     * @param numThreads the number of threads on which the table is computed.
+     * @throws IllegalArgumentException if the table would exceed 
+     * <code>Integer.MAX_VALUE</code> entries.
+     */
+    public MultiplicationTable(GroupRanking<T> ranking, Collection<T> generators, int numThreads) {
+        this(ranking, generators, Executors.newFixedThreadPool(numThreads), numThreads, true);
+    }
+
+    /**
+     * Constructor for the MultiplicationTable of the given generators, with the 
+     * rows of the table computed by tasks submitted to the given executor, 
+     * which is left running.
+     *
+     * @param ranking a GroupRanking for the group.
+     * @param generators a non-empty collection of elements of the group.
+     * @param executor the ExecutorService on which the table is computed, or 
+     * null for the table to be computed on the calling thread.
+     * @param parallelism the number of threads of the executor.  The rows are 
+     * split into a small multiple of this many tasks.
+     * @throws IllegalArgumentException if the table would exceed 
+     * <code>Integer.MAX_VALUE</code> entries.
+     */
+    public MultiplicationTable(GroupRanking<T> ranking, Collection<T> generators, ExecutorService executor, int parallelism) {
+        this(ranking, generators, executor, parallelism, false);
+    }
+
+    private MultiplicationTable(GroupRanking<T> ranking, Collection<T> generators, ExecutorService executor, int parallelism, boolean shutdown) {
+        try {
+            Set<T> distinct = new LinkedHashSet<T>(generators);
+            if (distinct.isEmpty()) {
+                throw new IllegalArgumentException("The collection of generators must not be empty.");
+            }
+            long numEntries = ranking.getOrder() * distinct.size();
+            if (ranking.getOrder() > Integer.MAX_VALUE || numEntries > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("A table of " + ranking.getOrder() + "*" + distinct.size() + " entries exceeds Integer.MAX_VALUE.");
+            }
+            this.ranking = ranking;
+            this.generators = new ArrayList<T>(distinct);
+            order = (int) ranking.getOrder();
+            degree = distinct.size();
+            generatorRanks = new int[degree];
+            for (int k = 0; k < degree; k++) {
+                generatorRanks[k] = (int) ranking.rank(this.generators.get(k));
+            }
+            identityRank = (int) ranking.rank(this.generators.get(0).getIdentity());
+            table = new int[(int) numEntries];
+            fillTable(executor, parallelism);
+        } finally {
+            if (shutdown) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private void fillTable(ExecutorService executor, int parallelism) {
+        if (executor == null || parallelism <= 1) {
+            fillRows(0, order);
+            return;
+        }
+        int numTasks = Math.min(order, parallelism * TASKS_PER_THREAD);
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(numTasks);
+        for (int t = 0; t < numTasks; t++) {
+            final int from = (int) ((long) order * t / numTasks);
+            final int to = (int) ((long) order * (t + 1) / numTasks);
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    fillRows(from, to);
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Multiplication table construction was interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Multiplication table construction failed.", ex.getCause());
+        }
+    }
+
+    private void fillRows(int from, int to) {
+        int ind = from * degree;
+        for (int r = from; r < to; r++) {
+            T g = ranking.unrank(r);
+            for (int k = 0; k < degree; k++) {
+                table[ind] = (int) ranking.rank(g.rightProductBy(generators.get(k)));
+                ind++;
+            }
+        }
+    }
+
+    /**
+     * Returns the order of the group.
+     *
+     * @return the order of the group.
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the number of (distinct) generators.
+     *
+     * @return the number of generators.
+     */
+    public int getNumberOfGenerators() {
+        return degree;
+    }
+
+    /**
+     * Returns the k-th generator.
+     *
+     * @param k an integer with 0 &lt= k &lt getNumberOfGenerators().
+     * @return the k-th generator.
+     */
+    public T getGenerator(int k) {
+        return generators.get(k);
+    }
+
+    /**
+     * Returns the rank of the identity element.
+     *
+     * @return the rank of the identity element.
+     */
+    public int getIdentityRank() {
+        return identityRank;
+    }
+
+    /**
+     * Returns the rank of g*s_k, where g is the element of rank r and s_k is 
+     * the k-th generator.
+     *
+     * @param r the rank of an element of the group.
+     * @param k an integer with 0 &lt= k &lt getNumberOfGenerators().
+     * @return the rank of the product of the element of rank r by the k-th generator.
+     */
+    public int rightProductBy(int r, int k) {
+        return table[r * degree + k];
+    }
+
+    /**
+     * Returns the rank of the given element of the group.
+     *
+     * @param g any element of the group.
+     * @return the rank of g.
+     */
+    public int rank(T g) {
+        return (int) ranking.rank(g);
+    }
+
+    /**
+     * Returns the element of the group of rank r.
+     *
+     * @param r an integer with 0 &lt= r &lt getOrder().
+     * @return the element of rank r.
+     */
+    public T unrank(int r) {
+        return ranking.unrank(r);
+    }
+
+    /**
+     * Returns the Element of the given rank.
+     *
+     * @param r an integer with 0 &lt= r &lt getOrder().
+     * @return the Element of rank r.
+     */
+    public Element getElement(int r) {
+        if (r < 0 || r >= order) {
+            throw new IllegalArgumentException("Rank out of range: " + r);
+        }
+        return new Element(r, UNKNOWN_GENERATOR_INDEX);
+    }
+
+    /**
+     * Returns the Element corresponding to the given element of the group.
+     *
+     * @param g any element of the group.
+     * @return the Element corresponding to g.
+     */
+    public Element getElement(T g) {
+        return getElement(rank(g));
+    }
+
+    /**
+     * Returns the generators as Elements, in the order of their indices.
+     *
+     * @return the set of generators as Elements.
+     */
+    public Set<Element> getGeneratorElements() {
+        Set<Element> set = new LinkedHashSet<Element>(2 * degree);
+        for (int k = 0; k < degree; k++) {
+            set.add(new Element(generatorRanks[k], k));
+        }
+        return set;
+    }
+
+    private int indexOfGenerator(int r) {
+        for (int k = 0; k < degree; k++) {
+            if (generatorRanks[k] == r) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A view of an element of the group as its rank, implementing the Group 
+     * interface.  Two Elements are operational with one another if and only if
+     * they are views over the same MultiplicationTable.
+     */
+    public class Element implements Group<Element> {
+
+        private final int rank;
+        //The index of this element among the generators, -1 if it is not a 
+        //generator, or UNKNOWN_GENERATOR_INDEX until first looked up.
+        private int generatorIndex;
+
+        private Element(int rank, int generatorIndex) {
+            this.rank = rank;
+            this.generatorIndex = generatorIndex;
+        }
+
+        /**
+         * Returns the rank of this element.
+         *
+         * @return the rank of this element.
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        /**
+         * Returns the element of the underlying group of which this is a view.
+         *
+         * @return the element of the underlying group.
+         */
+        public T toGroupElement() {
+            return ranking.unrank(rank);
+        }
+
+        private int getGeneratorIndex() {
+            if (generatorIndex == UNKNOWN_GENERATOR_INDEX) {
+                generatorIndex = indexOfGenerator(rank);
+            }
+            return generatorIndex;
+        }
+
+        private MultiplicationTable<T> getTable() {
+            return MultiplicationTable.this;
+        }
+
+        @Override
+        public Element leftProductBy(Element h) {
+            return (isOperationalWith(h)) ? h.rightProductBy(this) : null;
+        }
+
+        @Override
+        public Element rightProductBy(Element h) {
+            if (!isOperationalWith(h)) {
+                return null;
+            }
+            int k = h.getGeneratorIndex();
+            if (k >= 0) {
+                return new Element(table[rank * degree + k], UNKNOWN_GENERATOR_INDEX);
+            }
+            return getElement(toGroupElement().rightProductBy(h.toGroupElement()));
+        }
+
+        @Override
+        public Element getInverse() {
+            return getElement(toGroupElement().getInverse());
+        }
+
+        @Override
+        public Element getIdentity() {
+            return getElement(identityRank);
+        }
+
+        @Override
+        public boolean isOperationalWith(Element h) {
+            return h.getTable() == MultiplicationTable.this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof MultiplicationTable.Element) {
+                MultiplicationTable<?>.Element h = (MultiplicationTable<?>.Element) o;
+                return h.getRank() == rank && h.getTable() == MultiplicationTable.this;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return rank;
+        }
+
+        @Override
+        public String toString() {
+            return toGroupElement().toString();
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package utilities;
+
+import api.GroupCodec;
+
+/**
+ * A base implementation of the GroupCodec&ltT&gt interface for groups whose
+ * elements are determined by a fixed number of small non-negative integer
+ * entries, such as the entries of a reduced matrix representative, or the
+ * images of the letters under a permutation.
+ *
+ * <p>
+ * Each entry is packed into a fixed number of bits (the least number sufficient
+ * to hold every value less than the number of possible values specified upon
+ * construction), and the entries are laid out consecutively, starting from the
+ * lowest bits of the first word.  An entry is never split between two words.
+ * </p>
+ *
+ * <p>
+ * Subclasses need only specify how to read the k-th entry of an element, and
+ * how to construct an element from its entries.
+ * </p>
+ *
+ * @author pdokos
+ *
+ * @param <T> The type whose elements are encoded.
+ */
+public abstract class PackedGroupCodec<T> implements GroupCodec<T> {
+
+    private final int numEntries;
+    private final int bitsPerEntry;
+    private final int entriesPerWord;
+    private final int wordCount;
+    private final long mask;
+
+    /**
+     * Constructor for a PackedGroupCodec, for elements determined by numEntries
+     * entries, each of which is a non-negative integer less than numValues.
+     *
+     * @param numEntries the number of entries determining an element.
+     * @param numValues an upper bound (exclusive) for the values of the entries.
+     */
+    protected PackedGroupCodec(int numEntries, int numValues) {
+        this.numEntries = numEntries;
+        bitsPerEntry = Math.max(1, 32 - Integer.numberOfLeadingZeros(numValues - 1));
+        entriesPerWord = 64 / bitsPerEntry;
+        wordCount = (numEntries + entriesPerWord - 1) / entriesPerWord;
+        mask = (bitsPerEntry == 64) ? -1L : (1L << bitsPerEntry) - 1;
+    }
+
+    /**
+     * Returns the k-th entry of the element g.
+     *
+     * @param g any element of the group.
+     * @param k an integer with 0 &lt= k &lt getNumberOfEntries().
+     * @return the k-th entry of g, as a non-negative integer.
+     */
+    protected abstract int getEntry(T g, int k);
+
+    /**
+     * Constructs the element with the given entries.
+     *
+     * @param entries an array of length getNumberOfEntries() holding the entries
+     * of an element of the group.
+     * @return the element with the given entries.
+     */
+    protected abstract T construct(int[] entries);
+
+    /**
+     * Returns the number of entries determining an element.
+     *
+     * @return The number of entries determining an element.
+     */
+    public int getNumberOfEntries() {
+        return numEntries;
+    }
+
+    /**
+     * Returns the number of bits into which each entry is packed.
+     *
+     * @return The number of bits into which each entry is packed.
+     */
+    public int getBitsPerEntry() {
+        return bitsPerEntry;
+    }
+
+    @Override
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    @Override
+    public long encode(T g) {
+        if (wordCount != 1) {
+            throw new UnsupportedOperationException("Elements are encoded by " + wordCount + " words.");
+        }
+        long code = 0;
+        int shift = 0;
+        for (int k = 0; k < numEntries; k++) {
+            code |= ((long) getEntry(g, k)) << shift;
+            shift += bitsPerEntry;
+        }
+        return code;
+    }
+
+    @Override
+    public T decode(long code) {
+        if (wordCount != 1) {
+            throw new UnsupportedOperationException("Elements are encoded by " + wordCount + " words.");
+        }
+        int[] entries = new int[numEntries];
+        for (int k = 0; k < numEntries; k++) {
+            entries[k] = (int) (code & mask);
+            code >>>= bitsPerEntry;
+        }
+        return construct(entries);
+    }
+
+    @Override
+    public void encode(T g, long[] words, int offset) {
+        int k = 0;
+        for (int w = 0; w < wordCount; w++) {
+            long code = 0;
+            int shift = 0;
+            for (int e = 0; e < entriesPerWord && k < numEntries; e++) {
+                code |= ((long) getEntry(g, k)) << shift;
+                shift += bitsPerEntry;
+                k++;
+            }
+            words[offset + w] = code;
+        }
+    }
+
+    @Override
+    public T decode(long[] words, int offset) {
+        int[] entries = new int[numEntries];
+        int k = 0;
+        for (int w = 0; w < wordCount; w++) {
+            long code = words[offset + w];
+            for (int e = 0; e < entriesPerWord && k < numEntries; e++) {
+                entries[k] = (int) (code & mask);
+                code >>>= bitsPerEntry;
+                k++;
+            }
+        }
+        return construct(entries);
+    }
+
+}
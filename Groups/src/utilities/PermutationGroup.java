@@ -0,0 +1,426 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package utilities;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import groups.SymmetricGroup;
+
+/**
+ * A model of the subgroup of the Symmetric Group on n letters generated by a 
+ * given collection of SymmetricGroup elements, by means of a <em>base and strong
+ * generating set</em> computed with the (deterministic) Schreier-Sims algorithm.
+ * This gives the order of the subgroup, membership testing, and uniformly 
+ * distributed random elements, all in time polynomial in n and in the number of
+ * generators, without ever enumerating the elements of the subgroup (as would 
+ * be the case when building its Cayley graph).
+ * 
+ * <p>
+ * A base is a sequence of letters b_0, b_1, ..., b_{k-1} whose pointwise 
+ * stabilizer in the subgroup G is trivial, which yields the chain of stabilizers
+ * G = G_0 &gt G_1 &gt ... &gt G_k = 1, where G_i fixes b_0, ..., b_{i-1}.  
+ * A strong generating set is a generating set of G containing generators of
+ * each G_i.  For each level i, the orbit of b_i under G_i is held in a 
+ * <em>Schreier vector</em>: an <code>int</code> array whose entry at a letter p
+ * of the orbit is the index of the strong generator of G_i by which p was first
+ * reached, so that a coset representative mapping b_i to p is recovered by 
+ * tracing back along the vector.  Hence the order of G is the product of the 
+ * orbit lengths, and an element g lies in G if and only if it reduces to the
+ * identity upon <em>sifting</em> through the levels, i.e.&#160successively 
+ * dividing out the coset representatives mapping b_i to the image of b_i.
+ * </p>
+ * 
+ * <p>
+ * All of the computations are carried out on permutations held as 
+ * <code>int</code> arrays, the permutation p mapping the letter x to p[x].
+ * The memory used is O(n) per strong generator and per level.
+ * </p>
+ * 
+ * @author pdokos
+ */
+public class PermutationGroup {
+    
+    private final int numLetters;
+    private final List<Level> levels;
+    private final Random random;
+
+    /**
+     * A level of the stabilizer chain: the base point b_i, the strong 
+     * generators of G_i together with their inverses, and the orbit of b_i 
+     * under G_i with its Schreier vector.
+     */
+    private class Level {
+        
+        final int basePoint;
+        final List<int[]> generators = new ArrayList<int[]>();
+        final List<int[]> inverses = new ArrayList<int[]>();
+        final int[] schreierVector = new int[numLetters];
+        final int[] orbit = new int[numLetters];
+        int orbitSize;
+        
+        Level(int basePoint) {
+            this.basePoint = basePoint;
+            computeOrbit();
+        }
+        
+        void addGenerator(int[] g) {
+            generators.add(g);
+            inverses.add(invert(g));
+            computeOrbit();
+        }
+        
+        /*
+         * The Schreier vector holds -1 for the letters outside of the orbit, 
+         * -2 for the base point, and otherwise the index of the generator by
+         * which the letter was first reached.
+         */
+        private void computeOrbit() {
+            for (int x = 0; x < numLetters; x++) {
+                schreierVector[x] = -1;
+            }
+            schreierVector[basePoint] = -2;
+            orbit[0] = basePoint;
+            orbitSize = 1;
+            for (int o = 0; o < orbitSize; o++) {
+                int q = orbit[o];
+                for (int k = 0; k < generators.size(); k++) {
+                    int p = generators.get(k)[q];
+                    if (schreierVector[p] == -1) {
+                        schreierVector[p] = k;
+                        orbit[orbitSize] = p;
+                        orbitSize++;
+                    }
+                }
+            }
+        }
+        
+        /*
+         * A coset representative u of G_{i+1} in G_i with u[basePoint] == p, 
+         * for a letter p of the orbit.
+         */
+        int[] getTransversal(int p) {
+            int[] u = identity(numLetters);
+            while (p != basePoint) {
+                int k = schreierVector[p];
+                u = compose(u, generators.get(k));
+                p = inverses.get(k)[p];
+            }
+            return u;
+        }
+        
+        /*
+         * Replaces h by u^{-1}*h, where u is the coset representative with 
+         * u[basePoint] == h[basePoint], or returns false if h[basePoint] is not
+         * in the orbit.
+         */
+        boolean divide(int[] h, int[] scratch) {
+            int p = h[basePoint];
+            if (schreierVector[p] == -1) {
+                return false;
+            }
+            while (p != basePoint) {
+                int[] inverse = inverses.get(schreierVector[p]);
+                for (int x = 0; x < numLetters; x++) {
+                    scratch[x] = inverse[h[x]];
+                }
+                System.arraycopy(scratch, 0, h, 0, numLetters);
+                p = h[basePoint];
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Constructor for the subgroup of the Symmetric Group generated by the given 
+     * elements, which computes a base and strong generating set for the subgroup.
+     * 
+     * @param generators a non-empty collection of SymmetricGroup elements, all
+     * on the same number of letters.
+     */
+    public PermutationGroup(Collection<SymmetricGroup> generators) {
+        if (generators.isEmpty()) {
+            throw new IllegalArgumentException("The collection of generators must not be empty.");
+        }
+        numLetters = generators.iterator().next().getNumLetters();
+        levels = new ArrayList<Level>();
+        random = new Random();
+        
+        List<int[]> gens = new ArrayList<int[]>();
+        for (SymmetricGroup g : generators) {
+            if (g.getNumLetters() != numLetters) {
+                throw new IllegalArgumentException("The generators must all be on " + numLetters + " letters: " + g);
+            }
+            int[] perm = toArray(g);
+            if (!isIdentity(perm)) {
+                gens.add(perm);
+            }
+        }
+        
+        //an initial base, moved by every generator, with the generators of the
+        //pointwise stabilizers of its initial segments
+        for (int[] g : gens) {
+            if (fixesBase(g, levels.size())) {
+                levels.add(new Level(getMovedPoint(g)));
+            }
+        }
+        for (int[] g : gens) {
+            for (int i = 0; i < levels.size(); i++) {
+                levels.get(i).addGenerator(g);
+                if (g[levels.get(i).basePoint] != levels.get(i).basePoint) {
+                    break;
+                }
+            }
+        }
+        
+        schreierSims();
+    }
+    
+    /*
+     * The Schreier-Sims algorithm, in the form of Holt's SCHREIERSIMS: working
+     * from the bottom of the chain upward, every Schreier generator of level i 
+     * is sifted through the levels below it, and a non-trivial residue is added
+     * as a strong generator to the levels from i+1 down to where it dropped out 
+     * (adding a base point if it went through all of the levels), after which 
+     * the verification resumes from that level.
+     */
+    private void schreierSims() {
+        int[] scratch = new int[numLetters];
+        int i = levels.size() - 1;
+        while (i >= 0) {
+            Level level = levels.get(i);
+            int dropLevel = -1;
+            int[] residue = null;
+            search:
+            for (int o = 0; o < level.orbitSize; o++) {
+                int[] u = level.getTransversal(level.orbit[o]);
+                for (int k = 0; k < level.generators.size(); k++) {
+                    int[] h = compose(level.generators.get(k), u);
+                    int j = sift(h, i, scratch);
+                    if (j < levels.size() || !isIdentity(h)) {
+                        dropLevel = j;
+                        residue = h;
+                        break search;
+                    }
+                }
+            }
+            if (residue == null) {
+                i--;
+            } else {
+                if (dropLevel == levels.size()) {
+                    levels.add(new Level(getMovedPoint(residue)));
+                }
+                for (int l = i + 1; l <= dropLevel; l++) {
+                    levels.get(l).addGenerator(residue);
+                }
+                i = dropLevel;
+            }
+        }
+    }
+    
+    /*
+     * Sifts h (in place) through the levels from the given level onward, and
+     * returns the level at which it dropped out, or the number of levels if it 
+     * went through all of them.
+     */
+    private int sift(int[] h, int fromLevel, int[] scratch) {
+        for (int i = fromLevel; i < levels.size(); i++) {
+            if (!levels.get(i).divide(h, scratch)) {
+                return i;
+            }
+        }
+        return levels.size();
+    }
+    
+    private boolean fixesBase(int[] g, int numBasePoints) {
+        for (int i = 0; i < numBasePoints; i++) {
+            int b = levels.get(i).basePoint;
+            if (g[b] != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int getMovedPoint(int[] g) {
+        for (int x = 0; x < g.length; x++) {
+            if (g[x] != x) {
+                return x;
+            }
+        }
+        return -1;
+    }
+    
+    
+    //Permutation arithmetic:
+    
+    private static int[] identity(int n) {
+        int[] id = new int[n];
+        for (int x = 0; x < n; x++) {
+            id[x] = x;
+        }
+        return id;
+    }
+    
+    private static boolean isIdentity(int[] g) {
+        for (int x = 0; x < g.length; x++) {
+            if (g[x] != x) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /*
+     * The composition a*b, which maps x to a[b[x]].
+     */
+    private static int[] compose(int[] a, int[] b) {
+        int[] ab = new int[b.length];
+        for (int x = 0; x < b.length; x++) {
+            ab[x] = a[b[x]];
+        }
+        return ab;
+    }
+    
+    private static int[] invert(int[] g) {
+        int[] inv = new int[g.length];
+        for (int x = 0; x < g.length; x++) {
+            inv[g[x]] = x;
+        }
+        return inv;
+    }
+    
+    private static int[] toArray(SymmetricGroup g) {
+        int[] perm = new int[g.getNumLetters()];
+        for (int x = 0; x < perm.length; x++) {
+            perm[x] = g.getImageOf(x);
+        }
+        return perm;
+    }
+    
+    
+    //Queries:
+    
+    /**
+     * Returns the number of letters permuted by the elements of the group.
+     * 
+     * @return the number of letters permuted by the elements of the group.
+     */
+    public int getNumLetters() {
+        return numLetters;
+    }
+    
+    /**
+     * Returns the order of the group, i.e.&#160the product of the lengths of 
+     * the basic orbits.
+     * 
+     * @return the order of the group.
+     */
+    public BigInteger getOrder() {
+        BigInteger order = BigInteger.ONE;
+        for (Level level : levels) {
+            order = order.multiply(BigInteger.valueOf(level.orbitSize));
+        }
+        return order;
+    }
+    
+    /**
+     * Returns true if the given element of the Symmetric Group belongs to this 
+     * group.
+     * 
+     * @param g any SymmetricGroup element.
+     * @return true if g belongs to this group.
+     */
+    public boolean contains(SymmetricGroup g) {
+        if (g.getNumLetters() != numLetters) {
+            return false;
+        }
+        int[] h = toArray(g);
+        return sift(h, 0, new int[numLetters]) == levels.size() && isIdentity(h);
+    }
+    
+    /**
+     * Returns a uniformly distributed random element of the group, as the 
+     * product of uniformly and independently chosen coset representatives of
+     * the levels of the stabilizer chain.
+     * 
+     * @return a random element of the group.
+     */
+    public SymmetricGroup getRandomElement() {
+        return getRandomElement(random);
+    }
+    
+    /**
+     * Returns a uniformly distributed random element of the group, using the 
+     * given source of randomness.
+     * 
+     * @param rand the source of randomness.
+     * @return a random element of the group.
+     */
+    public SymmetricGroup getRandomElement(Random rand) {
+        int[] g = identity(numLetters);
+        for (Level level : levels) {
+            g = compose(g, level.getTransversal(level.orbit[rand.nextInt(level.orbitSize)]));
+        }
+        return new SymmetricGroup(g);
+    }
+    
+    /**
+     * Returns the base b_0, b_1, ..., b_{k-1} of the stabilizer chain.
+     * 
+     * @return the base of the stabilizer chain.
+     */
+    public int[] getBase() {
+        int[] base = new int[levels.size()];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = levels.get(i).basePoint;
+        }
+        return base;
+    }
+    
+    /**
+     * Returns the length of the orbit of the base point b_i under the pointwise
+     * stabilizer of b_0, ..., b_{i-1}.
+     * 
+     * @param i an integer with 0 &lt= i &lt getBase().length.
+     * @return the length of the i-th basic orbit.
+     */
+    public int getBasicOrbitLength(int i) {
+        return levels.get(i).orbitSize;
+    }
+    
+    /**
+     * Returns the strong generating set, i.e.&#160the strong generators of the
+     * first level of the stabilizer chain (which include those of all other 
+     * levels).
+     * 
+     * @return the strong generating set.
+     */
+    public List<SymmetricGroup> getStrongGeneratingSet() {
+        List<SymmetricGroup> strongGenerators = new ArrayList<SymmetricGroup>();
+        if (!levels.isEmpty()) {
+            for (int[] g : levels.get(0).generators) {
+                strongGenerators.add(new SymmetricGroup(g));
+            }
+        }
+        return strongGenerators;
+    }
+    
+}
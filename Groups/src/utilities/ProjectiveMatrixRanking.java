@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2015 Pericles Dokos
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package utilities;
+
+import api.GroupRanking;
+
+/**
+ * A base implementation of the GroupRanking&ltT&gt interface for the Projective 
+ * General Linear Group PGL(n, q), for groups whose elements are represented by
+ * the reduced matrix representative having an entry of 1 as the first nonzero 
+ * entry of the first column (as is the case for all of the PGL classes of the 
+ * groups and fastgroups packages).
+ *
+ * <p>
+ * The entries of a matrix are handled as the indices 0, 1, ..., q-1 of the 
+ * elements of the base field, the index 0 being that of zero and the index 1 
+ * that of one.  The rank of an element is computed column by column, in the
+ * mixed radix whose digits are:<br>
+ * &#160&#160&#160&#160(i) For the first column, which is a nonzero vector whose
+ * first nonzero entry p is 1: the rank of the column among the (q^n - 1)/(q - 1) 
+ * such vectors, namely (q^(n-1-p) - 1)/(q - 1) plus the base q value of the 
+ * entries below the entry p.<br>
+ * &#160&#160&#160(ii) For the column j &gt 0, which lies outside of the span V of
+ * the previous columns: the rank of the column among the q^n - q^j vectors outside 
+ * of V.  Given the reduced echelon basis of V, with pivot positions p_0, ..., p_{j-1},
+ * the column v is uniquely written as v = w + r, where w is in V, with 
+ * coordinates the entries of v at the pivot positions, and where r is a nonzero 
+ * vector vanishing at the pivot positions.  The digit is then (R - 1)*q^j + C, 
+ * where R is the base q value of the entries of r at the n-j non-pivot positions, 
+ * and C that of the coordinates of w.<br>
+ * The rank and its inverse both take O(n^3) field operations, and no other 
+ * memory than a few n-by-n arrays.
+ * </p>
+ *
+ * <p>
+ * Subclasses need only specify how to read the entries of an element, how to 
+ * construct an element from its entries, and the arithmetic of the base field 
+ * in terms of the indices of its elements.
+ * </p>
+ *
+ * @author pdokos
+ *
+ * @param <T> The type whose elements are ranked.
+ */
+public abstract class ProjectiveMatrixRanking<T> implements GroupRanking<T> {
+
+    private final int n;
+    private final int q;
+    private final long order;
+    private final long[] powers;
+    private final long[] radices;
+
+    /**
+     * Constructor for a ProjectiveMatrixRanking of PGL(n, q).
+     *
+     * @param n the dimension.
+     * @param q the order of the base field.
+     * @throws IllegalArgumentException if the order of PGL(n, q) exceeds
+     * <code>Long.MAX_VALUE</code>.
+     */
+    protected ProjectiveMatrixRanking(int n, int q) {
+        this.n = n;
+        this.q = q;
+        order = GroupOrderCalculator.getOrderPGLn(n, q);
+        if (order == 0) {
+            throw new IllegalArgumentException("The order of PGL(" + n + ", " + q + ") exceeds Long.MAX_VALUE.");
+        }
+        powers = new long[n + 1];
+        powers[0] = 1;
+        for (int i = 1; i <= n; i++) {
+            powers[i] = q * powers[i - 1];
+        }
+        radices = new long[n];
+        radices[0] = (powers[n] - 1) / (q - 1);
+        for (int j = 1; j < n; j++) {
+            radices[j] = powers[n] - powers[j];
+        }
+    }
+
+    /**
+     * Returns the index of the field element in the entry (i, j) of the reduced
+     * matrix representative of g.
+     *
+     * @param g any element of the group.
+     * @param i a row index, 0 &lt= i &lt n.
+     * @param j a column index, 0 &lt= j &lt n.
+     * @return the index of the entry (i, j) of g.
+     */
+    protected abstract int getEntry(T g, int i, int j);
+
+    /**
+     * Constructs the element with the given matrix representative.
+     *
+     * @param mtx an n-by-n array of indices of field elements, forming a 
+     * non-singular matrix.
+     * @return the element with matrix representative mtx.
+     */
+    protected abstract T construct(int[][] mtx);
+
+    /**
+     * Returns the index of the sum of the field elements of indices x and y.
+     *
+     * @param x the index of a field element.
+     * @param y the index of a field element.
+     * @return the index of the sum.
+     */
+    protected abstract int add(int x, int y);
+
+    /**
+     * Returns the index of the product of the field elements of indices x and y.
+     *
+     * @param x the index of a field element.
+     * @param y the index of a field element.
+     * @return the index of the product.
+     */
+    protected abstract int multiply(int x, int y);
+
+    /**
+     * Returns the index of the negative of the field element of index x.
+     *
+     * @param x the index of a field element.
+     * @return the index of the negative.
+     */
+    protected abstract int negative(int x);
+
+    /**
+     * Returns the index of the inverse of the nonzero field element of index x.
+     *
+     * @param x the index of a nonzero field element.
+     * @return the index of the inverse.
+     */
+    protected abstract int inverse(int x);
+
+    /**
+     * Returns the dimension n.
+     *
+     * @return the dimension n.
+     */
+    public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Returns the order q of the base field.
+     *
+     * @return the order of the base field.
+     */
+    public int getFieldOrder() {
+        return q;
+    }
+
+    @Override
+    public long getOrder() {
+        return order;
+    }
+
+    @Override
+    public long rank(T g) {
+        int[][] basis = new int[n][];
+        int[] pivots = new int[n];
+        boolean[] isPivot = new boolean[n];
+        int[] v = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            v[i] = getEntry(g, i, 0);
+        }
+        int p = 0;
+        while (v[p] == 0) {
+            p++;
+        }
+        long rank = (powers[n - 1 - p] - 1) / (q - 1);
+        for (int i = p + 1; i < n; i++) {
+            rank += v[i] * powers[n - 1 - i];
+        }
+        insert(v, basis, pivots, isPivot, 0);
+
+        for (int j = 1; j < n; j++) {
+            v = new int[n];
+            for (int i = 0; i < n; i++) {
+                v[i] = getEntry(g, i, j);
+            }
+            long coords = 0;
+            for (int k = 0; k < j; k++) {
+                int c = v[pivots[k]];
+                coords = q * coords + c;
+                if (c != 0) {
+                    int minusC = negative(c);
+                    for (int i = 0; i < n; i++) {
+                        v[i] = add(v[i], multiply(minusC, basis[k][i]));
+                    }
+                }
+            }
+            long remainder = 0;
+            for (int i = 0; i < n; i++) {
+                if (!isPivot[i]) {
+                    remainder = q * remainder + v[i];
+                }
+            }
+            rank = rank * radices[j] + (remainder - 1) * powers[j] + coords;
+            insert(v, basis, pivots, isPivot, j);
+        }
+        return rank;
+    }
+
+    @Override
+    public T unrank(long r) {
+        if (r < 0 || r >= order) {
+            throw new IllegalArgumentException("Rank out of range: " + r);
+        }
+        long[] digits = new long[n];
+        for (int j = n - 1; j > 0; j--) {
+            digits[j] = r % radices[j];
+            r /= radices[j];
+        }
+        digits[0] = r;
+
+        int[][] basis = new int[n][];
+        int[] pivots = new int[n];
+        boolean[] isPivot = new boolean[n];
+        int[][] mtx = new int[n][n];
+
+        int[] v = new int[n];
+        long d = digits[0];
+        int p = n - 1;
+        while (d >= powers[n - 1 - p]) {
+            d -= powers[n - 1 - p];
+            p--;
+        }
+        v[p] = 1;
+        for (int i = n - 1; i > p; i--) {
+            v[i] = (int) (d % q);
+            d /= q;
+        }
+        setColumn(mtx, v, 0);
+        insert(v, basis, pivots, isPivot, 0);
+
+        for (int j = 1; j < n; j++) {
+            long coords = digits[j] % powers[j];
+            long remainder = digits[j] / powers[j] + 1;
+            v = new int[n];
+            for (int i = n - 1; i >= 0; i--) {
+                if (!isPivot[i]) {
+                    v[i] = (int) (remainder % q);
+                    remainder /= q;
+                }
+            }
+            int[] col = v.clone();
+            for (int k = j - 1; k >= 0; k--) {
+                int c = (int) (coords % q);
+                coords /= q;
+                if (c != 0) {
+                    for (int i = 0; i < n; i++) {
+                        col[i] = add(col[i], multiply(c, basis[k][i]));
+                    }
+                }
+            }
+            setColumn(mtx, col, j);
+            insert(v, basis, pivots, isPivot, j);
+        }
+        return construct(mtx);
+    }
+
+    private static void setColumn(int[][] mtx, int[] v, int j) {
+        for (int i = 0; i < v.length; i++) {
+            mtx[i][j] = v[i];
+        }
+    }
+
+    /*
+     * Adds the vector v, which vanishes at the current pivot positions, to the 
+     * reduced echelon basis as its k-th element, scaling v to have an entry of 1
+     * at its pivot position and clearing that position from the other elements.
+     */
+    private void insert(int[] v, int[][] basis, int[] pivots, boolean[] isPivot, int k) {
+        int p = 0;
+        while (v[p] == 0) {
+            p++;
+        }
+        int scale = inverse(v[p]);
+        for (int i = 0; i < n; i++) {
+            v[i] = multiply(scale, v[i]);
+        }
+        for (int l = 0; l < k; l++) {
+            int c = basis[l][p];
+            if (c != 0) {
+                int minusC = negative(c);
+                for (int i = 0; i < n; i++) {
+                    basis[l][i] = add(basis[l][i], multiply(minusC, v[i]));
+                }
+            }
+        }
+        basis[k] = v;
+        pivots[k] = p;
+        isPivot[p] = true;
+    }
+
+}